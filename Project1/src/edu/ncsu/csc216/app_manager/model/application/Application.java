@@ -1,6 +1,9 @@
 package edu.ncsu.csc216.app_manager.model.application;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import edu.ncsu.csc216.app_manager.model.command.Command;
 import edu.ncsu.csc216.app_manager.model.command.Command.Resolution;
@@ -33,10 +36,40 @@ public class Application {
 	/** A constant representing the closed state */
 	public static final String CLOSED_NAME = "Closed";
 
+	/** State names in the order of their codes */
+	private static final String[] STATE_NAMES = { REVIEW_NAME, INTERVIEW_NAME, WAITLIST_NAME, REFCHK_NAME,
+			OFFER_NAME, CLOSED_NAME };
+	/** Application type names in the order of their codes */
+	private static final String[] TYPE_NAMES = { A_NEW, A_OLD, A_HIRED };
+	/** Resolution names in the order of their codes, where code 0 is no resolution */
+	private static final String[] RESOLUTION_NAMES = { null, Command.R_REVCOMPLETED, Command.R_INTCOMPLETED,
+			Command.R_REFCHKCOMPLETED, Command.R_OFFERCOMPLETED };
+	/**
+	 * Transitions of the finite state machine, indexed by state ordinal and then
+	 * command value ordinal. A null entry is a command the state does not accept,
+	 * and canUpdate checks any further conditions before a transition runs. Each
+	 * transition is a method reference that captures nothing, so the table is
+	 * shared by every application and only ever changes the application passed
+	 * to it
+	 */
+	private static final Transition[][] TRANSITIONS = buildTransitions();
+	/** States in the order of their codes */
+	private static final State[] STATES = State.values();
+	/** Application types in the order of their codes */
+	private static final AppType[] APP_TYPES = AppType.values();
+	/** Resolutions in the order of their codes, where code 0 is no resolution */
+	private static final Resolution[] RESOLUTIONS = { null, Resolution.REVCOMPLETED, Resolution.INTCOMPLETED,
+			Resolution.REFCHKCOMPLETED, Resolution.OFFERCOMPLETED };
+	/**
+	 * Whether each combination of state, type, resolution, processed flag and
+	 * reviewer is a consistent application, indexed by recordKey
+	 */
+	private static final boolean[] VALID_RECORDS = buildValidRecords();
+
 	/** The unique application Id */
 	private int appId;
 	/** The current state of the application */
-	private AppState state;
+	private State state;
 	/** The type of application */
 	private AppType appType;
 	/** Summary of application information */
@@ -47,21 +80,19 @@ public class Application {
 	private boolean processPaperwork;
 	/** Resolution of application */
 	private Resolution resolution;
-	/** ArrayList of Notes */
-	private ArrayList<String> notes;
-
-	/** Final instance of the Review State */
-	private final AppState reviewState = new ReviewState();
-	/** Final instance of the Interview State */
-	private final AppState interviewState = new InterviewState();
-	/** Final instance of the Waitlist State */
-	private final AppState waitlistState = new WaitlistState();
-	/** Final instance of the Reference Check State */
-	private final AppState refChkState = new RefChkState();
-	/** Final instance of the Offer State */
-	private final AppState offerState = new OfferState();
-	/** Final instance of the Closed State */
-	private final AppState closedState = new ClosedState();
+	/** ArrayList of Notes, or null until notesLoader has loaded them */
+	private volatile ArrayList<String> notes;
+	/** Loads the notes on first access, or null if the notes are loaded */
+	private Supplier<ArrayList<String>> notesLoader;
+	/**
+	 * If the notes list is shared with a view, so it is copied before a note is
+	 * added
+	 */
+	private boolean notesShared;
+	/** If the application is an immutable view, which rejects every change */
+	private final boolean view;
+	/** Listener notified when the application changes during a transition */
+	private AppListener listener;
 
 	/**
 	 * This enumeration represents a list of application types specific to the
@@ -76,6 +107,102 @@ public class Application {
 		HIRED,
 	}
 
+	/**
+	 * This enumeration represents the states of the finite state machine, in the
+	 * order of their state codes. Each state is one instance shared by every
+	 * application in that state, and holds nothing but its name
+	 */
+	private enum State {
+		/** Review State */
+		REVIEW(REVIEW_NAME),
+		/** Interview State */
+		INTERVIEW(INTERVIEW_NAME),
+		/** Waitlist State */
+		WAITLIST(WAITLIST_NAME),
+		/** Reference Check State */
+		REFCHK(REFCHK_NAME),
+		/** Offer State */
+		OFFER(OFFER_NAME),
+		/** Closed State */
+		CLOSED(CLOSED_NAME);
+
+		/** Name of the state */
+		private final String stateName;
+
+		/**
+		 * Constructs a state with the given name
+		 * 
+		 * @param stateName name of the state
+		 */
+		State(String stateName) {
+			this.stateName = stateName;
+		}
+	}
+
+	/**
+	 * Interface for one transition of the finite state machine, which handles one
+	 * command value in one state
+	 * 
+	 * @author Gabe Frain
+	 */
+	private interface Transition {
+
+		/**
+		 * Updates the application based on the given command. The command has
+		 * already been checked by canUpdate
+		 * 
+		 * @param app     application being updated
+		 * @param command command being executed
+		 */
+		void apply(Application app, Command command);
+	}
+
+	/**
+	 * Interface for objects that keep track of applications, such as the indexes
+	 * of an application list. The listener is told about each change the finite
+	 * state machine makes to an application
+	 * 
+	 * @author Gabe Frain
+	 */
+	public interface AppListener {
+
+		/**
+		 * Called after the type of the application has changed
+		 * 
+		 * @param app     application that changed
+		 * @param oldType type of the application before the change
+		 * @param newType type of the application after the change
+		 */
+		void typeChanged(Application app, AppType oldType, AppType newType);
+
+		/**
+		 * Called after the state of the application has changed
+		 * 
+		 * @param app      application that changed
+		 * @param oldState name of the state before the change
+		 * @param newState name of the state after the change
+		 */
+		void stateChanged(Application app, String oldState, String newState);
+
+		/**
+		 * Called after the reviewer of the application has changed
+		 * 
+		 * @param app         application that changed
+		 * @param oldReviewer reviewer id before the change, or null if there was none
+		 * @param newReviewer reviewer id after the change, or null if there is none
+		 */
+		void reviewerChanged(Application app, String oldReviewer, String newReviewer);
+
+		/**
+		 * Called after the application has run the transition of a command. A
+		 * command that is not valid for the state the application was in changes
+		 * nothing and is not reported
+		 * 
+		 * @param app application that handled the command
+		 */
+		void updated(Application app);
+	}
+
 	/**
 	 * Constructs an application using the given parameters. Throws an illegal
 	 * argument exception if any parameters are null, any strings are empty, or the
@@ -89,6 +216,7 @@ public class Application {
 	 *                                  empty or the application id is less than 1
 	 */
 	public Application(int appId, AppType appType, String summary, String note) {
+		this.view = false;
 		setAppId(appId);
 		if (appType != AppType.NEW && appType != AppType.OLD && appType != AppType.HIRED) {
 			throw new IllegalArgumentException("Application cannot be created.");
@@ -120,21 +248,163 @@ public class Application {
 	 */
 	public Application(int appId, String state, String appType, String summary, String reviewer,
 			boolean processPaperwork, String resolution, ArrayList<String> notes) {
-		setResolution(resolution);
-		setAppId(appId);
-		setReviewer(reviewer);
-		setState(state);
-		setAppType(appType);
-		setSummary(summary);
-		setProcessPaperwork(processPaperwork);
-		setNotes(notes);
-
-		if (this.reviewer != null && state == REVIEW_NAME) {
+		if (!isValidRecord(appId, state, appType, summary, reviewer, processPaperwork, resolution, notes)) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
-		if (resolution == Command.R_INTCOMPLETED && this.reviewer == null && state == WAITLIST_NAME) {
+		this.view = false;
+		this.appId = appId;
+		this.state = STATES[stateCode(state)];
+		this.appType = APP_TYPES[appTypeCode(appType)];
+		this.summary = summary;
+		this.reviewer = "".equals(reviewer) ? null : reviewer;
+		this.processPaperwork = processPaperwork;
+		this.resolution = RESOLUTIONS[Math.max(0, resolutionCode(resolution))];
+		this.notes = notes;
+	}
+
+	/**
+	 * Constructs an application whose notes are loaded the first time they are
+	 * used. The loader must return a list with at least one note, and is called
+	 * at most once
+	 * 
+	 * @param appId            Id of application
+	 * @param state            State of application
+	 * @param appType          Type of application
+	 * @param summary          Summary of application
+	 * @param reviewer         Id of application reviewer
+	 * @param processPaperwork Application paperwork status
+	 * @param resolution       Resolution of application
+	 * @param notesLoader      Loader of the notes list for application
+	 * @throws IllegalArgumentException if any of parameters are invalid or their
+	 *                                  combinations are invalid
+	 */
+	public Application(int appId, String state, String appType, String summary, String reviewer,
+			boolean processPaperwork, String resolution, Supplier<ArrayList<String>> notesLoader) {
+		if (notesLoader == null
+				|| !isValidHeader(appId, state, appType, summary, reviewer, processPaperwork, resolution)) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
+		this.view = false;
+		this.appId = appId;
+		this.state = STATES[stateCode(state)];
+		this.appType = APP_TYPES[appTypeCode(appType)];
+		this.summary = summary;
+		this.reviewer = "".equals(reviewer) ? null : reviewer;
+		this.processPaperwork = processPaperwork;
+		this.resolution = RESOLUTIONS[Math.max(0, resolutionCode(resolution))];
+		this.notesLoader = notesLoader;
+	}
+
+	/**
+	 * Constructs an immutable view with the fields of an application. The notes
+	 * are set by getView
+	 * 
+	 * @param app application being viewed
+	 */
+	private Application(Application app) {
+		this.view = true;
+		this.appId = app.appId;
+		this.state = app.state;
+		this.appType = app.appType;
+		this.summary = app.summary;
+		this.reviewer = app.reviewer;
+		this.processPaperwork = app.processPaperwork;
+		this.resolution = app.resolution;
+	}
+
+	/**
+	 * Returns an immutable view of the application as it is now. Later commands
+	 * on the application do not change the view, and every change made through
+	 * the view throws. The view shares the notes list, which the application
+	 * copies before it next adds a note, and notes still in the file are loaded
+	 * once for the application and all of its views. The caller must hold the
+	 * lock of the application, as tryUpdate describes
+	 * 
+	 * @return immutable view of the application
+	 */
+	public synchronized Application getView() {
+		if (view) {
+			return this;
+		}
+		Application output = new Application(this);
+		if (notes != null) {
+			output.notes = notes;
+			notesShared = true;
+		} else {
+			if (!(notesLoader instanceof NoteBlock)) {
+				notesLoader = new NoteBlock(notesLoader);
+			}
+			output.notesLoader = notesLoader;
+		}
+		return output;
+	}
+
+	/**
+	 * Checks if the application is an immutable view returned by getView
+	 * 
+	 * @return true if the application is a view
+	 */
+	public boolean isView() {
+		return view;
+	}
+
+	/**
+	 * Throws if the application is an immutable view
+	 * 
+	 * @throws UnsupportedOperationException if the application is a view
+	 */
+	private void checkNotView() {
+		if (view) {
+			throw new UnsupportedOperationException("Application cannot be changed.");
+		}
+	}
+
+	/**
+	 * Checks if the given fields make a valid application without throwing an
+	 * exception. The large constructor accepts exactly the fields this method
+	 * accepts
+	 * 
+	 * @param appId            Id of application
+	 * @param state            State of application
+	 * @param appType          Type of application
+	 * @param summary          Summary of application
+	 * @param reviewer         Id of application reviewer
+	 * @param processPaperwork Application paperwork status
+	 * @param resolution       Resolution of application
+	 * @param notes            Notes list for application
+	 * @return if the fields make a valid application
+	 */
+	public static boolean isValidRecord(int appId, String state, String appType, String summary, String reviewer,
+			boolean processPaperwork, String resolution, ArrayList<String> notes) {
+		return notes != null && notes.size() > 0
+				&& isValidHeader(appId, state, appType, summary, reviewer, processPaperwork, resolution);
+	}
+
+	/**
+	 * Checks if the given fields, other than the notes, make a valid application
+	 * without throwing an exception
+	 * 
+	 * @param appId            Id of application
+	 * @param state            State of application
+	 * @param appType          Type of application
+	 * @param summary          Summary of application
+	 * @param reviewer         Id of application reviewer
+	 * @param processPaperwork Application paperwork status
+	 * @param resolution       Resolution of application
+	 * @return if the fields make a valid application with at least one note
+	 */
+	public static boolean isValidHeader(int appId, String state, String appType, String summary, String reviewer,
+			boolean processPaperwork, String resolution) {
+		if (appId < 1 || summary == null || "".equals(summary)) {
+			return false;
+		}
+		int stateCode = stateCode(state);
+		int typeCode = appTypeCode(appType);
+		// Resolutions that are not recognized are dropped, as setResolution does
+		int resolutionCode = Math.max(0, resolutionCode(resolution));
+		boolean hasReviewer = reviewer != null && !"".equals(reviewer);
+		return stateCode >= 0 && typeCode >= 0
+				&& VALID_RECORDS[recordKey(stateCode, typeCode, resolutionCode, processPaperwork, hasReviewer)];
 	}
 
 	/**
@@ -153,31 +423,223 @@ public class Application {
 	 * @throws IllegalArgumentException if application Id is less than 1
 	 */
 	public void setAppId(int appId) {
+		checkNotView();
 		if (appId < 1) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
 		this.appId = appId;
 	}
 
+	/**
+	 * Gets the code of a state name. Codes are small numbers used by compact
+	 * encodings of applications
+	 * 
+	 * @param stateName name of the state
+	 * @return code of the state, or -1 if the name is not a state
+	 */
+	public static int stateCode(String stateName) {
+		return codeOf(STATE_NAMES, stateName);
+	}
+
+	/**
+	 * Gets the state name with the given code
+	 * 
+	 * @param code code of the state
+	 * @return name of the state
+	 * @throws IllegalArgumentException if the code is not a state code
+	 */
+	public static String stateName(int code) {
+		return nameOf(STATE_NAMES, code);
+	}
+
+	/**
+	 * Gets the code of an application type. Codes are small numbers used by
+	 * compact encodings of applications
+	 * 
+	 * @param appType application type string
+	 * @return code of the type, or -1 if the string is not a type
+	 */
+	public static int appTypeCode(String appType) {
+		return codeOf(TYPE_NAMES, appType);
+	}
+
+	/**
+	 * Gets the application type with the given code
+	 * 
+	 * @param code code of the application type
+	 * @return application type string
+	 * @throws IllegalArgumentException if the code is not a type code
+	 */
+	public static String appTypeName(int code) {
+		return nameOf(TYPE_NAMES, code);
+	}
+
+	/**
+	 * Gets the code of a resolution. Codes are small numbers used by compact
+	 * encodings of applications, where 0 means no resolution
+	 * 
+	 * @param resolution resolution string, or null for no resolution
+	 * @return code of the resolution, or -1 if the string is not a resolution
+	 */
+	public static int resolutionCode(String resolution) {
+		return codeOf(RESOLUTION_NAMES, resolution);
+	}
+
+	/**
+	 * Gets the resolution with the given code
+	 * 
+	 * @param code code of the resolution
+	 * @return resolution string, or null for code 0
+	 * @throws IllegalArgumentException if the code is not a resolution code
+	 */
+	public static String resolutionName(int code) {
+		return nameOf(RESOLUTION_NAMES, code);
+	}
+
+	/**
+	 * Gets the position of a combination of fields in the table of valid records
+	 * 
+	 * @param state       state code
+	 * @param type        application type code
+	 * @param resolution  resolution code
+	 * @param processed   if the paperwork has been processed
+	 * @param hasReviewer if the application has a reviewer
+	 * @return position of the combination
+	 */
+	private static int recordKey(int state, int type, int resolution, boolean processed, boolean hasReviewer) {
+		int key = (state * TYPE_NAMES.length + type) * RESOLUTION_NAMES.length + resolution;
+		return (key * 2 + (processed ? 1 : 0)) * 2 + (hasReviewer ? 1 : 0);
+	}
+
+	/**
+	 * Builds the table of valid records by checking every combination of fields
+	 * once
+	 * 
+	 * @return whether each combination is valid, indexed by recordKey
+	 */
+	private static boolean[] buildValidRecords() {
+		boolean[] table = new boolean[STATE_NAMES.length * TYPE_NAMES.length * RESOLUTION_NAMES.length * 4];
+		for (int s = 0; s < STATE_NAMES.length; s++) {
+			for (int t = 0; t < TYPE_NAMES.length; t++) {
+				for (int r = 0; r < RESOLUTION_NAMES.length; r++) {
+					for (int p = 0; p < 2; p++) {
+						for (int v = 0; v < 2; v++) {
+							table[recordKey(s, t, r, p == 1, v == 1)] = isConsistent(STATES[s], APP_TYPES[t],
+									RESOLUTIONS[r], p == 1, v == 1);
+						}
+					}
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Checks a combination of fields against the rules that setState, setAppType
+	 * and setProcessPaperwork apply when an application is loaded, along with the
+	 * reviewer each state needs. The table of valid records is built from this
+	 * method alone, so it is the only definition of a valid record
+	 * 
+	 * @param state       state of the application
+	 * @param type        type of the application
+	 * @param resolution  resolution of the application, or null for none
+	 * @param processed   if the paperwork has been processed
+	 * @param hasReviewer if the application has a reviewer
+	 * @return if the combination is a consistent application
+	 */
+	private static boolean isConsistent(State state, AppType type, Resolution resolution, boolean processed,
+			boolean hasReviewer) {
+		switch (state) {
+		case REVIEW:
+			if (resolution != null || hasReviewer) {
+				return false;
+			}
+			break;
+		case INTERVIEW:
+		case REFCHK:
+		case OFFER:
+			if (resolution != null || !hasReviewer) {
+				return false;
+			}
+			break;
+		case WAITLIST:
+			if (resolution != Resolution.REVCOMPLETED && resolution != Resolution.INTCOMPLETED) {
+				return false;
+			}
+			// Reopening into reference check needs the reviewer of the interview
+			if (resolution == Resolution.INTCOMPLETED && !hasReviewer) {
+				return false;
+			}
+			break;
+		default:
+			if (resolution == null) {
+				return false;
+			}
+			break;
+		}
+		if (type == AppType.NEW && (state == State.INTERVIEW || state == State.REFCHK || state == State.OFFER
+				|| resolution != null && resolution != Resolution.REVCOMPLETED)) {
+			return false;
+		}
+		if (processed && (state == State.REVIEW || state == State.INTERVIEW)) {
+			return false;
+		}
+		if (processed && (state == State.CLOSED || state == State.WAITLIST) && resolution == Resolution.REVCOMPLETED) {
+			return false;
+		}
+		return processed || state != State.REFCHK && state != State.OFFER;
+	}
+
+	/**
+	 * Finds the code of a name in a table of names
+	 * 
+	 * @param names table of names in code order
+	 * @param name  name being looked up
+	 * @return position of the name in the table, or -1 if it is not there
+	 */
+	private static int codeOf(String[] names, String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (Objects.equals(names[i], name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the name with a code in a table of names
+	 * 
+	 * @param names table of names in code order
+	 * @param code  code being looked up
+	 * @return name at the code
+	 * @throws IllegalArgumentException if the code is outside the table
+	 */
+	private static String nameOf(String[] names, int code) {
+		if (code < 0 || code >= names.length) {
+			throw new IllegalArgumentException();
+		}
+		return names[code];
+	}
+
+	/**
+	 * Sets the listener that is notified when the application changes. An
+	 * application has at most one listener, normally the list that holds it
+	 * 
+	 * @param listener listener to notify, or null for none
+	 * @throws UnsupportedOperationException if the application is a view
+	 */
+	public void setListener(AppListener listener) {
+		checkNotView();
+		this.listener = listener;
+	}
+
 	/**
 	 * Gets the state of the application
 	 * 
 	 * @return the application state
 	 */
 	public String getStateName() {
-		if (state == reviewState) {
-			return reviewState.getStateName();
-		} else if (state == interviewState) {
-			return interviewState.getStateName();
-		} else if (state == waitlistState) {
-			return waitlistState.getStateName();
-		} else if (state == refChkState) {
-			return refChkState.getStateName();
-		} else if (state == offerState) {
-			return offerState.getStateName();
-		} else {
-			return closedState.getStateName();
-		}
+		return state.stateName;
 	}
 
 	/**
@@ -187,55 +649,71 @@ public class Application {
 	 * @throws IllegalArgumentException if incorrect state name
 	 */
 	public void setState(String state) {
+		checkNotView();
 		switch (state) {
 		case REVIEW_NAME:
-			if (getResolution() != null) {
-				throw new IllegalArgumentException("Application cannot be created.");
-			}
-			this.state = reviewState;
+			setState(State.REVIEW);
 			break;
 		case INTERVIEW_NAME:
-			if (getResolution() != null) {
-				throw new IllegalArgumentException("Application cannot be created.");
-			}
-			if (reviewer == null) {
-				throw new IllegalArgumentException("Application cannot be created.");
-			}
-			this.state = interviewState;
+			setState(State.INTERVIEW);
 			break;
 		case WAITLIST_NAME:
-			if (getResolution() == null || Command.R_REFCHKCOMPLETED.equals(getResolution())
-					|| Command.R_OFFERCOMPLETED.equals(getResolution())) {
-				throw new IllegalArgumentException("Application cannot be created.");
-			}
-			this.state = waitlistState;
+			setState(State.WAITLIST);
 			break;
 		case REFCHK_NAME:
-			if (getResolution() != null) {
-				throw new IllegalArgumentException("Application cannot be created.");
-			}
-			if (reviewer == null) {
+			setState(State.REFCHK);
+			break;
+		case OFFER_NAME:
+			setState(State.OFFER);
+			break;
+		case CLOSED_NAME:
+			setState(State.CLOSED);
+			break;
+		default:
+			throw new IllegalArgumentException("Application cannot be created.");
+		}
+	}
+
+	/**
+	 * Moves the application into the given state
+	 * 
+	 * @param state new state of the application
+	 * @throws IllegalArgumentException if the resolution or reviewer does not fit
+	 *                                  the state
+	 */
+	private void setState(State state) {
+		switch (state) {
+		case REVIEW:
+			if (resolution != null) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
-			this.state = refChkState;
 			break;
-		case OFFER_NAME:
-			if (getResolution() != null) {
+		case INTERVIEW:
+		case REFCHK:
+		case OFFER:
+			if (resolution != null) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
 			if (reviewer == null) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
-			this.state = offerState;
 			break;
-		case CLOSED_NAME:
-			if (getResolution() == null) {
+		case WAITLIST:
+			if (resolution == null || resolution == Resolution.REFCHKCOMPLETED
+					|| resolution == Resolution.OFFERCOMPLETED) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
-			this.state = closedState;
 			break;
 		default:
-			throw new IllegalArgumentException("Application cannot be created.");
+			if (resolution == null) {
+				throw new IllegalArgumentException("Application cannot be created.");
+			}
+			break;
+		}
+		State oldState = this.state;
+		this.state = state;
+		if (listener != null && oldState != state) {
+			listener.stateChanged(this, oldState.stateName, state.stateName);
 		}
 	}
 
@@ -261,13 +739,13 @@ public class Application {
 	 * @throws IllegalArgumentException if application type is not new or old
 	 */
 	private void setAppType(String appType) {
+		AppType oldType = this.appType;
 		switch (appType) {
 		case A_NEW:
-			if (INTERVIEW_NAME.equals(getStateName()) || REFCHK_NAME.equals(getStateName())
-					|| OFFER_NAME.equals(getStateName())) {
+			if (state == State.INTERVIEW || state == State.REFCHK || state == State.OFFER) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
-			if (resolution != null && !Command.R_REVCOMPLETED.equals(getResolution())) {
+			if (resolution != null && resolution != Resolution.REVCOMPLETED) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
 			this.appType = AppType.NEW;
@@ -281,6 +759,9 @@ public class Application {
 		default:
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
+		if (listener != null && oldType != this.appType) {
+			listener.typeChanged(this, oldType, this.appType);
+		}
 	}
 
 	/**
@@ -320,11 +801,15 @@ public class Application {
 	 * @param reviewer application reviewer id
 	 */
 	private void setReviewer(String reviewer) {
+		String oldReviewer = this.reviewer;
 		if ("".equals(reviewer)) {
 			this.reviewer = null;
 		} else {
 			this.reviewer = reviewer;
 		}
+		if (listener != null && !Objects.equals(oldReviewer, this.reviewer)) {
+			listener.reviewerChanged(this, oldReviewer, this.reviewer);
+		}
 	}
 
 	/**
@@ -343,14 +828,14 @@ public class Application {
 	 * @throws IllegalArgumentException if paperwork is processed in wrong state
 	 */
 	private void setProcessPaperwork(boolean processPaperwork) {
-		if ((getStateName() == REVIEW_NAME || getStateName() == INTERVIEW_NAME) && processPaperwork) {
+		if ((state == State.REVIEW || state == State.INTERVIEW) && processPaperwork) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
-		if (processPaperwork && (CLOSED_NAME.equals(getStateName()) || WAITLIST_NAME.equals(getStateName()))
+		if (processPaperwork && (state == State.CLOSED || state == State.WAITLIST)
 				&& resolution == Resolution.REVCOMPLETED) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
-		if (!processPaperwork && (REFCHK_NAME.equals(getStateName()) || OFFER_NAME.equals(getStateName()))) {
+		if (!processPaperwork && (state == State.REFCHK || state == State.OFFER)) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
 		this.processPaperwork = processPaperwork;
@@ -404,11 +889,38 @@ public class Application {
 	}
 
 	/**
-	 * Gets the application notes
+	 * Gets the application notes. A view returns a copy, so its notes cannot be
+	 * changed through the list
 	 * 
 	 * @return the application notes
 	 */
 	public ArrayList<String> getNotes() {
+		ArrayList<String> loaded = loadedNotes();
+		return view ? new ArrayList<String>(loaded) : loaded;
+	}
+
+	/**
+	 * Gets the notes list itself, loading it first if needed
+	 * 
+	 * @return the application notes
+	 */
+	private ArrayList<String> loadedNotes() {
+		ArrayList<String> loaded = notes;
+		return loaded != null ? loaded : loadNotes();
+	}
+
+	/**
+	 * Loads the notes with the notes loader, if another thread has not already
+	 * loaded them
+	 * 
+	 * @return the application notes
+	 */
+	private synchronized ArrayList<String> loadNotes() {
+		if (notes == null && notesLoader != null) {
+			notes = notesLoader.get();
+			notesShared = notesLoader instanceof NoteBlock;
+			notesLoader = null;
+		}
 		return notes;
 	}
 
@@ -435,10 +947,15 @@ public class Application {
 		if (note == null || "".equals(note)) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		}
-		if (notes == null) {
-			notes = new ArrayList<String>();
+		ArrayList<String> list = loadedNotes();
+		if (list == null) {
+			list = new ArrayList<String>();
+		} else if (notesShared) {
+			list = new ArrayList<String>(list);
 		}
-		notes.add("[" + getStateName() + "] " + note);
+		list.add("[" + getStateName() + "] " + note);
+		notes = list;
+		notesShared = false;
 	}
 
 	/**
@@ -447,12 +964,14 @@ public class Application {
 	 * @return notes string
 	 */
 	public String getNotesString() {
-		String output = "";
-		for (int i = 0; i < notes.size(); i++) {
-			output = output + "-" + notes.get(i) + "\n";
+		StringBuilder output = new StringBuilder();
+		try {
+			writeNotesTo(output, true);
+		} catch (IOException e) {
+			// A StringBuilder never throws
+			throw new IllegalStateException(e);
 		}
-		
-		return output;
+		return output.toString();
 	}
 
 	/**
@@ -461,338 +980,357 @@ public class Application {
 	 * @return application string
 	 */
 	public String toString() {
-		String output = "*" + getAppId() + "," + getStateName() + "," + getAppType() + "," + getSummary() + ",";
-		output = output + getReviewer() + "," + isProcessed() + ",";
-		if (getResolution() == null) {
-			output = output + "\r\n" + getNotesString();
-		} else {
-			output = output + getResolution() + "\r\n" + getNotesString();
+		StringBuilder output = new StringBuilder();
+		try {
+			writeTo(output);
+		} catch (IOException e) {
+			// A StringBuilder never throws
+			throw new IllegalStateException(e);
 		}
-		return output;
+		return output.toString();
 	}
 
 	/**
-	 * Drives the finite state machine by delegating to the correct updateState
-	 * command based on the current state
+	 * Writes the string representation of Application, as toString returns it,
+	 * straight to an output without building the string first
 	 * 
-	 * @param command command being executed by the application
-	 * @throws UnsupportedOperationException if the command is not appropriate for
-	 *                                       the current state
+	 * @param out output the application is written to
+	 * @throws IOException if the output cannot be written
 	 */
-	public void update(Command command) {
-		switch (getStateName()) {
-		case REVIEW_NAME:
-			reviewState.updateState(command);
-			break;
-		case INTERVIEW_NAME:
-			interviewState.updateState(command);
-			break;
-		case WAITLIST_NAME:
-			waitlistState.updateState(command);
-			break;
-		case REFCHK_NAME:
-			refChkState.updateState(command);
-			break;
-		case OFFER_NAME:
-			offerState.updateState(command);
-			break;
-		case CLOSED_NAME:
-			closedState.updateState(command);
-			break;
-		default:
-			break;
-		}
+	public void writeTo(Appendable out) throws IOException {
+		writeTo(out, true);
 	}
 
 	/**
-	 * Interface for states in the Application State Pattern. All concrete
-	 * application states must implement the AppState interface. The AppState
-	 * interface should be a private interface of the Application class.
+	 * Writes the string representation of Application to an output, optionally
+	 * without the newline that ends its last note, as records are separated in
+	 * application files
 	 * 
-	 * @author Dr. Sarah Heckman (sarah_heckman@ncsu.edu)
-	 * @author Dr. Chandrika Satyavolu (jsatyav@ncsu.edu)
+	 * @param out     output the application is written to
+	 * @param newline if the newline after the last note is written
+	 * @throws IOException if the output cannot be written
 	 */
-	private interface AppState {
-
-		/**
-		 * Update the Application based on the given Command. An
-		 * UnsupportedOperationException is thrown if the Command is not a valid action
-		 * for the given state.
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the Command is not a valid action
-		 *                                       for the given state.
-		 */
-		void updateState(Command command);
-
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		String getStateName();
-
+	public void writeTo(Appendable out, boolean newline) throws IOException {
+		out.append('*').append(Integer.toString(appId)).append(',').append(getStateName()).append(',');
+		out.append(getAppType()).append(',').append(summary).append(',').append(String.valueOf(reviewer));
+		out.append(',').append(processPaperwork ? "true" : "false").append(',');
+		if (getResolution() != null) {
+			out.append(getResolution());
+		}
+		out.append("\r\n");
+		writeNotesTo(out, newline);
 	}
 
 	/**
-	 * This class is the first state of the Application State Pattern. It represents
-	 * an application in the review state
+	 * Writes each note to an output, preceded by a dash and followed by a newline
 	 * 
-	 * @author Gabe Frain
+	 * @param out     output the notes are written to
+	 * @param newline if the newline after the last note is written
+	 * @throws IOException if the output cannot be written
 	 */
-	private class ReviewState implements AppState {
-
-		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
-		 */
-		public void updateState(Command command) {
-			if (command.getCommand() == CommandValue.ACCEPT) {
-				setReviewer(command.getReviewerId());
-				setState(INTERVIEW_NAME);
-				setAppType(A_OLD);
-			} else if (command.getCommand() == CommandValue.REJECT) {
-				setReviewer(command.getReviewerId());
-				setResolution(Command.R_REVCOMPLETED);
-				setState(CLOSED_NAME);
-			} else if (command.getCommand() == CommandValue.STANDBY) {
-				if (A_NEW.equals(getAppType())) {
-					setReviewer(command.getReviewerId());
-					setResolution(Command.R_REVCOMPLETED);
-					setState(WAITLIST_NAME);
-				} else {
-					throw new UnsupportedOperationException("Invalid information.");
-				}
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
+	private void writeNotesTo(Appendable out, boolean newline) throws IOException {
+		ArrayList<String> list = loadedNotes();
+		for (int i = 0; i < list.size(); i++) {
+			out.append('-').append(list.get(i));
+			if (newline || i < list.size() - 1) {
+				out.append('\n');
 			}
-			addNote(command.getNote());
 		}
+	}
 
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		public String getStateName() {
-			return REVIEW_NAME;
+	/**
+	 * Drives the finite state machine. This is a thin wrapper around tryUpdate
+	 * that throws when the command is rejected. The caller must hold the lock of
+	 * the application, as tryUpdate describes
+	 * 
+	 * @param command command being executed by the application
+	 * @throws UnsupportedOperationException if the command is not appropriate for
+	 *                                       the current state, or the application
+	 *                                       is a view
+	 */
+	public void update(Command command) {
+		if (!tryUpdate(command)) {
+			throw new UnsupportedOperationException("Invalid information.");
 		}
 	}
 
 	/**
-	 * This class is the second state of the Application State Pattern. It
-	 * represents an application in the interview state
+	 * Drives the finite state machine without throwing when the command is not
+	 * appropriate for the current state. The transition for the current state and
+	 * the command value is looked up in the transition table. A rejected command
+	 * leaves the application unchanged. An application is not thread safe, so the
+	 * caller must hold a lock that serializes every command and read on this
+	 * application, as AppManager does with the lock stripe of its id, or be the
+	 * only thread that can reach it. The shared states and transitions hold no
+	 * state of their own, so different applications can be updated at once
 	 * 
-	 * @author Gabe Frain
+	 * @param command command being executed by the application
+	 * @return true if the command was executed, or false if it was rejected
+	 * @throws UnsupportedOperationException if the application is a view
 	 */
-	private class InterviewState implements AppState {
-
-		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
-		 */
-		public void updateState(Command command) {
-			if (command.getCommand() == CommandValue.ACCEPT) {
-				if (command.getReviewerId() == null) {
-					throw new UnsupportedOperationException("Invalid information.");
-				}
-				setState(REFCHK_NAME);
-				setProcessPaperwork(true);
-			} else if (command.getCommand() == CommandValue.REJECT) {
-				setResolution(Command.R_INTCOMPLETED);
-				setState(CLOSED_NAME);
-			} else if (command.getCommand() == CommandValue.STANDBY) {
-				setResolution(Command.R_INTCOMPLETED);
-				setState(WAITLIST_NAME);
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
+	public boolean tryUpdate(Command command) {
+		checkNotView();
+		if (!canUpdate(command)) {
+			return false;
+		}
+		try {
+			TRANSITIONS[state.ordinal()][command.getCommand().ordinal()].apply(this, command);
+		} finally {
+			if (listener != null) {
+				listener.updated(this);
 			}
-			setReviewer(command.getReviewerId());
-			addNote(command.getNote());
 		}
+		return true;
+	}
 
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		public String getStateName() {
-			return INTERVIEW_NAME;
+	/**
+	 * Checks if the command is appropriate for the current state without changing
+	 * the application
+	 * 
+	 * @param command command being checked
+	 * @return true if update would execute the command
+	 */
+	public boolean canUpdate(Command command) {
+		CommandValue value = command.getCommand();
+		if (TRANSITIONS[state.ordinal()][value.ordinal()] == null) {
+			return false;
+		}
+		switch (state) {
+		case REVIEW:
+			return value != CommandValue.STANDBY || appType == AppType.NEW;
+		case INTERVIEW:
+			return value != CommandValue.ACCEPT || command.getReviewerId() != null;
+		case WAITLIST:
+			// Reopening into reference check needs a reviewer
+			return resolution != Resolution.INTCOMPLETED
+					|| command.getReviewerId() != null && !"".equals(command.getReviewerId());
+		case CLOSED:
+			return resolution == Resolution.REVCOMPLETED && appType == AppType.NEW;
+		default:
+			return true;
 		}
 	}
 
 	/**
-	 * This class is the third state of the Application State Pattern. It represents
-	 * an application in the waitlist state
+	 * Builds the transition table of the finite state machine
 	 * 
-	 * @author Gabe Frain
+	 * @return transitions indexed by state ordinal and command value ordinal
 	 */
-	private class WaitlistState implements AppState {
+	private static Transition[][] buildTransitions() {
+		Transition[][] table = new Transition[State.values().length][CommandValue.values().length];
+		table[State.REVIEW.ordinal()][CommandValue.ACCEPT.ordinal()] = Application::reviewAccept;
+		table[State.REVIEW.ordinal()][CommandValue.REJECT.ordinal()] = Application::reviewReject;
+		table[State.REVIEW.ordinal()][CommandValue.STANDBY.ordinal()] = Application::reviewStandby;
+		table[State.INTERVIEW.ordinal()][CommandValue.ACCEPT.ordinal()] = Application::interviewAccept;
+		table[State.INTERVIEW.ordinal()][CommandValue.REJECT.ordinal()] = Application::interviewReject;
+		table[State.INTERVIEW.ordinal()][CommandValue.STANDBY.ordinal()] = Application::interviewStandby;
+		table[State.WAITLIST.ordinal()][CommandValue.REOPEN.ordinal()] = Application::waitlistReopen;
+		table[State.REFCHK.ordinal()][CommandValue.ACCEPT.ordinal()] = Application::refChkAccept;
+		table[State.REFCHK.ordinal()][CommandValue.REJECT.ordinal()] = Application::refChkReject;
+		table[State.OFFER.ordinal()][CommandValue.ACCEPT.ordinal()] = Application::offerAccept;
+		table[State.OFFER.ordinal()][CommandValue.REJECT.ordinal()] = Application::offerReject;
+		table[State.CLOSED.ordinal()][CommandValue.REOPEN.ordinal()] = Application::closedReopen;
+		return table;
+	}
 
-		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
-		 */
-		public void updateState(Command command) {
-			if (command.getCommand() == CommandValue.REOPEN) {
-				setReviewer(command.getReviewerId());
-				if (Command.R_INTCOMPLETED.equals(getResolution())) {
-					setResolution(null);
-					setState(REFCHK_NAME);
-					setProcessPaperwork(true);
-				} else if (Command.R_REVCOMPLETED.equals(getResolution())) {
-					setAppType(A_OLD);
-					setResolution(null);
-					setState(REVIEW_NAME);
-				}
-				addNote(command.getNote());
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
-			}
-		}
+	/**
+	 * Accepts an application in the review state and moves it to the interview
+	 * state
+	 * 
+	 * @param command command being executed
+	 */
+	private void reviewAccept(Command command) {
+		setReviewer(command.getReviewerId());
+		setState(State.INTERVIEW);
+		setAppType(A_OLD);
+		addNote(command.getNote());
+	}
 
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		public String getStateName() {
-			return WAITLIST_NAME;
-		}
+	/**
+	 * Rejects an application in the review state and closes it
+	 * 
+	 * @param command command being executed
+	 */
+	private void reviewReject(Command command) {
+		setReviewer(command.getReviewerId());
+		resolution = Resolution.REVCOMPLETED;
+		setState(State.CLOSED);
+		addNote(command.getNote());
 	}
 
 	/**
-	 * This class is the fourth state of the Application State Pattern. It
-	 * represents an application in the reference check state
+	 * Moves a new application in the review state to the waitlist
 	 * 
-	 * @author Gabe Frain
+	 * @param command command being executed
 	 */
-	private class RefChkState implements AppState {
+	private void reviewStandby(Command command) {
+		setReviewer(command.getReviewerId());
+		resolution = Resolution.REVCOMPLETED;
+		setState(State.WAITLIST);
+		addNote(command.getNote());
+	}
 
-		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
-		 */
-		public void updateState(Command command) {
-			if (command.getCommand() == CommandValue.ACCEPT) {
-				setState(OFFER_NAME);
-			} else if (command.getCommand() == CommandValue.REJECT) {
-				setResolution(Command.R_REFCHKCOMPLETED);
-				setState(CLOSED_NAME);
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
-			}
+	/**
+	 * Accepts an application in the interview state and moves it to the reference
+	 * check state
+	 * 
+	 * @param command command being executed
+	 */
+	private void interviewAccept(Command command) {
+		setState(State.REFCHK);
+		setProcessPaperwork(true);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
+	}
+
+	/**
+	 * Rejects an application in the interview state and closes it
+	 * 
+	 * @param command command being executed
+	 */
+	private void interviewReject(Command command) {
+		resolution = Resolution.INTCOMPLETED;
+		setState(State.CLOSED);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
+	}
+
+	/**
+	 * Moves an application in the interview state to the waitlist. The reviewer
+	 * is kept unless the command names another one
+	 * 
+	 * @param command command being executed
+	 */
+	private void interviewStandby(Command command) {
+		resolution = Resolution.INTCOMPLETED;
+		setState(State.WAITLIST);
+		// Reopening from the waitlist needs the reviewer of the interview
+		if (command.getReviewerId() != null && !"".equals(command.getReviewerId())) {
 			setReviewer(command.getReviewerId());
-			addNote(command.getNote());
 		}
+		addNote(command.getNote());
+	}
 
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		public String getStateName() {
-			return REFCHK_NAME;
+	/**
+	 * Reopens an application on the waitlist, moving it back to the state it was
+	 * waitlisted from
+	 * 
+	 * @param command command being executed
+	 */
+	private void waitlistReopen(Command command) {
+		if (resolution == Resolution.INTCOMPLETED) {
+			setReviewer(command.getReviewerId());
+			resolution = null;
+			setState(State.REFCHK);
+			setProcessPaperwork(true);
+		} else if (resolution == Resolution.REVCOMPLETED) {
+			// An application under review has no reviewer
+			setReviewer(null);
+			setAppType(A_OLD);
+			resolution = null;
+			setState(State.REVIEW);
 		}
+		addNote(command.getNote());
 	}
 
 	/**
-	 * This class is the fifth state of the Application State Pattern. It represents
-	 * an application in the offer state
+	 * Accepts an application in the reference check state and moves it to the
+	 * offer state
 	 * 
-	 * @author Gabe Frain
+	 * @param command command being executed
 	 */
-	private class OfferState implements AppState {
+	private void refChkAccept(Command command) {
+		setState(State.OFFER);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
+	}
 
-		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
-		 */
-		public void updateState(Command command) {
-			setResolution(Command.R_OFFERCOMPLETED);
-			if (command.getCommand() == CommandValue.ACCEPT) {
-				setState(CLOSED_NAME);
-				setAppType(A_HIRED);
-			} else if (command.getCommand() == CommandValue.REJECT) {
-				setState(CLOSED_NAME);
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
-			}
-			setReviewer(command.getReviewerId());
-			addNote(command.getNote());
-		}
+	/**
+	 * Rejects an application in the reference check state and closes it
+	 * 
+	 * @param command command being executed
+	 */
+	private void refChkReject(Command command) {
+		resolution = Resolution.REFCHKCOMPLETED;
+		setState(State.CLOSED);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
+	}
 
-		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
-		 */
-		public String getStateName() {
-			return OFFER_NAME;
-		}
+	/**
+	 * Accepts an application in the offer state, closing it as hired
+	 * 
+	 * @param command command being executed
+	 */
+	private void offerAccept(Command command) {
+		resolution = Resolution.OFFERCOMPLETED;
+		setState(State.CLOSED);
+		setAppType(A_HIRED);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
+	}
+
+	/**
+	 * Rejects an application in the offer state and closes it
+	 * 
+	 * @param command command being executed
+	 */
+	private void offerReject(Command command) {
+		resolution = Resolution.OFFERCOMPLETED;
+		setState(State.CLOSED);
+		setReviewer(command.getReviewerId());
+		addNote(command.getNote());
 	}
 
 	/**
-	 * This class is the sixth state of the Application State Pattern. It represents
-	 * an application in the closed state
+	 * Reopens a new application that was closed during review, moving it back to
+	 * the review state as an old application without a reviewer
 	 * 
+	 * @param command command being executed
+	 */
+	private void closedReopen(Command command) {
+		setAppType(A_OLD);
+		resolution = null;
+		setState(State.REVIEW);
+		// An application under review has no reviewer
+		setReviewer(null);
+		addNote(command.getNote());
+	}
+
+	/**
+	 * This class loads a note block once for an application and all of its views.
+	 * The loaded list is never changed, since the application copies it before
+	 * adding a note
+	 *
 	 * @author Gabe Frain
 	 */
-	private class ClosedState implements AppState {
+	private static class NoteBlock implements Supplier<ArrayList<String>> {
+
+		/** Loader of the notes, or null once they are loaded */
+		private Supplier<ArrayList<String>> loader;
+		/** Notes, or null until they are loaded */
+		private ArrayList<String> notes;
 
 		/**
-		 * Updates the application based on the given command
-		 * 
-		 * @param command Command describing the action that will update the
-		 *                Application's state.
-		 * @throws UnsupportedOperationException if the command is not appropriate for
-		 *                                       the current state
+		 * Constructs a block loaded by the given loader
+		 *
+		 * @param loader loader of the notes
 		 */
-		public void updateState(Command command) {
-			if (command.getCommand() == CommandValue.REOPEN) {
-				if (Command.R_REVCOMPLETED.equals(getResolution()) && appType == AppType.NEW) {
-					setAppType(A_OLD);
-					setResolution(null);
-					setState(REVIEW_NAME);
-					setReviewer(command.getReviewerId());
-					addNote(command.getNote());
-				} else {
-					throw new UnsupportedOperationException("Invalid information.");
-				}
-			} else {
-				throw new UnsupportedOperationException("Invalid information.");
-			}
+		NoteBlock(Supplier<ArrayList<String>> loader) {
+			this.loader = loader;
 		}
 
 		/**
-		 * Returns the name of the current state as a String.
-		 * 
-		 * @return the name of the current state as a String.
+		 * Loads the notes the first time it is called
+		 *
+		 * @return the notes
 		 */
-		public String getStateName() {
-			return CLOSED_NAME;
+		public synchronized ArrayList<String> get() {
+			if (notes == null) {
+				notes = loader.get();
+				loader = null;
+			}
+			return notes;
 		}
 	}
-
 }
@@ -70,16 +70,7 @@ public class Command {
 	 *                                  null/empty note
 	 */
 	public Command(CommandValue c, String reviewerId, Resolution r, String note) {
-		if (c == null) {
-			throw new IllegalArgumentException("Invalid information.");
-		}
-		if (c == CommandValue.ACCEPT && (reviewerId == null || "".equals(reviewerId))) {
-			throw new IllegalArgumentException("Invalid information.");
-		}
-		if ((c == CommandValue.STANDBY || c == CommandValue.REJECT) && r == null) {
-			throw new IllegalArgumentException("Invalid information.");
-		}
-		if (note == null || "".equals(note)) {
+		if (!isValid(c, reviewerId, r, note)) {
 			throw new IllegalArgumentException("Invalid information.");
 		}
 		this.c = c;
@@ -88,6 +79,30 @@ public class Command {
 		this.note = note;
 	}
 
+	/**
+	 * Checks if the given parameters make a valid command without throwing an
+	 * exception. The constructor accepts exactly the parameters this method
+	 * accepts
+	 * 
+	 * @param c          Command Value of the Command
+	 * @param reviewerId Reviewer Id of the Command
+	 * @param r          Resolution of the Command
+	 * @param note       Note of the Command
+	 * @return true if the parameters make a valid command
+	 */
+	public static boolean isValid(CommandValue c, String reviewerId, Resolution r, String note) {
+		if (c == null) {
+			return false;
+		}
+		if (c == CommandValue.ACCEPT && (reviewerId == null || "".equals(reviewerId))) {
+			return false;
+		}
+		if ((c == CommandValue.STANDBY || c == CommandValue.REJECT) && r == null) {
+			return false;
+		}
+		return note != null && !"".equals(note);
+	}
+
 	/**
 	 * This method gets c
 	 * 
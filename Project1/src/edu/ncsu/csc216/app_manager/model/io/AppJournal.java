@@ -0,0 +1,560 @@
+package edu.ncsu.csc216.app_manager.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+import edu.ncsu.csc216.app_manager.model.command.Command.Resolution;
+
+/**
+ * This class is an append-only binary journal of the changes made to an
+ * application list. Each record is written as its length followed by an
+ * operation byte, a sequence number and the fields of the change. Sequence
+ * numbers keep growing when the journal is truncated, so a snapshot can record
+ * the last record it includes, and the records up to it can be skipped if a
+ * crash kept the journal from being truncated after the snapshot was saved. A
+ * record that was only partly written before a crash is recognized and skipped
+ * when the journal is replayed, and cut off before the next record is
+ * appended. Records are buffered and forced to disk in groups, so the cost of
+ * each sync is shared by every record in the group, and a group that is still
+ * filling is forced to disk after a short delay so no record waits long to
+ * become durable
+ *
+ * @author Gabe Frain
+ */
+public class AppJournal {
+
+	/** Operation byte of a command executed on an application */
+	public static final byte EXECUTE = 1;
+	/** Operation byte of an application added to the list */
+	public static final byte ADD = 2;
+	/** Operation byte of an application deleted from the list */
+	public static final byte DELETE = 3;
+
+	/** Default longest time a record waits for its group to fill, in milliseconds */
+	public static final long DEFAULT_SYNC_DELAY_MILLIS = 100;
+
+	/** Length written for a null string */
+	private static final int NULL_LENGTH = -1;
+
+	/** Stream the journal file is appended through */
+	private final FileOutputStream file;
+	/** Buffered stream records are written to */
+	private final DataOutputStream out;
+	/** Buffer a record is encoded into before it is written */
+	private final ByteArrayOutputStream record;
+	/** Stream that encodes fields into the record buffer */
+	private final DataOutputStream recordOut;
+	/** Number of records written between syncs */
+	private final int groupSize;
+	/** Number of records written since the last sync */
+	private int pending;
+	/** Number of bytes in the journal, including buffered records */
+	private long size;
+	/** Number of records appended since the journal was opened or truncated */
+	private long records;
+	/** Sequence number of the last record appended */
+	private long sequence;
+	/** Executor that syncs groups that are still filling */
+	private final ScheduledExecutorService syncer;
+
+	/**
+	 * Interface for objects that apply the records of a journal as it is replayed
+	 *
+	 * @author Gabe Frain
+	 */
+	public interface Replayer {
+
+		/**
+		 * Called for a command executed on an application
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 * @param command  command executed
+		 */
+		void execute(long sequence, int id, Command command);
+
+		/**
+		 * Called for an application added to the list
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of the new application
+		 * @param appType  type of application
+		 * @param summary  summary of application
+		 * @param note     application note
+		 */
+		void add(long sequence, int id, AppType appType, String summary, String note);
+
+		/**
+		 * Called for an application deleted from the list
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 */
+		void delete(long sequence, int id);
+	}
+
+	/**
+	 * Opens a journal for appending. Complete records already in the file are
+	 * kept, and a record cut short at the end of the file is removed. Sequence
+	 * numbers continue from the last record in the file. A group that is still
+	 * filling is synced after DEFAULT_SYNC_DELAY_MILLIS
+	 *
+	 * @param fileName  name of journal file
+	 * @param groupSize number of records written between syncs to disk
+	 * @throws IllegalArgumentException if fileName is null, groupSize is less than
+	 *                                  1 or the file cannot be read or opened
+	 */
+	public AppJournal(String fileName, int groupSize) {
+		this(fileName, groupSize, DEFAULT_SYNC_DELAY_MILLIS, new Tail(fileName));
+	}
+
+	/**
+	 * Opens a journal for appending after the complete records found at the start
+	 * of the file
+	 *
+	 * @param fileName        name of journal file
+	 * @param groupSize       number of records written between syncs to disk
+	 * @param syncDelayMillis longest time a record waits for its group to fill
+	 * @param tail            end and last sequence number of the complete records
+	 */
+	private AppJournal(String fileName, int groupSize, long syncDelayMillis, Tail tail) {
+		this(fileName, groupSize, syncDelayMillis, tail.length, tail.sequence);
+	}
+
+	/**
+	 * Opens a journal for appending after its first complete records, as found by
+	 * replay. Any bytes after them are what is left of a record cut short by a
+	 * crash, and are removed so the next record is not written after them. A
+	 * group that is still filling is synced once the delay has passed, so no
+	 * record waits longer than that to reach the disk. Appended records are
+	 * numbered after the given sequence number, which must be at least the last
+	 * one in the file and in any snapshot saved from it
+	 *
+	 * @param fileName        name of journal file
+	 * @param groupSize       number of records written between syncs to disk
+	 * @param syncDelayMillis longest time a record waits for its group to fill, in
+	 *                        milliseconds
+	 * @param length          number of bytes of complete records at the start of
+	 *                        the file
+	 * @param sequence        sequence number of the last record already used
+	 * @throws IllegalArgumentException if fileName is null, groupSize or
+	 *                                  syncDelayMillis is less than 1, length or
+	 *                                  sequence is negative or the file cannot be
+	 *                                  opened
+	 */
+	public AppJournal(String fileName, int groupSize, long syncDelayMillis, long length, long sequence) {
+		if (fileName == null || groupSize < 1 || syncDelayMillis < 1 || length < 0 || sequence < 0) {
+			throw new IllegalArgumentException();
+		}
+		FileOutputStream opened = null;
+		try {
+			opened = new FileOutputStream(fileName, true);
+			FileChannel channel = opened.getChannel();
+			if (channel.size() > length) {
+				channel.truncate(length);
+				channel.force(true);
+			}
+			size = channel.size();
+		} catch (IOException e) {
+			closeQuietly(opened);
+			throw new IllegalArgumentException("Unable to open journal.");
+		}
+		file = opened;
+		out = new DataOutputStream(new BufferedOutputStream(file));
+		record = new ByteArrayOutputStream();
+		recordOut = new DataOutputStream(record);
+		this.groupSize = groupSize;
+		this.sequence = sequence;
+		pending = 0;
+		syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "app-journal-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		syncer.scheduleWithFixedDelay(this::syncPending, syncDelayMillis, syncDelayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Appends a command executed on an application
+	 *
+	 * @param id      id of application
+	 * @param command command being executed
+	 * @throws IllegalArgumentException if the record cannot be written
+	 */
+	public synchronized void appendExecute(int id, Command command) {
+		try {
+			recordOut.writeByte(EXECUTE);
+			recordOut.writeLong(sequence + 1);
+			recordOut.writeInt(id);
+			recordOut.writeByte(command.getCommand().ordinal());
+			recordOut.writeByte(command.getResolution() == null ? 0 : command.getResolution().ordinal() + 1);
+			writeString(recordOut, command.getReviewerId());
+			writeString(recordOut, command.getNote());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+		writeRecord();
+	}
+
+	/**
+	 * Appends an application added to the list
+	 *
+	 * @param id      id of the new application
+	 * @param appType type of application
+	 * @param summary summary of application
+	 * @param note    application note
+	 * @throws IllegalArgumentException if the record cannot be written
+	 */
+	public synchronized void appendAdd(int id, AppType appType, String summary, String note) {
+		try {
+			recordOut.writeByte(ADD);
+			recordOut.writeLong(sequence + 1);
+			recordOut.writeInt(id);
+			recordOut.writeByte(appType == null ? NULL_LENGTH : appType.ordinal());
+			writeString(recordOut, summary);
+			writeString(recordOut, note);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+		writeRecord();
+	}
+
+	/**
+	 * Appends an application deleted from the list
+	 *
+	 * @param id id of application
+	 * @throws IllegalArgumentException if the record cannot be written
+	 */
+	public synchronized void appendDelete(int id) {
+		try {
+			recordOut.writeByte(DELETE);
+			recordOut.writeLong(sequence + 1);
+			recordOut.writeInt(id);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+		writeRecord();
+	}
+
+	/**
+	 * Writes every buffered record to the file and forces the file to disk
+	 *
+	 * @throws IllegalArgumentException if the journal cannot be written
+	 */
+	public synchronized void sync() {
+		try {
+			out.flush();
+			file.getChannel().force(false);
+			pending = 0;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+	}
+
+	/**
+	 * Removes every record from the journal, once the changes they record are in
+	 * a saved snapshot. Later records keep the sequence numbers growing
+	 *
+	 * @throws IllegalArgumentException if the journal cannot be truncated
+	 */
+	public synchronized void truncate() {
+		try {
+			out.flush();
+			file.getChannel().truncate(0);
+			file.getChannel().force(true);
+			pending = 0;
+			size = 0;
+			records = 0;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+	}
+
+	/**
+	 * Gets the size of the journal
+	 *
+	 * @return number of bytes in the journal, including buffered records
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of records appended since the journal was opened or last
+	 * truncated
+	 *
+	 * @return number of appended records
+	 */
+	public synchronized long getRecordCount() {
+		return records;
+	}
+
+	/**
+	 * Gets the sequence number of the last record appended, which a snapshot
+	 * saved now includes
+	 *
+	 * @return sequence number of the last record, or the sequence number the
+	 *         journal was opened with if none has been appended
+	 */
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Syncs and closes the journal
+	 *
+	 * @throws IllegalArgumentException if the journal cannot be written
+	 */
+	public synchronized void close() {
+		syncer.shutdown();
+		sync();
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		}
+	}
+
+	/**
+	 * Replays every complete record of a journal file in order. A missing file has
+	 * no records, and a record cut short at the end of the file, or whose length is
+	 * longer than the rest of the file, is ignored. The
+	 * journal must be opened with the returned length before records are appended
+	 * to it, so they are not written after the record that was cut short
+	 *
+	 * @param fileName name of journal file
+	 * @param replayer object the records are applied to
+	 * @return number of bytes in the complete records at the start of the file
+	 * @throws IllegalArgumentException if the file cannot be read or has a record
+	 *                                  that is not valid
+	 */
+	public static long replay(String fileName, Replayer replayer) {
+		File file = new File(fileName);
+		if (!file.exists()) {
+			return 0;
+		}
+		long fileLength = file.length();
+		long complete = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+			while (true) {
+				byte[] bytes;
+				try {
+					int length = in.readInt();
+					if (length < 1 || length > fileLength - complete - Integer.BYTES) {
+						break;
+					}
+					bytes = new byte[length];
+					in.readFully(bytes);
+				} catch (EOFException e) {
+					break;
+				}
+				replayRecord(new DataInputStream(new ByteArrayInputStream(bytes)), replayer);
+				complete += Integer.BYTES + bytes.length;
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("Unable to load journal.");
+		}
+		return complete;
+	}
+
+	/**
+	 * Decodes one record and applies it
+	 *
+	 * @param in       stream over the bytes of the record
+	 * @param replayer object the record is applied to
+	 * @throws IOException if the record is not valid
+	 */
+	private static void replayRecord(DataInputStream in, Replayer replayer) throws IOException {
+		byte op = in.readByte();
+		long sequence = in.readLong();
+		int id = in.readInt();
+		switch (op) {
+		case EXECUTE:
+			CommandValue value = CommandValue.values()[in.readByte()];
+			int resolution = in.readByte();
+			Resolution r = resolution == 0 ? null : Resolution.values()[resolution - 1];
+			String reviewerId = readString(in);
+			String note = readString(in);
+			if (Command.isValid(value, reviewerId, r, note)) {
+				replayer.execute(sequence, id, new Command(value, reviewerId, r, note));
+			}
+			break;
+		case ADD:
+			int type = in.readByte();
+			String summary = readString(in);
+			String addNote = readString(in);
+			replayer.add(sequence, id, type < 0 ? null : AppType.values()[type], summary, addNote);
+			break;
+		case DELETE:
+			replayer.delete(sequence, id);
+			break;
+		default:
+			throw new IOException();
+		}
+	}
+
+	/**
+	 * Syncs the records of a group that is still filling. Runs on the sync thread
+	 * every delay; a failure is reported by the next append or sync instead
+	 */
+	private synchronized void syncPending() {
+		if (pending > 0) {
+			try {
+				sync();
+			} catch (IllegalArgumentException e) {
+				// The records stay pending and are synced again later
+			}
+		}
+	}
+
+	/**
+	 * Closes a stream that is being given up after an error
+	 *
+	 * @param stream stream being closed, or null
+	 */
+	private static void closeQuietly(FileOutputStream stream) {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// The error that gave up the stream is reported instead
+			}
+		}
+	}
+
+	/**
+	 * Writes the encoded record to the journal with its length, and syncs when a
+	 * group of records has been written
+	 */
+	private void writeRecord() {
+		try {
+			out.writeInt(record.size());
+			record.writeTo(out);
+			size += Integer.BYTES + record.size();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write journal.");
+		} finally {
+			record.reset();
+		}
+		pending++;
+		records++;
+		sequence++;
+		if (pending >= groupSize) {
+			sync();
+		}
+	}
+
+	/**
+	 * This class passes over the records of a journal without applying them, to
+	 * find where the complete records end and the last sequence number among them
+	 *
+	 * @author Gabe Frain
+	 */
+	private static class Tail implements Replayer {
+
+		/** Number of bytes in the complete records */
+		private long length;
+		/** Sequence number of the last complete record */
+		private long sequence;
+
+		/**
+		 * Passes over the records of a journal file
+		 *
+		 * @param fileName name of journal file, or null for no records
+		 * @throws IllegalArgumentException if the file cannot be read or has a
+		 *                                  record that is not valid
+		 */
+		Tail(String fileName) {
+			length = fileName == null ? 0 : replay(fileName, this);
+		}
+
+		/**
+		 * Passes over a command
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 * @param command  command executed
+		 */
+		public void execute(long sequence, int id, Command command) {
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Passes over an addition
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of the new application
+		 * @param appType  type of application
+		 * @param summary  summary of application
+		 * @param note     application note
+		 */
+		public void add(long sequence, int id, AppType appType, String summary, String note) {
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Passes over a deletion
+		 *
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 */
+		public void delete(long sequence, int id) {
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length and bytes
+	 *
+	 * @param out   stream being written to
+	 * @param value string being written, or null
+	 * @throws IOException if the string cannot be written
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(NULL_LENGTH);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads a string written by writeString
+	 *
+	 * @param in stream being read from
+	 * @return string that was written, or null
+	 * @throws IOException if the string cannot be read or is longer than the rest
+	 *                     of the record
+	 */
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == NULL_LENGTH) {
+			return null;
+		}
+		if (length < 0 || length > in.available()) {
+			throw new IOException();
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
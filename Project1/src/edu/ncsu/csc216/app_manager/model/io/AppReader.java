@@ -1,8 +1,26 @@
 package edu.ncsu.csc216.app_manager.model.io;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import edu.ncsu.csc216.app_manager.model.application.Application;
 
@@ -13,9 +31,31 @@ import edu.ncsu.csc216.app_manager.model.application.Application;
  */
 public class AppReader {
 
+	/** State names by code */
+	private static final String[] STATE_NAMES = nameTable(Application::stateName);
+	/** Application type names by code */
+	private static final String[] TYPE_NAMES = nameTable(Application::appTypeName);
+	/** Resolution names by code */
+	private static final String[] RESOLUTION_NAMES = nameTable(Application::resolutionName);
+	/** Reviewer written in the record of an application without one */
+	private static final String NO_REVIEWER = "null";
+	/** Largest number of fields on the first line of a record */
+	private static final int MAX_FIELDS = 7;
+	/** Number of chunks a file is split into for each processor when read in parallel */
+	private static final int CHUNKS_PER_PROCESSOR = 4;
+	/** Smallest number of bytes in a chunk of a file read in parallel */
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	/** Smallest number of bytes in each half of a split stream of applications */
+	private static final long MIN_SPLIT_SIZE = 1 << 16;
+
 	/**
 	 * Reads applications from an input file and returns them in an array list to
-	 * the user
+	 * the user. A file that starts with the binary magic bytes is decoded in the
+	 * binary format. Otherwise the records are split out of the file in order and
+	 * then parsed and validated in parallel. Invalid records do not throw while
+	 * they are checked, so the file is rejected with a single exception. If the
+	 * file has a delta file written by AppWriter, its committed changes are merged
+	 * in
 	 * 
 	 * @param fileName name of input file
 	 * @return array list of applications based on input file
@@ -23,54 +63,524 @@ public class AppReader {
 	 *                                  file
 	 */
 	public static ArrayList<Application> readAppsFromFile(String fileName) {
+		ArrayList<Application> list;
+		if (isBinaryFile(fileName)) {
+			list = readBinaryApps(fileName);
+		} else {
+			ArrayList<String> records = readRecords(fileName);
+			Application[] apps = new Application[records.size()];
+			Arrays.parallelSetAll(apps, i -> processApp(records.get(i)));
+			if (Arrays.asList(apps).contains(null)) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			list = new ArrayList<Application>(Arrays.asList(apps));
+		}
+		return mergeDelta(fileName, list);
+	}
+
+	/**
+	 * Reads applications from an input file by memory mapping it. Records are
+	 * split and parsed straight from the bytes of the file, and only the fields
+	 * an application keeps are decoded into strings. A record the byte parser
+	 * cannot settle on its own, such as one with bytes that are not ASCII, is
+	 * decoded and parsed as readAppsFromFile parses it, so both methods accept
+	 * the same files and return the same applications
+	 * 
+	 * @param fileName name of input file
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static ArrayList<Application> readAppsFromMappedFile(String fileName) {
+		if (isBinaryFile(fileName)) {
+			return mergeDelta(fileName, readBinaryApps(fileName));
+		}
+		return mergeDelta(fileName, readRange(fileName, 0, Long.MAX_VALUE, null));
+	}
+
+	/**
+	 * Reads applications from an input file by memory mapping it and parsing it
+	 * in chunks on the common fork/join pool. Every star in the file starts a
+	 * record, so the file is split at the first star after each even share of its
+	 * bytes, and each chunk is parsed on its own as readAppsFromMappedFile parses
+	 * the whole file. The applications of the chunks are joined in file order, so
+	 * the result is the same as readAppsFromFile. A small file is read as a single
+	 * chunk
+	 * 
+	 * @param fileName name of input file
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static ArrayList<Application> readAppsInParallel(String fileName) {
+		long size = new File(fileName).length();
+		long chunks = Math.min(Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR,
+				size / MIN_CHUNK_SIZE);
+		return readAppsInParallel(fileName, (int) Math.max(1, chunks));
+	}
+
+	/**
+	 * Reads applications from an input file as readAppsInParallel does, but only
+	 * parses the header line of each record up front. The notes of an application
+	 * are kept as the position and length of their block in the file, and are
+	 * read and split the first time they are used. The note source holds the file
+	 * open for the notes, so it must not be changed in place while any of its
+	 * applications still has notes to load. The source closes itself once every
+	 * note has been loaded, and is otherwise owned by the caller, who must close
+	 * it when the applications are dropped or the file cannot be read. Records
+	 * the byte parser leaves to the Scanner parser, and binary files, are loaded
+	 * with their notes
+	 * 
+	 * @param source source of lazy notes for the input file
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static ArrayList<Application> readAppsWithLazyNotes(NoteSource source) {
+		long size = new File(source.getFileName()).length();
+		long chunks = Math.min(Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR,
+				size / MIN_CHUNK_SIZE);
+		return readAppsWithLazyNotes(source, (int) Math.max(1, chunks));
+	}
+
+	/**
+	 * Reads applications with lazy notes from an input file in parallel, split
+	 * into the given number of chunks
+	 * 
+	 * @param source source of lazy notes for the input file
+	 * @param chunks number of chunks the file is split into
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	static ArrayList<Application> readAppsWithLazyNotes(NoteSource source, int chunks) {
+		String fileName = source.getFileName();
+		ArrayList<Application> list = isBinaryFile(fileName) ? mergeDelta(fileName, readBinaryApps(fileName))
+				: readChunks(fileName, chunks, source);
+		source.seal();
+		return list;
+	}
+
+	/**
+	 * Reads applications from an input file in parallel, split into the given
+	 * number of chunks
+	 * 
+	 * @param fileName name of input file
+	 * @param chunks   number of chunks the file is split into
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	static ArrayList<Application> readAppsInParallel(String fileName, int chunks) {
+		if (isBinaryFile(fileName)) {
+			return mergeDelta(fileName, readBinaryApps(fileName));
+		}
+		return readChunks(fileName, chunks, null);
+	}
+
+	/**
+	 * Splits a text file into chunks at record starts, parses the chunks on the
+	 * common fork/join pool and merges the delta file into the joined list
+	 * 
+	 * @param fileName name of input file
+	 * @param chunks   number of chunks the file is split into
+	 * @param source   source of lazy notes, or null to load notes with their
+	 *                 applications
+	 * @return array list of applications based on input file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	private static ArrayList<Application> readChunks(String fileName, int chunks, NoteSource source) {
+		long[] bounds = new long[chunks + 1];
+		try (MappedRecordScanner scanner = new MappedRecordScanner(fileName)) {
+			long size = scanner.getFileSize();
+			for (int i = 1; i < chunks; i++) {
+				bounds[i] = Math.max(bounds[i - 1], scanner.findRecordMark(size / chunks * i));
+			}
+			bounds[chunks] = size;
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		ArrayList<Application> list;
+		try {
+			list = ForkJoinPool.commonPool().invoke(new ChunkTask(fileName, bounds, 0, chunks, source));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return mergeDelta(fileName, list);
+	}
+
+	/**
+	 * Reads the applications of the records between two positions of a file. The
+	 * start must be 0 or the position of a star, and the end the position of a
+	 * star or at least the size of the file
+	 * 
+	 * @param fileName name of input file
+	 * @param start    position reading starts at
+	 * @param end      position reading stops at
+	 * @param source   source of lazy notes, or null to load notes with their
+	 *                 applications
+	 * @return applications of the records in order
+	 * @throws IllegalArgumentException if a record is not valid or the file cannot
+	 *                                  be read
+	 */
+	private static ArrayList<Application> readRange(String fileName, long start, long end, NoteSource source) {
+		ArrayList<Application> list = new ArrayList<Application>();
+		try (MappedRecordScanner scanner = new MappedRecordScanner(fileName, start, end)) {
+			while (scanner.nextRecord()) {
+				list.add(processRecord(scanner, source));
+			}
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return list;
+	}
+
+	/**
+	 * Returns a lazy stream of the applications of an input file. Records are
+	 * parsed one at a time as the stream is consumed, so a text file of any size
+	 * is read in constant memory. The stream can be split at record starts for
+	 * parallel consumption, and each part reads its own range of the file. A
+	 * binary file, or a file with a delta file, is read whole and its merged list
+	 * is streamed. An empty text file gives an empty stream. The stream holds the
+	 * file open until it is closed, so it should be used in a try-with-resources
+	 * statement
+	 * 
+	 * @param fileName name of input file
+	 * @return stream of applications in file order
+	 * @throws IllegalArgumentException if the file cannot be read, or while the
+	 *                                  stream is consumed if a record is not valid
+	 */
+	public static Stream<Application> streamAppsFromFile(String fileName) {
+		if (isBinaryFile(fileName) || new File(AppWriter.getDeltaFileName(fileName)).exists()) {
+			return readAppsFromFile(fileName).stream();
+		}
+		List<MappedRecordScanner> scanners = Collections.synchronizedList(new ArrayList<MappedRecordScanner>());
+		RecordSpliterator records = new RecordSpliterator(fileName, 0, new File(fileName).length(), scanners);
+		return StreamSupport.stream(records, false).onClose(() -> {
+			synchronized (scanners) {
+				for (MappedRecordScanner scanner : scanners) {
+					try {
+						scanner.close();
+					} catch (IOException e) {
+						throw new IllegalArgumentException("Unable to load file.");
+					}
+				}
+				scanners.clear();
+			}
+		});
+	}
+
+	/**
+	 * Parses the current record of a scanner. An ASCII record is parsed from its
+	 * bytes, and any other record, or one the byte parser cannot settle on its
+	 * own, is decoded and parsed as readAppsFromFile parses it
+	 * 
+	 * @param scanner scanner positioned on a record
+	 * @param source  source of lazy notes, or null to load notes with the
+	 *                application
+	 * @return application of the record
+	 * @throws IllegalArgumentException if the record is not valid
+	 */
+	private static Application processRecord(MappedRecordScanner scanner, NoteSource source) {
+		Application app = null;
+		if (scanner.isRecordAscii()) {
+			app = processApp(scanner.getRecord(), scanner.getRecordLength(), scanner.getRecordPosition(), source);
+		}
+		if (app == null) {
+			app = processApp(new String(scanner.getRecord(), 0, scanner.getRecordLength(), Charset.defaultCharset()));
+		}
+		if (app == null) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return app;
+	}
+
+	/**
+	 * Merges the delta file of a file, if it has one, into the applications read
+	 * from the file
+	 * 
+	 * @param fileName name of input file
+	 * @param list     applications read from the file
+	 * @return merged applications
+	 * @throws IllegalArgumentException if the delta file is not valid or no
+	 *                                  applications are left
+	 */
+	private static ArrayList<Application> mergeDelta(String fileName, ArrayList<Application> list) {
+		File delta = new File(AppWriter.getDeltaFileName(fileName));
+		if (delta.exists()) {
+			list = mergeChanges(list, readRecords(delta.getPath()), baseOf(fileName));
+		}
+		if (list.isEmpty()) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return list;
+	}
+
+	/**
+	 * Reads the sequence number of the last journal record a file includes, as
+	 * recorded by the commit records in its delta file that name the file. The
+	 * records of the journal up to it are already in the file
+	 * 
+	 * @param fileName name of input file
+	 * @return sequence number of the last journal record in the file, or 0 if none
+	 *         is recorded
+	 * @throws IllegalArgumentException if the file or its delta file cannot be
+	 *                                  read
+	 */
+	public static long readSequence(String fileName) {
+		File delta = new File(AppWriter.getDeltaFileName(fileName));
+		if (!delta.exists() || !new File(fileName).exists()) {
+			return 0;
+		}
+		String base = baseOf(fileName);
+		long sequence = 0;
+		for (String record : readRecords(delta.getPath())) {
+			sequence = Math.max(sequence, commitSequence(record, base));
+		}
+		return sequence;
+	}
+
+	/**
+	 * Gets the length and checksum of a full file, the way commit records name it
+	 * 
+	 * @param fileName name of full file
+	 * @return length and checksum separated by a comma
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	private static String baseOf(String fileName) {
+		return new File(fileName).length() + "," + AppWriter.checksum(fileName);
+	}
+
+	/**
+	 * Gets the sequence number held by a commit record that names a full file
+	 * 
+	 * @param record text of a record of a delta file
+	 * @param base   length and checksum of the full file
+	 * @return sequence number of the commit record, or -1 if the record is not a
+	 *         commit record naming the file
+	 */
+	private static long commitSequence(String record, String base) {
+		if (!record.startsWith(AppWriter.COMMIT_MARKER)) {
+			return -1;
+		}
+		String commit = record.substring(AppWriter.COMMIT_MARKER.length()).trim();
+		int comma = commit.indexOf(',');
+		if (comma < 0 || !commit.substring(comma + 1).equals(base)) {
+			return -1;
+		}
+		try {
+			return Math.max(-1, Long.parseLong(commit.substring(0, comma)));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Checks if a file starts with the binary magic bytes
+	 * 
+	 * @param fileName name of input file
+	 * @return true if the file is in the binary format
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	private static boolean isBinaryFile(String fileName) {
+		byte[] magic = AppWriter.BINARY_MAGIC;
+		try (InputStream in = new FileInputStream(fileName)) {
+			for (int i = 0; i < magic.length; i++) {
+				if (in.read() != magic[i]) {
+					return false;
+				}
+			}
+			return true;
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Decodes the applications of a file in the binary format written by
+	 * AppWriter. The whole file is read at once and decoded in one pass
+	 * 
+	 * @param fileName name of input file
+	 * @return applications in file order
+	 * @throws IllegalArgumentException if the file cannot be read, has a version
+	 *                                  that is not known or has an application
+	 *                                  that is not valid
+	 */
+	private static ArrayList<Application> readBinaryApps(String fileName) {
+		try {
+			BinaryDecoder in = new BinaryDecoder(Files.readAllBytes(Paths.get(fileName)),
+					AppWriter.BINARY_MAGIC.length);
+			if (in.readByte() != AppWriter.BINARY_VERSION) {
+				throw new IllegalArgumentException();
+			}
+			int count = in.readVarint();
+			ArrayList<Application> apps = new ArrayList<Application>(Math.min(count, 1 << 20));
+			for (int i = 0; i < count; i++) {
+				int id = in.readVarint();
+				String state = Application.stateName(in.readByte());
+				String appType = Application.appTypeName(in.readByte());
+				String resolution = Application.resolutionName(in.readByte());
+				boolean processPaperwork = in.readByte() == 1;
+				String summary = in.readString(in.readVarint());
+				int reviewerLength = in.readVarint();
+				String reviewer = reviewerLength == 0 ? null : in.readString(reviewerLength - 1);
+				int noteCount = in.readVarint();
+				ArrayList<String> notes = new ArrayList<String>(Math.min(noteCount, 16));
+				for (int n = 0; n < noteCount; n++) {
+					notes.add(in.readString(in.readVarint()));
+				}
+				apps.add(new Application(id, state, appType, summary, reviewer, processPaperwork, resolution, notes));
+			}
+			if (in.hasRemaining()) {
+				throw new IllegalArgumentException();
+			}
+			return apps;
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Builds a table of the names with each code, from code 0 up to the first code
+	 * the function rejects
+	 * 
+	 * @param names function giving the name with a code
+	 * @return names in code order
+	 */
+	private static String[] nameTable(IntFunction<String> names) {
+		ArrayList<String> table = new ArrayList<String>();
+		while (true) {
+			try {
+				table.add(names.apply(table.size()));
+			} catch (IllegalArgumentException e) {
+				return table.toArray(new String[table.size()]);
+			}
+		}
+	}
+
+	/**
+	 * Splits the records out of a file in order
+	 * 
+	 * @param fileName name of input file
+	 * @return text of each record, without its leading star
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	private static ArrayList<String> readRecords(String fileName) {
+		ArrayList<String> records = new ArrayList<String>();
 		try {
 			Scanner fileReader = new Scanner(new FileInputStream(fileName));
 			fileReader.useDelimiter("\\r?\\n?[*]");
-			ArrayList<Application> list = new ArrayList<Application>();
 			while (fileReader.hasNext()) {
-				list.add(processApp(fileReader.next()));
+				records.add(fileReader.next());
 			}
 			fileReader.close();
-			if (list.size() == 0) {
-				throw new IllegalArgumentException();
-			}
-			return list;
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Unable to load file.");
 		}
+		return records;
+	}
 
+	/**
+	 * Merges the records of a delta file into the applications of its full file.
+	 * Changes are applied one batch at a time, and only once the commit record of
+	 * the batch has been read and names the full file by its length and checksum.
+	 * A changed application replaces the application with its id, and a tombstone
+	 * removes it. As when a list is loaded, the first application read for an id
+	 * wins
+	 * 
+	 * @param apps    applications of the full file
+	 * @param records records of the delta file
+	 * @param base    length and checksum of the full file, separated by a comma
+	 * @return merged applications
+	 * @throws IllegalArgumentException if a committed record is not valid
+	 */
+	private static ArrayList<Application> mergeChanges(ArrayList<Application> apps, ArrayList<String> records,
+			String base) {
+		LinkedHashMap<Integer, Application> merged = new LinkedHashMap<Integer, Application>();
+		for (Application app : apps) {
+			merged.putIfAbsent(app.getAppId(), app);
+		}
+		int batchStart = 0;
+		for (int i = 0; i < records.size(); i++) {
+			String record = records.get(i);
+			if (!record.startsWith(AppWriter.COMMIT_MARKER)) {
+				continue;
+			}
+			if (commitSequence(record, base) >= 0) {
+				for (int r = batchStart; r < i; r++) {
+					applyChange(merged, records.get(r));
+				}
+			}
+			batchStart = i + 1;
+		}
+		return new ArrayList<Application>(merged.values());
 	}
 
 	/**
-	 * Processes an individual application based on the inputed string
+	 * Applies one changed application or tombstone record to merged applications
+	 * 
+	 * @param merged applications by id
+	 * @param record text of the record
+	 * @throws IllegalArgumentException if the record is not valid
+	 */
+	private static void applyChange(LinkedHashMap<Integer, Application> merged, String record) {
+		if (record.startsWith(AppWriter.TOMBSTONE_MARKER)) {
+			Scanner idReader = new Scanner(record.substring(AppWriter.TOMBSTONE_MARKER.length()));
+			if (!idReader.hasNextInt()) {
+				idReader.close();
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			merged.remove(idReader.nextInt());
+			idReader.close();
+			return;
+		}
+		Application app = processApp(record);
+		if (app == null) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		merged.put(app.getAppId(), app);
+	}
+
+	/**
+	 * Processes an individual application based on the inputed string without
+	 * throwing an exception for invalid input
 	 * 
 	 * @param app string of application being processed
-	 * @return application object corresponding with input application
-	 * @throws IllegalArgumentException if any of the parameters are invalid
+	 * @return application object corresponding with input application, or null if
+	 *         the record is not a valid application
 	 */
 	private static Application processApp(String app) {
 		Scanner appReader = new Scanner(app);
+		if (!appReader.hasNextLine()) {
+			appReader.close();
+			return null;
+		}
 		Scanner appLineReader = new Scanner(appReader.nextLine());
 		appLineReader.useDelimiter(",");
-		int id = appLineReader.nextInt();
-		String state = appLineReader.next();
-		String appType = appLineReader.next();
-		String summary = appLineReader.next();
-		String reviewer = appLineReader.next();
-		if ("".equals(reviewer)) {
-			reviewer = null;
+		String[] fields = new String[4];
+		boolean valid = appLineReader.hasNextInt();
+		int id = valid ? appLineReader.nextInt() : 0;
+		for (int i = 0; valid && i < fields.length; i++) {
+			valid = appLineReader.hasNext();
+			fields[i] = valid ? appLineReader.next() : null;
 		}
-		boolean processPaperwork = appLineReader.nextBoolean();
+		valid = valid && appLineReader.hasNextBoolean();
+		boolean processPaperwork = valid && appLineReader.nextBoolean();
 		String resolution = null;
-		if (appLineReader.hasNext()) {
+		if (valid && appLineReader.hasNext()) {
 			resolution = appLineReader.next();
 		}
-		if (appLineReader.hasNext()) {
-			appLineReader.close();
+		valid = valid && !appLineReader.hasNext();
+		appLineReader.close();
+		if (!valid) {
 			appReader.close();
-			throw new IllegalArgumentException("Unable to load file.");
+			return null;
+		}
+		String reviewer = fields[3];
+		if ("".equals(reviewer) || NO_REVIEWER.equals(reviewer)) {
+			reviewer = null;
 		}
-		appLineReader.close();
 
 		appReader.useDelimiter("\\r?\\n?[-]");
 		ArrayList<String> notes = new ArrayList<String>();
@@ -78,7 +588,492 @@ public class AppReader {
 			notes.add(appReader.next());
 		}
 		appReader.close();
+		if (!Application.isValidRecord(id, fields[0], fields[1], fields[2], reviewer, processPaperwork, resolution,
+				notes)) {
+			return null;
+		}
+		return new Application(id, fields[0], fields[1], fields[2], reviewer, processPaperwork, resolution, notes);
+	}
+
+	/**
+	 * Parses an application from the ASCII bytes of a record, splitting fields the
+	 * way the Scanners of processApp split them. Returns null whenever the bytes
+	 * are not a plainly valid record, including the rare shapes where Scanner
+	 * splits differently, so the caller can let processApp decide. With a note
+	 * source, the notes are only checked to hold at least one note, and are left
+	 * in the file to be loaded on first use
+	 * 
+	 * @param record   bytes of the record
+	 * @param length   number of bytes in the record
+	 * @param position position of the record in the file
+	 * @param source   source of lazy notes, or null to parse the notes now
+	 * @return application, or null if processApp must parse the record
+	 */
+	private static Application processApp(byte[] record, int length, long position, NoteSource source) {
+		int lineEnd = 0;
+		while (lineEnd < length && record[lineEnd] != '\r' && record[lineEnd] != '\n') {
+			lineEnd++;
+		}
+		if (lineEnd == 0 || lineEnd == length || record[0] == ',') {
+			return null;
+		}
+		int[] starts = new int[MAX_FIELDS];
+		int[] ends = new int[MAX_FIELDS];
+		int fields = 0;
+		for (int pos = 0; pos < lineEnd; fields++) {
+			if (fields == MAX_FIELDS) {
+				return null;
+			}
+			int end = pos;
+			while (end < lineEnd && record[end] != ',') {
+				end++;
+			}
+			starts[fields] = pos;
+			ends[fields] = end;
+			pos = end == lineEnd ? end : end + 1;
+		}
+		if (fields < MAX_FIELDS - 1) {
+			return null;
+		}
+		int id = parseId(record, starts[0], ends[0]);
+		String state = matchName(STATE_NAMES, record, starts[1], ends[1]);
+		String appType = matchName(TYPE_NAMES, record, starts[2], ends[2]);
+		Boolean processPaperwork = parseBoolean(record, starts[5], ends[5]);
+		String resolution = fields == MAX_FIELDS ? matchName(RESOLUTION_NAMES, record, starts[6], ends[6]) : null;
+		if (id < 0 || state == null || appType == null || processPaperwork == null
+				|| fields == MAX_FIELDS && resolution == null) {
+			return null;
+		}
+		String summary = ascii(record, starts[3], ends[3]);
+		String reviewer = starts[4] == ends[4] ? null : ascii(record, starts[4], ends[4]);
+		if (NO_REVIEWER.equals(reviewer)) {
+			reviewer = null;
+		}
+
+		int pos = lineEnd + (record[lineEnd] == '\r' && lineEnd + 1 < length && record[lineEnd + 1] == '\n' ? 2 : 1);
+		if (source != null) {
+			int delimiter = noteDelimiterLength(record, pos, length);
+			int first = pos + delimiter;
+			if (first >= length || delimiter > 0 && findNoteDelimiter(record, first, length) == first
+					|| !Application.isValidHeader(id, state, appType, summary, reviewer, processPaperwork,
+							resolution)) {
+				return null;
+			}
+			return new Application(id, state, appType, summary, reviewer, processPaperwork, resolution,
+					source.block(position + pos, length - pos, notes -> splitNotes(notes, 0, notes.length)));
+		}
+		ArrayList<String> notes = splitNotes(record, pos, length);
+		if (notes == null || !Application.isValidRecord(id, state, appType, summary, reviewer, processPaperwork,
+				resolution, notes)) {
+			return null;
+		}
 		return new Application(id, state, appType, summary, reviewer, processPaperwork, resolution, notes);
+	}
 
+	/**
+	 * Splits the ASCII bytes of a note block into notes, the way the Scanner of
+	 * processApp splits them
+	 * 
+	 * @param record bytes holding the note block
+	 * @param pos    first byte of the note block
+	 * @param length byte after the note block
+	 * @return notes, or null if the block starts with an empty note, which
+	 *         Scanner may split differently
+	 */
+	private static ArrayList<String> splitNotes(byte[] record, int pos, int length) {
+		ArrayList<String> notes = new ArrayList<String>();
+		boolean leading = noteDelimiterLength(record, pos, length) > 0;
+		while (true) {
+			pos += noteDelimiterLength(record, pos, length);
+			if (pos >= length) {
+				break;
+			}
+			int end = findNoteDelimiter(record, pos, length);
+			if (notes.isEmpty() && leading && end == pos) {
+				return null;
+			}
+			notes.add(ascii(record, pos, end));
+			pos = end;
+		}
+		return notes;
+	}
+
+	/**
+	 * Parses an id made only of ASCII digits
+	 * 
+	 * @param record bytes of the record
+	 * @param start  first byte of the id
+	 * @param end    byte after the id
+	 * @return id, or -1 if the bytes are not plain digits of an int
+	 */
+	private static int parseId(byte[] record, int start, int end) {
+		if (start == end || end - start > 10) {
+			return -1;
+		}
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			if (record[i] < '0' || record[i] > '9') {
+				return -1;
+			}
+			value = value * 10 + record[i] - '0';
+		}
+		return value > Integer.MAX_VALUE ? -1 : (int) value;
+	}
+
+	/**
+	 * Parses a boolean the way Scanner does, ignoring case
+	 * 
+	 * @param record bytes of the record
+	 * @param start  first byte of the boolean
+	 * @param end    byte after the boolean
+	 * @return boolean, or null if the bytes are not true or false
+	 */
+	private static Boolean parseBoolean(byte[] record, int start, int end) {
+		String value = ascii(record, start, end);
+		if ("true".equalsIgnoreCase(value)) {
+			return Boolean.TRUE;
+		}
+		return "false".equalsIgnoreCase(value) ? Boolean.FALSE : null;
+	}
+
+	/**
+	 * Finds the name in a table of names that the bytes spell, without decoding
+	 * them
+	 * 
+	 * @param names table of names
+	 * @param record bytes of the record
+	 * @param start  first byte of the name
+	 * @param end    byte after the name
+	 * @return name from the table, or null if the bytes spell none of them
+	 */
+	private static String matchName(String[] names, byte[] record, int start, int end) {
+		for (String name : names) {
+			if (name != null && name.length() == end - start) {
+				int i = 0;
+				while (i < name.length() && name.charAt(i) == record[start + i]) {
+					i++;
+				}
+				if (i == name.length()) {
+					return name;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the length of the note delimiter "\r?\n?[-]" starting at a position,
+	 * or 0 if none starts there
+	 * 
+	 * @param record bytes of the record
+	 * @param at     position in the record
+	 * @param length number of bytes in the record
+	 * @return length of the delimiter
+	 */
+	private static int noteDelimiterLength(byte[] record, int at, int length) {
+		if (at >= length) {
+			return 0;
+		}
+		if (record[at] == '-') {
+			return 1;
+		}
+		if (record[at] == '\r' && at + 1 < length) {
+			if (record[at + 1] == '-') {
+				return 2;
+			}
+			if (record[at + 1] == '\n' && at + 2 < length && record[at + 2] == '-') {
+				return 3;
+			}
+		} else if (record[at] == '\n' && at + 1 < length && record[at + 1] == '-') {
+			return 2;
+		}
+		return 0;
+	}
+
+	/**
+	 * Finds where the next note delimiter starts, including a line break right
+	 * before its dash
+	 * 
+	 * @param record bytes of the record
+	 * @param from   position the search starts at
+	 * @param length number of bytes in the record
+	 * @return start of the next delimiter, or length if there is none
+	 */
+	private static int findNoteDelimiter(byte[] record, int from, int length) {
+		for (int q = from; q < length; q++) {
+			if (record[q] == '-') {
+				if (q - 2 >= from && record[q - 2] == '\r' && record[q - 1] == '\n') {
+					return q - 2;
+				}
+				if (q - 1 >= from && (record[q - 1] == '\r' || record[q - 1] == '\n')) {
+					return q - 1;
+				}
+				return q;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Decodes ASCII bytes into a string
+	 * 
+	 * @param record bytes of the record
+	 * @param start  first byte of the string
+	 * @param end    byte after the string
+	 * @return decoded string
+	 */
+	private static String ascii(byte[] record, int start, int end) {
+		return new String(record, start, end - start, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * This class reads a run of chunks of a file. A run of more than one chunk is
+	 * split in half, and the halves are read in parallel and joined in order
+	 *
+	 * @author Gabe Frain
+	 */
+	private static class ChunkTask extends RecursiveTask<ArrayList<Application>> {
+
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** Name of input file */
+		private final String fileName;
+		/** Positions in the file where each chunk starts, and the end of the file */
+		private final long[] bounds;
+		/** Index of the first chunk of the run */
+		private final int from;
+		/** Index after the last chunk of the run */
+		private final int to;
+		/** Source of lazy notes, or null to load notes with their applications */
+		private final NoteSource source;
+
+		/**
+		 * Constructs a task for the chunks from index from up to index to
+		 *
+		 * @param fileName name of input file
+		 * @param bounds   positions where each chunk starts, and the end of the file
+		 * @param from     index of the first chunk
+		 * @param to       index after the last chunk
+		 * @param source   source of lazy notes, or null
+		 */
+		ChunkTask(String fileName, long[] bounds, int from, int to, NoteSource source) {
+			this.fileName = fileName;
+			this.bounds = bounds;
+			this.from = from;
+			this.to = to;
+			this.source = source;
+		}
+
+		/**
+		 * Reads the chunks of the run
+		 *
+		 * @return applications of the chunks in file order
+		 */
+		protected ArrayList<Application> compute() {
+			if (to - from == 1) {
+				return readRange(fileName, bounds[from], bounds[to], source);
+			}
+			int mid = (from + to) >>> 1;
+			ChunkTask left = new ChunkTask(fileName, bounds, from, mid, source);
+			left.fork();
+			ArrayList<Application> right = new ChunkTask(fileName, bounds, mid, to, source).compute();
+			ArrayList<Application> list = left.join();
+			list.addAll(right);
+			return list;
+		}
+	}
+
+	/**
+	 * This class is a spliterator over the applications of the records between
+	 * two positions of a text file. It opens a scanner over its range when the
+	 * first record is read, and before then it can be split at the first star
+	 * after the middle of its range
+	 *
+	 * @author Gabe Frain
+	 */
+	private static class RecordSpliterator implements Spliterator<Application> {
+
+		/** Name of input file */
+		private final String fileName;
+		/** Position in the file the range starts at */
+		private long start;
+		/** Position in the file the range ends at */
+		private final long end;
+		/** Scanners opened by every spliterator of the stream, closed with it */
+		private final List<MappedRecordScanner> scanners;
+		/** Scanner over the range, or null if no record has been read */
+		private MappedRecordScanner scanner;
+		/** If every record of the range has been read */
+		private boolean done;
+
+		/**
+		 * Constructs a spliterator over the records between two positions
+		 *
+		 * @param fileName name of input file
+		 * @param start    position the range starts at
+		 * @param end      position the range ends at
+		 * @param scanners scanners to close with the stream
+		 */
+		RecordSpliterator(String fileName, long start, long end, List<MappedRecordScanner> scanners) {
+			this.fileName = fileName;
+			this.start = start;
+			this.end = end;
+			this.scanners = scanners;
+		}
+
+		/**
+		 * Reads the next application of the range
+		 *
+		 * @param action action given the application
+		 * @return true if there was another application
+		 * @throws IllegalArgumentException if the file cannot be read or the record
+		 *                                  is not valid
+		 */
+		public boolean tryAdvance(Consumer<? super Application> action) {
+			if (done) {
+				return false;
+			}
+			try {
+				if (scanner == null) {
+					scanner = new MappedRecordScanner(fileName, start, end);
+					scanners.add(scanner);
+				}
+				if (!scanner.nextRecord()) {
+					done = true;
+					scanners.remove(scanner);
+					scanner.close();
+					return false;
+				}
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			action.accept(processRecord(scanner, null));
+			return true;
+		}
+
+		/**
+		 * Splits off the first half of the range, if no record has been read and
+		 * the range is large enough
+		 *
+		 * @return spliterator over the first half, or null if the range is not split
+		 */
+		public Spliterator<Application> trySplit() {
+			if (scanner != null || done || end - start < 2 * MIN_SPLIT_SIZE) {
+				return null;
+			}
+			long mark;
+			try (MappedRecordScanner probe = new MappedRecordScanner(fileName)) {
+				mark = probe.findRecordMark(start + (end - start) / 2);
+			} catch (IOException e) {
+				return null;
+			}
+			if (mark >= end) {
+				return null;
+			}
+			RecordSpliterator prefix = new RecordSpliterator(fileName, start, mark, scanners);
+			start = mark;
+			return prefix;
+		}
+
+		/**
+		 * Estimates the number of applications left, by the number of bytes left
+		 *
+		 * @return bytes left in the range
+		 */
+		public long estimateSize() {
+			return done ? 0 : end - start;
+		}
+
+		/**
+		 * Gets the characteristics of the spliterator
+		 *
+		 * @return ordered, nonnull and immutable
+		 */
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+	}
+
+	/**
+	 * This class decodes the fields of the binary format from the bytes of a file
+	 * 
+	 * @author Gabe Frain
+	 */
+	private static class BinaryDecoder {
+
+		/** Bytes of the file */
+		private final byte[] bytes;
+		/** Position of the next byte to decode */
+		private int position;
+
+		/**
+		 * Constructs a decoder over the bytes of a file
+		 * 
+		 * @param bytes    bytes of the file
+		 * @param position position of the first byte to decode
+		 */
+		BinaryDecoder(byte[] bytes, int position) {
+			this.bytes = bytes;
+			this.position = position;
+		}
+
+		/**
+		 * Decodes one byte
+		 * 
+		 * @return byte as a number from 0 to 255
+		 * @throws IllegalArgumentException if there are no bytes left
+		 */
+		int readByte() {
+			if (position >= bytes.length) {
+				throw new IllegalArgumentException();
+			}
+			return bytes[position++] & 0xFF;
+		}
+
+		/**
+		 * Decodes a varint
+		 * 
+		 * @return non-negative number
+		 * @throws IllegalArgumentException if the varint is cut short or too long
+		 */
+		int readVarint() {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int b = readByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					if (value < 0) {
+						throw new IllegalArgumentException();
+					}
+					return value;
+				}
+			}
+			throw new IllegalArgumentException();
+		}
+
+		/**
+		 * Decodes a UTF-8 string of the given length
+		 * 
+		 * @param length number of bytes in the string
+		 * @return decoded string
+		 * @throws IllegalArgumentException if the string is cut short
+		 */
+		String readString(int length) {
+			if (length > bytes.length - position) {
+				throw new IllegalArgumentException();
+			}
+			String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+
+		/**
+		 * Checks if there are bytes left to decode
+		 * 
+		 * @return true if there are bytes left
+		 */
+		boolean hasRemaining() {
+			return position < bytes.length;
+		}
 	}
 }
@@ -1,37 +1,500 @@
 package edu.ncsu.csc216.app_manager.model.io;
 
-import java.io.PrintWriter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 import java.io.FileOutputStream;
 
 import edu.ncsu.csc216.app_manager.model.application.Application;
 
 /**
- * This class writes lists of applications to files
+ * This class writes lists of applications to files, either as text records or
+ * in a compact binary format. Besides full files, it can append the
+ * applications that changed since the last full save to a delta file next to
+ * it, which AppReader merges when the full file is loaded. Full files are always
+ * replaced in one step, and each batch in a delta file names the full file it
+ * applies to by its length and checksum. Saves of the snapshot file of a journal
+ * also record the sequence number of the last journal record the file includes
  * 
  * @author Gabe Frain
  */
 public class AppWriter {
 
+	/** Suffix added to the name of a file to get the name of its delta file */
+	public static final String DELTA_SUFFIX = ".delta";
+	/** Marker that starts the record ending a batch of changes in a delta file */
+	public static final String COMMIT_MARKER = "!";
+	/** Marker that starts the record of a deleted application in a delta file */
+	public static final String TOMBSTONE_MARKER = "-";
+	/** Bytes every binary file starts with */
+	public static final byte[] BINARY_MAGIC = { 'A', 'P', 'P', 'M' };
+	/** Version of the binary format written after the magic bytes */
+	public static final byte BINARY_VERSION = 1;
+
+	/** Number of characters buffered before text is written to a file */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Number of bytes read at a time while searching a delta file backwards */
+	private static final int TAIL_BLOCK_SIZE = 1 << 12;
+
 	/**
-	 * Writes applications to an output file using an array list of applications
+	 * Writes applications to an output file using an array list of applications.
+	 * Each application writes its record straight into a large buffer, which is
+	 * encoded in the default charset that AppReader decodes with. The output file
+	 * is replaced in one step, as replaceAppsFile replaces it, and any delta file
+	 * of the output file is removed
 	 * 
 	 * @param fileName name of output file
 	 * @param list     list of applications
+	 * @return checksum of the written file
+	 * @throws IllegalArgumentException if the list is empty or any exceptions
+	 *                                  occur while processing the file
+	 */
+	public static long writeAppsToFile(String fileName, List<Application> list) {
+		if (list == null || list.isEmpty()) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		return replaceAppsFile(fileName, list);
+	}
+
+	/**
+	 * Writes applications to an output file in the binary format. The file starts
+	 * with the magic bytes and the version, followed by the number of
+	 * applications. Each application is written as its id, one byte each for its
+	 * state, type, resolution and paperwork status, its summary and reviewer, and
+	 * its notes preceded by their number. Numbers are written as varints and
+	 * strings as their UTF-8 length followed by their bytes. The output file is
+	 * replaced in one step, as replaceAppsFile replaces it, and any delta file of
+	 * the output file is removed
+	 * 
+	 * @param fileName name of output file
+	 * @param list     list of applications
+	 * @return checksum of the written file
 	 * @throws IllegalArgumentException if any exceptions occur while processing the
 	 *                                  file
 	 */
-	public static void writeAppsToFile(String fileName, List<Application> list) {
+	public static long writeAppsToBinaryFile(String fileName, List<Application> list) {
+		return writeAppsToBinaryFile(fileName, list, 0);
+	}
+
+	/**
+	 * Writes applications to an output file in the binary format, as
+	 * writeAppsToBinaryFile does, recording the sequence number of the last
+	 * journal record the list includes as replaceAppsFile records it
+	 * 
+	 * @param fileName name of output file
+	 * @param list     list of applications
+	 * @param sequence sequence number of the last journal record in the list, or
+	 *                 0 if the file is not the snapshot file of a journal
+	 * @return checksum of the written file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static long writeAppsToBinaryFile(String fileName, List<Application> list, long sequence) {
 		try {
-			PrintWriter fileWriter = new PrintWriter(new FileOutputStream(fileName));
-			for (int i = 0; i < list.size() - 1; i++) {
-				fileWriter.print(list.get(i).toString());
+			return replaceFile(fileName, stream -> writeBinary(stream, list), sequence);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Writes applications in the binary format
+	 * 
+	 * @param stream stream the file is written to
+	 * @param list   list of applications
+	 * @throws IOException if the applications cannot be written
+	 */
+	private static void writeBinary(OutputStream stream, List<Application> list) throws IOException {
+		OutputStream out = new BufferedOutputStream(stream, BUFFER_SIZE);
+		out.write(BINARY_MAGIC);
+		out.write(BINARY_VERSION);
+		writeVarint(out, list.size());
+		for (int i = 0; i < list.size(); i++) {
+			Application app = list.get(i);
+			writeVarint(out, app.getAppId());
+			out.write(Application.stateCode(app.getStateName()));
+			out.write(Application.appTypeCode(app.getAppType()));
+			out.write(Application.resolutionCode(app.getResolution()));
+			out.write(app.isProcessed() ? 1 : 0);
+			writeString(out, app.getSummary());
+			// Reviewers are written with their length plus one, so 0 means none
+			if (app.getReviewer() == null) {
+				writeVarint(out, 0);
+			} else {
+				byte[] reviewer = app.getReviewer().getBytes(StandardCharsets.UTF_8);
+				writeVarint(out, reviewer.length + 1);
+				out.write(reviewer);
 			}
-			String lastApp = list.get(list.size() - 1).toString();
-			fileWriter.print(lastApp.substring(0, lastApp.length() - 1));
-			fileWriter.close();
+			ArrayList<String> notes = app.getNotes();
+			writeVarint(out, notes.size());
+			for (int n = 0; n < notes.size(); n++) {
+				writeString(out, notes.get(n));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Replaces an output file with the given applications. The applications are
+	 * written to a temporary file in the same directory, which is forced to disk
+	 * and then moved over the output file in one step, so the output file always
+	 * holds either the old or the new list. An empty list leaves an empty file.
+	 * Any delta file of the output file is removed
+	 * 
+	 * @param fileName name of output file
+	 * @param list     list of applications
+	 * @return checksum of the written file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static long replaceAppsFile(String fileName, List<Application> list) {
+		return replaceAppsFile(fileName, list, 0);
+	}
+
+	/**
+	 * Replaces an output file with the given applications, as replaceAppsFile
+	 * does, recording the sequence number of the last journal record the list
+	 * includes. Before the new file is moved into place, an empty batch naming it
+	 * and holding the sequence number is committed to the delta file, and once it
+	 * is in place the delta file is replaced by that commit record alone. Either
+	 * the old file with its batches or the new file with its sequence number is
+	 * found after a crash
+	 * 
+	 * @param fileName name of output file
+	 * @param list     list of applications
+	 * @param sequence sequence number of the last journal record in the list, or
+	 *                 0 if the file is not the snapshot file of a journal
+	 * @return checksum of the written file
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static long replaceAppsFile(String fileName, List<Application> list, long sequence) {
+		try {
+			return replaceFile(fileName, stream -> {
+				Writer fileWriter = openWriter(stream);
+				writeRecords(fileWriter, list);
+				fileWriter.flush();
+			}, sequence);
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Unable to save file.");
 		}
 	}
+
+	/**
+	 * Appends one batch of changes to the delta file of an output file, as
+	 * writeChangesToFile with the checksum of the output file does
+	 * 
+	 * @param fileName   name of output file the changes apply to
+	 * @param changed    applications added or changed since the last save
+	 * @param deletedIds ids of applications deleted since the last save
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static void writeChangesToFile(String fileName, List<Application> changed, int[] deletedIds) {
+		long baseChecksum;
+		try {
+			baseChecksum = checksum(fileName);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		writeChangesToFile(fileName, changed, deletedIds, baseChecksum, 0);
+	}
+
+	/**
+	 * Appends one batch of changes to the delta file of an output file. Each
+	 * changed application is written as a full record and each deleted id as a
+	 * tombstone record. The batch ends with a commit record holding the sequence
+	 * number of the last journal record it includes, then the length and checksum
+	 * of the output file, and is forced to disk before this returns. A batch cut
+	 * short by a crash is removed before the next batch is appended, and a batch
+	 * written against an output file that has since been replaced is ignored when
+	 * the file is loaded
+	 * 
+	 * @param fileName     name of output file the changes apply to
+	 * @param changed      applications added or changed since the last save
+	 * @param deletedIds   ids of applications deleted since the last save
+	 * @param baseChecksum checksum of the output file, as returned by the save
+	 *                     that wrote it or by checksum
+	 * @param sequence     sequence number of the last journal record in the
+	 *                     changes, or 0 if the file is not the snapshot file of a
+	 *                     journal
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public static void writeChangesToFile(String fileName, List<Application> changed, int[] deletedIds,
+			long baseChecksum, long sequence) {
+		try {
+			String commit = commitRecord(sequence, new File(fileName).length(), baseChecksum);
+			appendBatch(new File(getDeltaFileName(fileName)), changed, deletedIds, commit);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Appends a batch of changes ending in a commit record to a delta file and
+	 * forces it to disk. Anything after the last commit record already in the
+	 * file is what is left of a batch cut short by a crash, and is removed first
+	 * so it does not become part of the new batch
+	 * 
+	 * @param delta      delta file
+	 * @param changed    applications added or changed
+	 * @param deletedIds ids of applications deleted
+	 * @param commit     commit record ending the batch
+	 * @throws IOException if the batch cannot be written
+	 */
+	private static void appendBatch(File delta, List<Application> changed, int[] deletedIds, String commit)
+			throws IOException {
+		if (delta.exists()) {
+			try (RandomAccessFile file = new RandomAccessFile(delta, "rw")) {
+				long committed = committedLength(file);
+				if (committed < file.length()) {
+					file.setLength(committed);
+				}
+			}
+		}
+		boolean empty = delta.length() == 0;
+		FileOutputStream stream = new FileOutputStream(delta, true);
+		try (Writer fileWriter = openWriter(stream)) {
+			if (!empty && !changed.isEmpty()) {
+				fileWriter.write('\n');
+			}
+			writeRecords(fileWriter, changed);
+			empty = empty && changed.isEmpty();
+			for (int id : deletedIds) {
+				fileWriter.write(empty ? "" : "\n");
+				fileWriter.write("*" + TOMBSTONE_MARKER + id);
+				empty = false;
+			}
+			fileWriter.write(empty ? "" : "\n");
+			fileWriter.write(commit);
+			fileWriter.flush();
+			stream.getFD().sync();
+		}
+	}
+
+	/**
+	 * Finds the end of the last commit record of a delta file, searching
+	 * backwards from the end of the file. A commit record ends at the next newline
+	 * or at the end of the file
+	 * 
+	 * @param file delta file
+	 * @return number of bytes up to the end of the last commit record, or 0 if
+	 *         there is none
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long committedLength(RandomAccessFile file) throws IOException {
+		byte[] block = new byte[TAIL_BLOCK_SIZE];
+		long newline = file.length();
+		int next = -1;
+		for (long end = file.length(); end > 0;) {
+			int count = (int) Math.min(block.length, end);
+			long start = end - count;
+			file.seek(start);
+			file.readFully(block, 0, count);
+			for (int i = count - 1; i >= 0; i--) {
+				if (block[i] == '*' && next == COMMIT_MARKER.charAt(0)) {
+					return newline;
+				}
+				if (block[i] == '\n') {
+					newline = start + i;
+				}
+				next = block[i];
+			}
+			end = start;
+		}
+		return 0;
+	}
+
+	/**
+	 * Builds the commit record that ends a batch of changes. The sequence number
+	 * comes first, so a record cut short by a crash loses part of the checksum
+	 * and no longer names any file
+	 * 
+	 * @param sequence sequence number of the last journal record included
+	 * @param length   length of the full file the batch applies to
+	 * @param checksum checksum of the full file the batch applies to
+	 * @return text of the commit record
+	 */
+	private static String commitRecord(long sequence, long length, long checksum) {
+		return "*" + COMMIT_MARKER + sequence + "," + length + "," + checksum;
+	}
+
+	/**
+	 * Replaces a file in one step. The contents are written to a temporary file in
+	 * the same directory, which is forced to disk and then moved over the file.
+	 * Any delta file of the file is removed after the move. Until then its batches
+	 * name the old file by its checksum, so they are never merged into the new one.
+	 * With a sequence number, the delta file is kept holding only a commit record
+	 * for the new file, which is committed before the move
+	 * 
+	 * @param fileName name of file being replaced
+	 * @param contents writer of the new contents
+	 * @param sequence sequence number of the last journal record in the contents,
+	 *                 or 0 for none
+	 * @return checksum of the new contents
+	 * @throws IOException if the file cannot be replaced
+	 */
+	private static long replaceFile(String fileName, Contents contents, long sequence) throws IOException {
+		Path target = Paths.get(fileName).toAbsolutePath();
+		Path delta = Paths.get(getDeltaFileName(fileName)).toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			CRC32 crc = new CRC32();
+			writeSynced(temp, stream -> contents.write(new CheckedOutputStream(stream, crc)));
+			if (sequence == 0) {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				Files.deleteIfExists(delta);
+				return crc.getValue();
+			}
+			String commit = commitRecord(sequence, Files.size(temp), crc.getValue());
+			appendBatch(delta.toFile(), new ArrayList<Application>(), new int[0], commit);
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			// The temporary name is free again, and is reused for the new delta file
+			writeSynced(temp, stream -> stream.write(commit.getBytes(Charset.defaultCharset())));
+			Files.move(temp, delta, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return crc.getValue();
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Writes a file and forces it to disk
+	 * 
+	 * @param file     file being written
+	 * @param contents writer of the contents
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeSynced(Path file, Contents contents) throws IOException {
+		try (FileOutputStream stream = new FileOutputStream(file.toFile())) {
+			contents.write(stream);
+			stream.getFD().sync();
+		}
+	}
+
+	/**
+	 * Computes the CRC-32 checksum of a file, which together with its length names
+	 * the full file a batch of changes applies to
+	 * 
+	 * @param fileName name of file
+	 * @return checksum of the bytes of the file
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	public static long checksum(String fileName) {
+		CRC32 crc = new CRC32();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Gets the name of the delta file of a file
+	 * 
+	 * @param fileName name of file
+	 * @return name of its delta file
+	 */
+	public static String getDeltaFileName(String fileName) {
+		return fileName + DELTA_SUFFIX;
+	}
+
+	/**
+	 * Opens a buffered writer that encodes text in the default charset, which
+	 * AppReader decodes text files with
+	 * 
+	 * @param stream stream the text is written to
+	 * @return writer over the stream
+	 */
+	private static Writer openWriter(OutputStream stream) {
+		return new BufferedWriter(new OutputStreamWriter(stream, Charset.defaultCharset()), BUFFER_SIZE);
+	}
+
+	/**
+	 * Writes the records of applications separated by newlines. Each record is
+	 * written without the newline after its last note, so the last record of a
+	 * file ends with its last note
+	 * 
+	 * @param out  writer the records are written to
+	 * @param list list of applications
+	 * @throws IOException if the records cannot be written
+	 */
+	private static void writeRecords(Writer out, List<Application> list) throws IOException {
+		for (int i = 0; i < list.size(); i++) {
+			if (i > 0) {
+				out.write('\n');
+			}
+			list.get(i).writeTo(out, false);
+		}
+	}
+
+	/**
+	 * Interface for the writers of the contents of a file being replaced
+	 * 
+	 * @author Gabe Frain
+	 */
+	private interface Contents {
+
+		/**
+		 * Writes the contents, flushing any buffer before returning
+		 * 
+		 * @param stream stream the file is written to
+		 * @throws IOException if the contents cannot be written
+		 */
+		void write(OutputStream stream) throws IOException;
+	}
+
+	/**
+	 * Writes a non-negative number as a varint, seven bits per byte with the high
+	 * bit set on every byte but the last
+	 * 
+	 * @param out   stream being written to
+	 * @param value number being written
+	 * @throws IOException if the number cannot be written
+	 */
+	private static void writeVarint(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value = value >>> 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length followed by its bytes
+	 * 
+	 * @param out   stream being written to
+	 * @param value string being written
+	 * @throws IOException if the string cannot be written
+	 */
+	private static void writeString(OutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes);
+	}
 }
@@ -0,0 +1,273 @@
+package edu.ncsu.csc216.app_manager.model.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class splits an application file into records by memory mapping it and
+ * scanning its bytes, without decoding the file or matching a regular
+ * expression. Records are split exactly where a Scanner using the delimiter
+ * "\r?\n?[*]" splits them. Since every star ends a record, a scanner can also
+ * read just the records between two stars, so separate scanners can read the
+ * parts of one file at the same time. The file is mapped one window at a time,
+ * so files larger than a single mapping can be read, and the bytes of the
+ * current record are copied into a buffer that is reused for every record
+ *
+ * @author Gabe Frain
+ */
+public class MappedRecordScanner implements AutoCloseable {
+
+	/** Default number of bytes mapped at once */
+	private static final int DEFAULT_WINDOW = 1 << 30;
+	/** Byte that starts every record */
+	private static final byte RECORD_MARK = '*';
+
+	/** Channel of the file being scanned */
+	private final FileChannel channel;
+	/** Number of bytes in the file */
+	private final long fileSize;
+	/** Position in the file where scanning stops */
+	private final long limit;
+	/** Number of bytes mapped at once */
+	private final int windowSize;
+	/** Mapped window of the file */
+	private MappedByteBuffer window;
+	/** Position in the file of the first byte of the window */
+	private long windowStart;
+	/** Number of bytes in the window */
+	private int windowLength;
+	/** Position in the file the next record is scanned from */
+	private long position;
+	/** Bytes of the current record */
+	private byte[] record = new byte[256];
+	/** Number of bytes in the current record */
+	private int recordLength;
+	/** Position in the file of the first byte of the current record */
+	private long recordPosition;
+	/** If every byte of the current record is ASCII */
+	private boolean recordAscii;
+
+	/**
+	 * Opens a file for scanning
+	 *
+	 * @param fileName name of input file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedRecordScanner(String fileName) throws IOException {
+		this(fileName, 0, Long.MAX_VALUE, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Opens a file for scanning the records between two positions. The start must
+	 * be 0 or the position of a star, and the end must be the position of a star
+	 * or at least the size of the file
+	 *
+	 * @param fileName name of input file
+	 * @param start    position scanning starts at
+	 * @param end      position scanning stops at
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedRecordScanner(String fileName, long start, long end) throws IOException {
+		this(fileName, start, end, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Opens a file for scanning with the given window size
+	 *
+	 * @param fileName   name of input file
+	 * @param windowSize number of bytes mapped at once
+	 * @throws IOException if the file cannot be opened
+	 */
+	MappedRecordScanner(String fileName, int windowSize) throws IOException {
+		this(fileName, 0, Long.MAX_VALUE, windowSize);
+	}
+
+	/**
+	 * Opens a file for scanning the records between two positions with the given
+	 * window size
+	 *
+	 * @param fileName   name of input file
+	 * @param start      position scanning starts at
+	 * @param end        position scanning stops at
+	 * @param windowSize number of bytes mapped at once
+	 * @throws IOException if the file cannot be opened
+	 */
+	MappedRecordScanner(String fileName, long start, long end, int windowSize) throws IOException {
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		fileSize = channel.size();
+		limit = Math.min(end, fileSize);
+		this.windowSize = windowSize;
+		windowStart = 0;
+		windowLength = 0;
+		position = start;
+	}
+
+	/**
+	 * Gets the size of the file
+	 *
+	 * @return number of bytes in the file
+	 */
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	/**
+	 * Finds the first star at or after a position, where a part of the file read
+	 * by a separate scanner can start
+	 *
+	 * @param from position the search starts at
+	 * @return position of the star, or the size of the file if there is none
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public long findRecordMark(long from) throws IOException {
+		long at = Math.max(0, from);
+		while (at < fileSize && byteAt(at) != RECORD_MARK) {
+			at++;
+		}
+		return at;
+	}
+
+	/**
+	 * Moves to the next record of the file
+	 *
+	 * @return true if there is another record, false at the end of the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public boolean nextRecord() throws IOException {
+		// A record belongs to the scanner holding the star before it, even when
+		// the record is empty and starts at the limit
+		int delimiter = delimiterLength(position);
+		position += delimiter;
+		if (position >= fileSize || (delimiter == 0 ? position : position - 1) >= limit) {
+			return false;
+		}
+		int length = 0;
+		boolean ascii = true;
+		long next = position;
+		while (next < limit) {
+			byte b = byteAt(next);
+			if (b == RECORD_MARK) {
+				break;
+			}
+			if (length == record.length) {
+				record = Arrays.copyOf(record, length * 2);
+			}
+			record[length++] = b;
+			ascii = ascii && b >= 0;
+			next++;
+		}
+		// A line break right before the next star belongs to the delimiter. A
+		// limit inside the file is always the position of a star
+		int end = length;
+		if (next < fileSize) {
+			if (end >= 2 && record[end - 2] == '\r' && record[end - 1] == '\n') {
+				end -= 2;
+			} else if (end >= 1 && (record[end - 1] == '\r' || record[end - 1] == '\n')) {
+				end--;
+			}
+		}
+		recordLength = end;
+		recordPosition = position;
+		recordAscii = ascii;
+		position = next - (length - end);
+		return true;
+	}
+
+	/**
+	 * Gets the buffer holding the bytes of the current record. The buffer is
+	 * reused by the next record
+	 *
+	 * @return bytes of the current record, starting at index 0
+	 */
+	public byte[] getRecord() {
+		return record;
+	}
+
+	/**
+	 * Gets the number of bytes in the current record
+	 *
+	 * @return length of the current record
+	 */
+	public int getRecordLength() {
+		return recordLength;
+	}
+
+	/**
+	 * Gets the position in the file of the current record
+	 *
+	 * @return position of the first byte of the current record
+	 */
+	public long getRecordPosition() {
+		return recordPosition;
+	}
+
+	/**
+	 * Checks if every byte of the current record is ASCII
+	 *
+	 * @return true if the record is ASCII
+	 */
+	public boolean isRecordAscii() {
+		return recordAscii;
+	}
+
+	/**
+	 * Closes the file
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+	/**
+	 * Gets the length of the record delimiter starting at a position, or 0 if
+	 * none starts there
+	 *
+	 * @param at position in the file
+	 * @return length of the delimiter
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private int delimiterLength(long at) throws IOException {
+		if (at >= fileSize) {
+			return 0;
+		}
+		byte b = byteAt(at);
+		if (b == RECORD_MARK) {
+			return 1;
+		}
+		if (b == '\r' && at + 1 < fileSize) {
+			byte c = byteAt(at + 1);
+			if (c == RECORD_MARK) {
+				return 2;
+			}
+			if (c == '\n' && at + 2 < fileSize && byteAt(at + 2) == RECORD_MARK) {
+				return 3;
+			}
+		} else if (b == '\n' && at + 1 < fileSize && byteAt(at + 1) == RECORD_MARK) {
+			return 2;
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the byte at a position, mapping the window that holds it if needed
+	 *
+	 * @param at position in the file
+	 * @return byte at the position
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private byte byteAt(long at) throws IOException {
+		if (at < windowStart || at >= windowStart + windowLength) {
+			windowStart = at;
+			windowLength = (int) Math.min(windowSize, fileSize - at);
+			window = channel.map(MapMode.READ_ONLY, windowStart, windowLength);
+		}
+		return window.get((int) (at - windowStart));
+	}
+}
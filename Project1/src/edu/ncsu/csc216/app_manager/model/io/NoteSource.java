@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.app_manager.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class holds a text file open so the note blocks of its applications
+ * can be read after it is loaded. Blocks are read with positional reads, so
+ * notes can be loaded from many threads at once. The file is closed by itself
+ * once every block handed out by the reader has been loaded, and must be
+ * closed by its owner when the applications are dropped before then
+ *
+ * @author Gabe Frain
+ */
+public class NoteSource implements Closeable {
+
+	/** Name of the file the notes are read from */
+	private final String fileName;
+	/** Channel of the file the notes are read from */
+	private final FileChannel channel;
+	/** Number of note blocks handed out that have not been loaded */
+	private final AtomicInteger unloaded = new AtomicInteger();
+	/** If the reader has handed out every note block of the file */
+	private volatile boolean sealed;
+
+	/**
+	 * Opens a file for reading note blocks
+	 *
+	 * @param fileName name of input file
+	 * @throws IllegalArgumentException if the file cannot be opened
+	 */
+	public NoteSource(String fileName) {
+		try {
+			channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Gets the name of the file the notes are read from
+	 *
+	 * @return name of input file
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Checks if the file is still open
+	 *
+	 * @return true if some note block has not been loaded and the source has not
+	 *         been closed
+	 */
+	public boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	/**
+	 * Returns a loader for the note block at a position of the file. The file is
+	 * closed once the last block is loaded after the source is sealed
+	 *
+	 * @param position position of the note block
+	 * @param length   number of bytes in the note block
+	 * @param parser   splitter of the bytes of the note block into notes
+	 * @return loader that reads and splits the note block
+	 */
+	Supplier<ArrayList<String>> block(long position, int length, Function<byte[], ArrayList<String>> parser) {
+		unloaded.incrementAndGet();
+		return () -> {
+			ByteBuffer buffer = ByteBuffer.allocate(length);
+			try {
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer, position + buffer.position()) < 0) {
+						throw new IllegalArgumentException("Unable to load file.");
+					}
+				}
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			ArrayList<String> notes = parser.apply(buffer.array());
+			if (unloaded.decrementAndGet() == 0 && sealed) {
+				close();
+			}
+			return notes;
+		};
+	}
+
+	/**
+	 * Marks every note block of the file as handed out, and closes the file if
+	 * none of them is left to load
+	 */
+	void seal() {
+		sealed = true;
+		if (unloaded.get() == 0) {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the file. Notes that have not been loaded can no longer be loaded
+	 */
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// The file was only read, so nothing is lost
+		}
+	}
+}
@@ -0,0 +1,444 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+
+/**
+ * This class keeps a scan-friendly mirror of the fields of a list of
+ * applications, column by column. The applications are still the storage; the
+ * columns are copied from them as they are added, changed and removed, and add
+ * to the memory of the list rather than replacing it. Ids are kept in an int
+ * array and the state, type, resolution and processed flag are kept as byte
+ * codes, so projecting, counting and filtering rows are linear scans over
+ * primitive arrays. Summaries and reviewer ids are kept in side tables, with
+ * each reviewer id stored once while a row uses it. Rows are kept in id order
+ * and table rows are only built when they are asked for
+ *
+ * @author Gabe Frain
+ */
+public class AppColumns {
+
+	/** Default number of rows the columns can hold before growing */
+	private static final int DEFAULT_CAPACITY = 16;
+	/** Reviewer code for a row with no reviewer */
+	private static final int NO_REVIEWER = -1;
+
+	/** Application ids, in ascending order */
+	private int[] ids;
+	/** State codes */
+	private byte[] states;
+	/** Application type codes */
+	private byte[] types;
+	/** Resolution codes */
+	private byte[] resolutions;
+	/** Processed paperwork flags, 1 if processed */
+	private byte[] processed;
+	/** Application summaries */
+	private String[] summaries;
+	/** Reviewer codes into the reviewer table */
+	private int[] reviewers;
+	/** Table of reviewer ids in the order of their codes */
+	private ArrayList<String> reviewerNames;
+	/** Codes of the reviewer ids in the reviewer table */
+	private HashMap<String, Integer> reviewerCodes;
+	/** Number of rows using each reviewer code */
+	private int[] reviewerUses;
+	/** Codes in the reviewer table no longer used by any row */
+	private ArrayList<Integer> freeCodes;
+	/** Number of rows */
+	private int size;
+
+	/**
+	 * Constructs empty columns with the default capacity
+	 */
+	public AppColumns() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs empty columns that can hold the given number of rows before
+	 * growing
+	 *
+	 * @param capacity number of rows to make room for
+	 */
+	public AppColumns(int capacity) {
+		int length = Math.max(capacity, DEFAULT_CAPACITY);
+		ids = new int[length];
+		states = new byte[length];
+		types = new byte[length];
+		resolutions = new byte[length];
+		processed = new byte[length];
+		summaries = new String[length];
+		reviewers = new int[length];
+		clearReviewers();
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of rows
+	 *
+	 * @return number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a row for the application to the end of the columns
+	 *
+	 * @param app application being added
+	 * @throws IllegalArgumentException if the application id is not larger than
+	 *                                  the id of the last row
+	 */
+	public void add(Application app) {
+		if (size > 0 && ids[size - 1] >= app.getAppId()) {
+			throw new IllegalArgumentException();
+		}
+		if (size == ids.length) {
+			grow();
+		}
+		ids[size] = app.getAppId();
+		reviewers[size] = NO_REVIEWER;
+		write(size, app);
+		size++;
+	}
+
+	/**
+	 * Copies the current fields of the application into its row
+	 *
+	 * @param app application that changed
+	 */
+	public void update(Application app) {
+		int row = indexOf(app.getAppId());
+		if (row >= 0) {
+			write(row, app);
+		}
+	}
+
+	/**
+	 * Removes the row of the application with the given id. The reviewer table is
+	 * emptied once the last row is removed
+	 *
+	 * @param id id of application being removed
+	 */
+	public void remove(int id) {
+		int row = indexOf(id);
+		if (row >= 0) {
+			releaseReviewer(reviewers[row]);
+			int moved = size - row - 1;
+			System.arraycopy(ids, row + 1, ids, row, moved);
+			System.arraycopy(states, row + 1, states, row, moved);
+			System.arraycopy(types, row + 1, types, row, moved);
+			System.arraycopy(resolutions, row + 1, resolutions, row, moved);
+			System.arraycopy(processed, row + 1, processed, row, moved);
+			System.arraycopy(summaries, row + 1, summaries, row, moved);
+			System.arraycopy(reviewers, row + 1, reviewers, row, moved);
+			size--;
+			summaries[size] = null;
+			if (size == 0) {
+				clearReviewers();
+			}
+		}
+	}
+
+	/**
+	 * Finds the row of the application with the given id
+	 *
+	 * @param id id of application
+	 * @return row of the application, or -1 if there is no row for the id
+	 */
+	public int indexOf(int id) {
+		int row = Arrays.binarySearch(ids, 0, size, id);
+		return row < 0 ? -1 : row;
+	}
+
+	/**
+	 * Gets the application id of a row
+	 *
+	 * @param row row of the application
+	 * @return application id
+	 */
+	public int getAppId(int row) {
+		checkRow(row);
+		return ids[row];
+	}
+
+	/**
+	 * Gets the state name of a row
+	 *
+	 * @param row row of the application
+	 * @return state name
+	 */
+	public String getStateName(int row) {
+		checkRow(row);
+		return Application.stateName(states[row]);
+	}
+
+	/**
+	 * Gets the application type of a row
+	 *
+	 * @param row row of the application
+	 * @return application type
+	 */
+	public String getAppType(int row) {
+		checkRow(row);
+		return Application.appTypeName(types[row]);
+	}
+
+	/**
+	 * Gets the summary of a row
+	 *
+	 * @param row row of the application
+	 * @return application summary
+	 */
+	public String getSummary(int row) {
+		checkRow(row);
+		return summaries[row];
+	}
+
+	/**
+	 * Gets the reviewer id of a row
+	 *
+	 * @param row row of the application
+	 * @return reviewer id, or null if there is none
+	 */
+	public String getReviewer(int row) {
+		checkRow(row);
+		return reviewers[row] == NO_REVIEWER ? null : reviewerNames.get(reviewers[row]);
+	}
+
+	/**
+	 * Gets the resolution of a row
+	 *
+	 * @param row row of the application
+	 * @return resolution, or null if there is none
+	 */
+	public String getResolution(int row) {
+		checkRow(row);
+		return Application.resolutionName(resolutions[row]);
+	}
+
+	/**
+	 * Gets the processed paperwork flag of a row
+	 *
+	 * @param row row of the application
+	 * @return if the paperwork has been processed
+	 */
+	public boolean isProcessed(int row) {
+		checkRow(row);
+		return processed[row] == 1;
+	}
+
+	/**
+	 * Builds the table row of the given row, which holds the id, state name,
+	 * type and summary of the application
+	 *
+	 * @param row row of the application
+	 * @return table row of the application
+	 */
+	public Object[] getRow(int row) {
+		checkRow(row);
+		Object[] output = new Object[4];
+		output[0] = ids[row];
+		output[1] = Application.stateName(states[row]);
+		output[2] = Application.appTypeName(types[row]);
+		output[3] = summaries[row];
+		return output;
+	}
+
+	/**
+	 * Builds the table rows of every application
+	 *
+	 * @return 2D array of applications
+	 */
+	public Object[][] toArray() {
+		Object[][] output = new Object[size][];
+		for (int i = 0; i < size; i++) {
+			output[i] = getRow(i);
+		}
+		return output;
+	}
+
+	/**
+	 * Builds the table rows of the applications of the given type
+	 *
+	 * @param appType type of application being listed
+	 * @return 2D array of applications of the type
+	 */
+	public Object[][] toArrayByAppType(String appType) {
+		int[] rows = findByAppType(appType);
+		Object[][] output = new Object[rows.length][];
+		for (int i = 0; i < rows.length; i++) {
+			output[i] = getRow(rows[i]);
+		}
+		return output;
+	}
+
+	/**
+	 * Finds the rows of the applications of the given type
+	 *
+	 * @param appType type of application being searched for
+	 * @return rows of the applications of the type, in id order
+	 */
+	public int[] findByAppType(String appType) {
+		int code = Application.appTypeCode(appType);
+		int[] rows = new int[countByAppType(appType)];
+		int next = 0;
+		for (int i = 0; i < size; i++) {
+			if (types[i] == code) {
+				rows[next++] = i;
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Finds the rows of a window of the applications of the given type
+	 *
+	 * @param appType type of application being searched for
+	 * @param offset  number of matching rows to skip
+	 * @param limit   largest number of rows to find
+	 * @return rows of the applications in the window, in id order
+	 */
+	public int[] findByAppType(String appType, int offset, int limit) {
+		int code = Application.appTypeCode(appType);
+		int[] rows = new int[Math.max(0, Math.min(limit, size - offset))];
+		int skipped = 0;
+		int next = 0;
+		for (int i = 0; i < size && next < rows.length; i++) {
+			if (types[i] == code) {
+				if (skipped < offset) {
+					skipped++;
+				} else {
+					rows[next++] = i;
+				}
+			}
+		}
+		return Arrays.copyOf(rows, next);
+	}
+
+	/**
+	 * Counts the applications of the given type
+	 *
+	 * @param appType type of application being counted
+	 * @return number of applications of the type
+	 */
+	public int countByAppType(String appType) {
+		int code = Application.appTypeCode(appType);
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (types[i] == code) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Copies the fields of the application other than its id into a row
+	 *
+	 * @param row row being written
+	 * @param app application being copied
+	 */
+	private void write(int row, Application app) {
+		states[row] = (byte) Application.stateCode(app.getStateName());
+		types[row] = (byte) Application.appTypeCode(app.getAppType());
+		resolutions[row] = (byte) Application.resolutionCode(app.getResolution());
+		processed[row] = (byte) (app.isProcessed() ? 1 : 0);
+		summaries[row] = app.getSummary();
+		int code = reviewerCode(app.getReviewer());
+		releaseReviewer(reviewers[row]);
+		reviewers[row] = code;
+	}
+
+	/**
+	 * Gets the number of reviewer ids in the reviewer table
+	 *
+	 * @return number of reviewer ids used by the rows
+	 */
+	int getReviewerCount() {
+		return reviewerCodes.size();
+	}
+
+	/**
+	 * Gets the code of a reviewer id for one more row, adding it to the reviewer
+	 * table if it is new. A code freed by an id no longer used is reused first
+	 *
+	 * @param reviewer reviewer id, or null for none
+	 * @return code of the reviewer id
+	 */
+	private int reviewerCode(String reviewer) {
+		if (reviewer == null) {
+			return NO_REVIEWER;
+		}
+		Integer code = reviewerCodes.get(reviewer);
+		if (code == null) {
+			if (freeCodes.isEmpty()) {
+				code = reviewerNames.size();
+				reviewerNames.add(reviewer);
+				if (code == reviewerUses.length) {
+					reviewerUses = Arrays.copyOf(reviewerUses, code * 2);
+				}
+			} else {
+				code = freeCodes.remove(freeCodes.size() - 1);
+				reviewerNames.set(code, reviewer);
+			}
+			reviewerCodes.put(reviewer, code);
+		}
+		reviewerUses[code]++;
+		return code;
+	}
+
+	/**
+	 * Releases a reviewer code for one row, removing the reviewer id from the
+	 * table once no row uses it
+	 *
+	 * @param code code of the reviewer id, or NO_REVIEWER for none
+	 */
+	private void releaseReviewer(int code) {
+		if (code != NO_REVIEWER && --reviewerUses[code] == 0) {
+			reviewerCodes.remove(reviewerNames.get(code));
+			reviewerNames.set(code, null);
+			freeCodes.add(code);
+		}
+	}
+
+	/**
+	 * Empties the reviewer table
+	 */
+	private void clearReviewers() {
+		reviewerNames = new ArrayList<String>();
+		reviewerCodes = new HashMap<String, Integer>();
+		reviewerUses = new int[DEFAULT_CAPACITY];
+		freeCodes = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Checks that a row exists
+	 *
+	 * @param row row being checked
+	 * @throws IndexOutOfBoundsException if there is no such row
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of every column
+	 */
+	private void grow() {
+		int length = ids.length * 2;
+		ids = Arrays.copyOf(ids, length);
+		states = Arrays.copyOf(states, length);
+		types = Arrays.copyOf(types, length);
+		resolutions = Arrays.copyOf(resolutions, length);
+		processed = Arrays.copyOf(processed, length);
+		summaries = Arrays.copyOf(summaries, length);
+		reviewers = Arrays.copyOf(reviewers, length);
+	}
+}
@@ -0,0 +1,172 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+
+/**
+ * This class maps application ids to applications. The map uses open
+ * addressing with linear probing over a primitive int array so that ids are
+ * never boxed. Application ids are always at least 1, so a key of 0 marks an
+ * empty slot
+ *
+ * @author Gabe Frain
+ */
+public class AppIdMap {
+
+	/** Default number of slots in the table */
+	private static final int DEFAULT_CAPACITY = 16;
+	/** Key representing an empty slot */
+	private static final int EMPTY = 0;
+
+	/** Application ids stored in the table */
+	private int[] keys;
+	/** Applications stored in the table */
+	private Application[] values;
+	/** Number of applications in the map */
+	private int size;
+	/** Mask used to wrap a hash into the table */
+	private int mask;
+
+	/**
+	 * Constructs an empty map with the default capacity
+	 */
+	public AppIdMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty map that can hold the expected number of applications
+	 * without resizing
+	 *
+	 * @param expectedSize number of applications expected in the map
+	 */
+	public AppIdMap(int expectedSize) {
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < expectedSize * 2) {
+			capacity = capacity * 2;
+		}
+		keys = new int[capacity];
+		values = new Application[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	/**
+	 * Gets the application with the given id
+	 *
+	 * @param id id of application
+	 * @return application with corresponding id, or null if there is none
+	 */
+	public Application get(int id) {
+		int i = slot(id);
+		while (keys[i] != EMPTY) {
+			if (keys[i] == id) {
+				return values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the application to the map under the given id. Replaces any
+	 * application already stored under the id
+	 *
+	 * @param id  id of application
+	 * @param app application being added
+	 * @throws IllegalArgumentException if id is less than 1 or app is null
+	 */
+	public void put(int id, Application app) {
+		if (id < 1 || app == null) {
+			throw new IllegalArgumentException();
+		}
+		int i = slot(id);
+		while (keys[i] != EMPTY) {
+			if (keys[i] == id) {
+				values[i] = app;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = id;
+		values[i] = app;
+		size++;
+		if (size * 2 > keys.length) {
+			resize();
+		}
+	}
+
+	/**
+	 * Removes the application with the given id from the map. Entries after the
+	 * removed slot are shifted back so that no tombstones are left behind
+	 *
+	 * @param id id of application being removed
+	 * @return application that was removed, or null if there was none
+	 */
+	public Application remove(int id) {
+		int i = slot(id);
+		while (keys[i] != id) {
+			if (keys[i] == EMPTY) {
+				return null;
+			}
+			i = (i + 1) & mask;
+		}
+		Application removed = values[i];
+		int gap = i;
+		int j = (i + 1) & mask;
+		while (keys[j] != EMPTY) {
+			int home = slot(keys[j]);
+			// Move the entry into the gap if the gap lies on its probe path
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+			j = (j + 1) & mask;
+		}
+		keys[gap] = EMPTY;
+		values[gap] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Gets the number of applications in the map
+	 *
+	 * @return number of applications
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the home slot of the given id
+	 *
+	 * @param id id of application
+	 * @return home slot in the table
+	 */
+	private int slot(int id) {
+		int h = id * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Doubles the size of the table and re-adds every application
+	 */
+	private void resize() {
+		int[] oldKeys = keys;
+		Application[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		values = new Application[oldKeys.length * 2];
+		mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int j = slot(oldKeys[i]);
+				while (keys[j] != EMPTY) {
+					j = (j + 1) & mask;
+				}
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+}
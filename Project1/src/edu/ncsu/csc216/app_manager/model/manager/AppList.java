@@ -1,28 +1,61 @@
 package edu.ncsu.csc216.app_manager.model.manager;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.TreeSet;
 
 import edu.ncsu.csc216.app_manager.model.application.Application;
+import edu.ncsu.csc216.app_manager.model.application.Application.AppListener;
 import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
 import edu.ncsu.csc216.app_manager.model.command.Command;
 
 /**
- * This class represents a list of Applications.
+ * This class represents a list of Applications. Commands on different
+ * applications may run at the same time, since the secondary indexes and
+ * columns they touch are guarded by the lock of the list. Adding, deleting and
+ * loading applications must not run at the same time as anything else
  * 
  * @author Gabe Frain
  */
 public class AppList {
 
+	/** Orders applications by id */
+	private static final Comparator<Application> BY_ID = Comparator.comparingInt(Application::getAppId);
+
 	/** Counter of next application id */
 	private int counter;
 	/** List of applications */
 	private ArrayList<Application> apps;
+	/** Index of applications by id */
+	private AppIdMap index;
+	/** Columns holding the fields of the applications, in id order */
+	private AppColumns columns;
+	/** Index of applications by type, each set ordered by id */
+	private EnumMap<AppType, TreeSet<Application>> byType;
+	/** Index of applications by state name, each set ordered by id */
+	private HashMap<String, TreeSet<Application>> byState;
+	/** Index of applications by reviewer id, each set ordered by id */
+	private HashMap<String, TreeSet<Application>> byReviewer;
+	/**
+	 * Ids of the applications added, changed or deleted since the list was loaded
+	 * or the ids were last cleared
+	 */
+	private BitSet dirtyIds;
+	/** Listener that keeps the indexes up to date as applications change */
+	private final AppListener indexListener = new IndexListener();
 
 	/**
 	 * Constructs a list of applications and sets the counter to 0
 	 */
 	public AppList() {
 		apps = new ArrayList<Application>();
+		index = new AppIdMap();
+		columns = new AppColumns();
+		clearIndexes();
+		dirtyIds = new BitSet();
 		counter = 0;
 	}
 
@@ -36,49 +69,196 @@ public class AppList {
 	 * @return new counter number
 	 */
 	public int addApp(AppType appType, String summary, String note) {
-		counter = counter + 1;
-		apps.add(new Application(counter, appType, summary, note));
+		return addApp(counter + 1, appType, summary, note);
+	}
+
+	/**
+	 * Adds a single application with the given id to the application list. The id
+	 * must be larger than the id of every application added so far, and becomes
+	 * the new counter
+	 * 
+	 * @param id      id of the new application
+	 * @param appType type of application
+	 * @param summary summary of application
+	 * @param note    application note
+	 * @return new counter number
+	 * @throws IllegalArgumentException if id is not larger than the counter
+	 */
+	public int addApp(int id, AppType appType, String summary, String note) {
+		if (id <= counter) {
+			throw new IllegalArgumentException();
+		}
+		counter = id;
+		Application app = new Application(counter, appType, summary, note);
+		apps.add(app);
+		index.put(counter, app);
+		columns.add(app);
+		track(app);
+		markDirty(counter);
 		return counter;
 	}
 
 	/**
-	 * Adds a list of applications to the application list
+	 * Gets the id the next application added to the list will have
+	 * 
+	 * @return next application id
+	 */
+	public int getNextAppId() {
+		return counter + 1;
+	}
+
+	/**
+	 * Adds a list of applications to the application list. The list is sorted by
+	 * id once and then loaded in a single pass. Since the sort is stable, the
+	 * first application with a duplicate id is kept and the rest are dropped
 	 * 
 	 * @param applicationlist list of applications being added
 	 */
 	public void addApps(ArrayList<Application> applicationlist) {
-		apps = new ArrayList<Application>();
+		ArrayList<Application> sorted = new ArrayList<Application>(applicationlist);
+		sorted.sort(BY_ID);
+		apps = new ArrayList<Application>(sorted.size());
+		index = new AppIdMap(sorted.size());
+		columns = new AppColumns(sorted.size());
+		clearIndexes();
+		dirtyIds = new BitSet();
 		counter = 0;
-		for (int i = 0; i < applicationlist.size(); i++) {
-			addApp(applicationlist.get(i));
+		for (int i = 0; i < sorted.size(); i++) {
+			Application app = sorted.get(i);
+			if (apps.isEmpty() || apps.get(apps.size() - 1).getAppId() != app.getAppId()) {
+				apps.add(app);
+				index.put(app.getAppId(), app);
+				columns.add(app);
+				track(app);
+			}
 		}
 		counter = apps.get(apps.size() - 1).getAppId();
 	}
 
 	/**
-	 * Adds a single application to the application list. Checks for duplicate ids
-	 * and sorts the applications by id
+	 * Empties the secondary indexes
+	 */
+	private void clearIndexes() {
+		byType = new EnumMap<AppType, TreeSet<Application>>(AppType.class);
+		for (AppType type : AppType.values()) {
+			byType.put(type, new TreeSet<Application>(BY_ID));
+		}
+		byState = new HashMap<String, TreeSet<Application>>();
+		byState.put(Application.REVIEW_NAME, new TreeSet<Application>(BY_ID));
+		byState.put(Application.INTERVIEW_NAME, new TreeSet<Application>(BY_ID));
+		byState.put(Application.WAITLIST_NAME, new TreeSet<Application>(BY_ID));
+		byState.put(Application.REFCHK_NAME, new TreeSet<Application>(BY_ID));
+		byState.put(Application.OFFER_NAME, new TreeSet<Application>(BY_ID));
+		byState.put(Application.CLOSED_NAME, new TreeSet<Application>(BY_ID));
+		byReviewer = new HashMap<String, TreeSet<Application>>();
+	}
+
+	/**
+	 * Adds an application to the secondary indexes and starts listening for its
+	 * changes
+	 * 
+	 * @param app application being tracked
+	 */
+	private void track(Application app) {
+		byType.get(toAppType(app.getAppType())).add(app);
+		byState.get(app.getStateName()).add(app);
+		addToReviewer(app, app.getReviewer());
+		app.setListener(indexListener);
+	}
+
+	/**
+	 * Removes an application from the secondary indexes and stops listening for
+	 * its changes
+	 * 
+	 * @param app application no longer tracked
+	 */
+	private void untrack(Application app) {
+		app.setListener(null);
+		byType.get(toAppType(app.getAppType())).remove(app);
+		byState.get(app.getStateName()).remove(app);
+		removeFromReviewer(app, app.getReviewer());
+	}
+
+	/**
+	 * Adds an application to the set of the given reviewer
 	 * 
-	 * @param app application being added
+	 * @param app      application being added
+	 * @param reviewer reviewer id, or null if the application has no reviewer
 	 */
-	private void addApp(Application app) {
-		boolean dup = false;
-		for (int i = 0; i < apps.size(); i++) {
-			if (apps.get(i).getAppId() == app.getAppId()) {
-				dup = true;
+	private void addToReviewer(Application app, String reviewer) {
+		if (reviewer != null) {
+			TreeSet<Application> assigned = byReviewer.get(reviewer);
+			if (assigned == null) {
+				assigned = new TreeSet<Application>(BY_ID);
+				byReviewer.put(reviewer, assigned);
 			}
+			assigned.add(app);
 		}
-		if (!dup) {
-			int index = 0;
-			for (int j = 0; j < apps.size(); j++) {
-				if (app.getAppId() > apps.get(j).getAppId()) {
-					index = j + 1;
+	}
+
+	/**
+	 * Removes an application from the set of the given reviewer. Reviewers with
+	 * no applications left are dropped from the index
+	 * 
+	 * @param app      application being removed
+	 * @param reviewer reviewer id, or null if the application has no reviewer
+	 */
+	private void removeFromReviewer(Application app, String reviewer) {
+		if (reviewer != null) {
+			TreeSet<Application> assigned = byReviewer.get(reviewer);
+			if (assigned != null) {
+				assigned.remove(app);
+				if (assigned.isEmpty()) {
+					byReviewer.remove(reviewer);
 				}
 			}
-			apps.add(index, app);
 		}
 	}
 
+	/**
+	 * Converts an application type string into its AppType
+	 * 
+	 * @param type application type string
+	 * @return corresponding AppType, or null if the string is not a type
+	 */
+	private static AppType toAppType(String type) {
+		switch (type) {
+		case Application.A_NEW:
+			return AppType.NEW;
+		case Application.A_OLD:
+			return AppType.OLD;
+		case Application.A_HIRED:
+			return AppType.HIRED;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Finds the position of an application in the list using a binary search on
+	 * id, since the list is always sorted by id
+	 * 
+	 * @param id id of application
+	 * @return position of the application, or (-(insertion point) - 1) if no
+	 *         application has the id
+	 */
+	private int indexOf(int id) {
+		int low = 0;
+		int high = apps.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = apps.get(mid).getAppId();
+			if (midId < id) {
+				low = mid + 1;
+			} else if (midId > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
 	/**
 	 * Gets the entire application list
 	 * 
@@ -89,23 +269,106 @@ public class AppList {
 	}
 
 	/**
-	 * Gets the application list by type
+	 * Gets the columns holding the fields of every application in id order. The
+	 * columns are kept up to date as applications change
+	 * 
+	 * @return columns of the application list
+	 */
+	public AppColumns getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the application list by type. The list is read from the type index, so
+	 * only the matching applications are visited
 	 * 
 	 * @param type type of applications on list
 	 * @return list of applications of a certain type
 	 * @throws IllegalArgumentException if type is null
 	 */
-	public ArrayList<Application> getAppsByType(String type) {
+	public synchronized ArrayList<Application> getAppsByType(String type) {
 		if (type == null) {
 			throw new IllegalArgumentException();
 		}
-		ArrayList<Application> appByType = new ArrayList<Application>();
-		for (int i = 0; i < apps.size(); i++) {
-			if (type.equals(apps.get(i).getAppType())) {
-				appByType.add(apps.get(i));
-			}
+		AppType appType = toAppType(type);
+		if (appType == null) {
+			return new ArrayList<Application>();
+		}
+		return new ArrayList<Application>(byType.get(appType));
+	}
+
+	/**
+	 * Counts the applications of the given type without visiting them
+	 * 
+	 * @param type type of applications being counted
+	 * @return number of applications of the type
+	 * @throws IllegalArgumentException if type is null
+	 */
+	public synchronized int countByType(String type) {
+		if (type == null) {
+			throw new IllegalArgumentException();
+		}
+		AppType appType = toAppType(type);
+		if (appType == null) {
+			return 0;
 		}
-		return appByType;
+		return byType.get(appType).size();
+	}
+
+	/**
+	 * Gets the applications in the given state. The list is read from the state
+	 * index, so only the matching applications are visited
+	 * 
+	 * @param stateName name of the state
+	 * @return list of applications in the state, ordered by id
+	 * @throws IllegalArgumentException if stateName is null
+	 */
+	public synchronized ArrayList<Application> getAppsByState(String stateName) {
+		if (stateName == null) {
+			throw new IllegalArgumentException();
+		}
+		TreeSet<Application> appsInState = byState.get(stateName);
+		if (appsInState == null) {
+			return new ArrayList<Application>();
+		}
+		return new ArrayList<Application>(appsInState);
+	}
+
+	/**
+	 * Counts the applications in the given state without visiting them
+	 * 
+	 * @param stateName name of the state
+	 * @return number of applications in the state
+	 * @throws IllegalArgumentException if stateName is null
+	 */
+	public synchronized int countByState(String stateName) {
+		if (stateName == null) {
+			throw new IllegalArgumentException();
+		}
+		TreeSet<Application> appsInState = byState.get(stateName);
+		if (appsInState == null) {
+			return 0;
+		}
+		return appsInState.size();
+	}
+
+	/**
+	 * Gets the applications assigned to the given reviewer. The list is read from
+	 * the reviewer index, so only the matching applications are visited
+	 * 
+	 * @param reviewer reviewer id
+	 * @return list of applications assigned to the reviewer, ordered by id
+	 * @throws IllegalArgumentException if reviewer is null
+	 */
+	public synchronized ArrayList<Application> getAppsByReviewer(String reviewer) {
+		if (reviewer == null) {
+			throw new IllegalArgumentException();
+		}
+		TreeSet<Application> assigned = byReviewer.get(reviewer);
+		if (assigned == null) {
+			return new ArrayList<Application>();
+		}
+		return new ArrayList<Application>(assigned);
 	}
 
 	/**
@@ -115,26 +378,37 @@ public class AppList {
 	 * @return application with corresponding id
 	 */
 	public Application getAppById(int id) {
-		for (int i = 0; i < apps.size(); i++) {
-			if (apps.get(i).getAppId() == id) {
-				return apps.get(i);
-			}
+		return index.get(id);
+	}
+
+	/**
+	 * Gets the applications with the given ids in a single pass over the id
+	 * index
+	 * 
+	 * @param ids ids of applications
+	 * @return applications in the order of the ids, with null for ids that have
+	 *         no application
+	 */
+	public Application[] getAppsById(int[] ids) {
+		Application[] output = new Application[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			output[i] = index.get(ids[i]);
 		}
-		return null;
+		return output;
 	}
 
 	/**
 	 * Executes the given command with the corresponding application based on
-	 * application id
+	 * application id. The caller must serialize commands on the application, as
+	 * Application.tryUpdate describes
 	 * 
 	 * @param id      id of application being commanded
 	 * @param command command being executed
 	 */
 	public void executeCommand(int id, Command command) {
-		for (int i = 0; i < apps.size(); i++) {
-			if (apps.get(i).getAppId() == id) {
-				apps.get(i).update(command);
-			}
+		Application app = index.get(id);
+		if (app != null) {
+			app.update(command);
 		}
 	}
 
@@ -144,9 +418,104 @@ public class AppList {
 	 * @param id id of application being deleted
 	 */
 	public void deleteAppById(int id) {
-		for (int i = 0; i < apps.size(); i++) {
-			if (apps.get(i).getAppId() == id) {
-				apps.remove(i);
+		Application app = index.remove(id);
+		if (app != null) {
+			apps.remove(indexOf(id));
+			columns.remove(id);
+			untrack(app);
+			markDirty(id);
+		}
+	}
+
+	/**
+	 * Gets the ids of the applications added, changed or deleted since the list
+	 * was loaded or the ids were last cleared. A deleted id has no application in
+	 * the list
+	 * 
+	 * @return dirty ids in increasing order
+	 */
+	public synchronized int[] getDirtyIds() {
+		return dirtyIds.stream().toArray();
+	}
+
+	/**
+	 * Clears the dirty ids, once every change has been saved
+	 */
+	public synchronized void clearDirtyIds() {
+		dirtyIds.clear();
+	}
+
+	/**
+	 * Marks an application id as dirty
+	 * 
+	 * @param id id of application that was added, changed or deleted
+	 */
+	private synchronized void markDirty(int id) {
+		dirtyIds.set(id);
+	}
+
+	/**
+	 * This class keeps the secondary indexes of the list up to date as the
+	 * finite state machine changes the applications in the list. Each change
+	 * holds the lock of the list, since commands on different applications may
+	 * change the indexes at the same time
+	 * 
+	 * @author Gabe Frain
+	 */
+	private class IndexListener implements AppListener {
+
+		/**
+		 * Moves the application to the set of its new type
+		 * 
+		 * @param app     application that changed
+		 * @param oldType type of the application before the change
+		 * @param newType type of the application after the change
+		 */
+		public void typeChanged(Application app, AppType oldType, AppType newType) {
+			synchronized (AppList.this) {
+				byType.get(oldType).remove(app);
+				byType.get(newType).add(app);
+			}
+		}
+
+		/**
+		 * Moves the application to the set of its new state
+		 * 
+		 * @param app      application that changed
+		 * @param oldState name of the state before the change
+		 * @param newState name of the state after the change
+		 */
+		public void stateChanged(Application app, String oldState, String newState) {
+			synchronized (AppList.this) {
+				byState.get(oldState).remove(app);
+				byState.get(newState).add(app);
+			}
+		}
+
+		/**
+		 * Moves the application to the set of its new reviewer
+		 * 
+		 * @param app         application that changed
+		 * @param oldReviewer reviewer id before the change, or null if there was none
+		 * @param newReviewer reviewer id after the change, or null if there is none
+		 */
+		public void reviewerChanged(Application app, String oldReviewer, String newReviewer) {
+			synchronized (AppList.this) {
+				removeFromReviewer(app, oldReviewer);
+				addToReviewer(app, newReviewer);
+			}
+		}
+
+		/**
+		 * Copies the fields of the application into its row of the columns and
+		 * marks it as dirty
+		 * 
+		 * @param app application that handled a command
+		 */
+		public void updated(Application app) {
+			synchronized (AppList.this) {
+				columns.update(app);
+				dirtyIds.set(app.getAppId());
 			}
 		}
 	}
@@ -1,30 +1,81 @@
 package edu.ncsu.csc216.app_manager.model.manager;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.app_manager.model.application.Application;
 import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
 import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.io.AppJournal;
 import edu.ncsu.csc216.app_manager.model.io.AppReader;
 import edu.ncsu.csc216.app_manager.model.io.AppWriter;
+import edu.ncsu.csc216.app_manager.model.io.NoteSource;
 
 /**
  * This class represents the ApplicationManager. ApplicationManager implements
- * the Singleton design pattern
+ * the Singleton design pattern. Reads are answered from an immutable snapshot
+ * of the application list that is published after each change. Commands on
+ * different applications run at the same time, while commands on the same
+ * application are serialized by a lock stripe chosen by application id. Adding,
+ * deleting, loading and saving applications hold the structure lock for writing,
+ * so they wait for running commands and block new ones. When a journal is open,
+ * every change is appended to it before it is applied
  * 
  * @author Gabe Frain
  */
 public class AppManager {
 
+	/** Number of command lock stripes, a power of two */
+	private static final int STRIPES = 64;
+	/** Largest number of applications a batch task updates without splitting */
+	private static final int BATCH_THRESHOLD = 256;
+
 	/** Single instance of the Application Manager */
 	private static AppManager singleton;
 	/** List of applications */
-	private AppList appList;
+	private volatile AppList appList;
+	/**
+	 * Latest published snapshot of the application list. Every change to the list
+	 * publishes a new snapshot, so readers never lock and never see half of a
+	 * change
+	 */
+	private final AtomicReference<AppSnapshot> snapshot = new AtomicReference<AppSnapshot>();
+	/**
+	 * Lock held for reading by commands and for writing by changes to the
+	 * structure of the list
+	 */
+	private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+	/** Locks that serialize commands on applications whose ids share a stripe */
+	private final Object[] stripes = new Object[STRIPES];
+	/** Journal changes are appended to, or null if no journal is open */
+	private volatile AppJournal journal;
+	/** Name of the snapshot file the open journal replays on top of */
+	private String journalSnapshot;
+	/**
+	 * Name of the file the list was last loaded from or fully saved to, which the
+	 * dirty ids of the list are relative to
+	 */
+	private String savedFile;
+	/** Checksum of the saved file, or -1 if it has not been computed */
+	private long savedChecksum = -1;
+	/**
+	 * Source the notes of the list are still loaded from, or null if every note
+	 * is in memory. It is owned by the list and closed whenever the list is
+	 * replaced
+	 */
+	private NoteSource noteSource;
 
 	/**
 	 * Private constructor of AppManager enforces singleton pattern
 	 */
 	private AppManager() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Object();
+		}
 		createNewAppList();
 	}
 
@@ -49,48 +100,258 @@ public class AppManager {
 	 *                                  file
 	 */
 	public void saveAppsToFile(String fileName) {
-		AppWriter.writeAppsToFile(fileName, appList.getApps());
+		structureLock.writeLock().lock();
+		try {
+			saveAll(fileName);
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Saves the application list to the provided file in the binary format, which
+	 * loadAppsFromFile recognizes. Saving to the snapshot file of the open journal
+	 * truncates the journal
+	 * 
+	 * @param fileName name of file application list is saved to
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public void saveAppsToBinaryFile(String fileName) {
+		structureLock.writeLock().lock();
+		try {
+			loadLazyNotes(fileName);
+			long checksum = AppWriter.writeAppsToBinaryFile(fileName, appList.getApps(), journalSequence(fileName));
+			if (journal != null && fileName.equals(journalSnapshot)) {
+				journal.truncate();
+			}
+			savedFile = fileName;
+			savedChecksum = checksum;
+			appList.clearDirtyIds();
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Saves only the applications added, changed or deleted since the list was
+	 * loaded from or saved to the provided file, by appending them to its delta
+	 * file. The whole list is saved instead if the list was not loaded from or
+	 * saved to the file, or if so much has changed that a full save is cheaper
+	 * 
+	 * @param fileName name of file application list is saved to
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public void saveChangesToFile(String fileName) {
+		structureLock.writeLock().lock();
+		try {
+			if (canSaveChanges(fileName)) {
+				saveChanges(fileName);
+			} else {
+				saveAll(fileName);
+			}
+		} finally {
+			structureLock.writeLock().unlock();
+		}
 	}
 
 	/**
-	 * Loads an application list from the provided file
+	 * Loads an application list from the provided file. The file is parsed in
+	 * chunks in parallel, and readers keep seeing the old list until the new one
+	 * is fully loaded. Any open journal is closed
 	 * 
 	 * @param fileName name of file application list is loaded from
 	 * @throws IllegalArgumentException if any exceptions occur while processing the
 	 *                                  file
 	 */
 	public void loadAppsFromFile(String fileName) {
-		ArrayList<Application> apps = AppReader.readAppsFromFile(fileName);
-		createNewAppList();
-		appList.addApps(apps);
+		loadAppsFromFile(fileName, false);
 	}
 
 	/**
-	 * Creates a new application list
+	 * Loads an application list from the provided file, optionally leaving the
+	 * notes of each application in the file until they are first used. The file
+	 * must not be changed by anything else while the list uses it. Saving the
+	 * whole list over the file loads the remaining notes first
+	 * 
+	 * @param fileName  name of file application list is loaded from
+	 * @param lazyNotes if notes are loaded on first use
+	 * @throws IllegalArgumentException if any exceptions occur while processing the
+	 *                                  file
+	 */
+	public void loadAppsFromFile(String fileName, boolean lazyNotes) {
+		NoteSource source = lazyNotes ? new NoteSource(fileName) : null;
+		AppList list = new AppList();
+		try {
+			list.addApps(lazyNotes ? AppReader.readAppsWithLazyNotes(source) : AppReader.readAppsInParallel(fileName));
+		} catch (IllegalArgumentException e) {
+			if (source != null) {
+				source.close();
+			}
+			throw e;
+		}
+		structureLock.writeLock().lock();
+		try {
+			detachJournal();
+			appList = list;
+			savedFile = fileName;
+			savedChecksum = -1;
+			replaceNoteSource(source);
+			snapshot.set(new AppSnapshot(list));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Creates a new application list. Any open journal is closed
 	 */
 	public void createNewAppList() {
-		appList = new AppList();
+		structureLock.writeLock().lock();
+		try {
+			detachJournal();
+			appList = new AppList();
+			savedFile = null;
+			savedChecksum = -1;
+			replaceNoteSource(null);
+			snapshot.set(new AppSnapshot());
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Opens a journal for the application list. The list is loaded from the
+	 * snapshot file if it exists and is not empty, and the journal records the
+	 * snapshot does not already include are replayed on top of it. Every later
+	 * change is appended to the journal before it is
+	 * applied, and the journal is truncated whenever the list is saved to the
+	 * snapshot file. Records are forced to disk in groups of the given size, or
+	 * after AppJournal.DEFAULT_SYNC_DELAY_MILLIS for a group that is still filling
+	 * 
+	 * @param snapshotFile name of file the list is saved to by AppWriter
+	 * @param journalFile  name of journal file
+	 * @param groupSize    number of records written between syncs to disk
+	 * @throws IllegalArgumentException if either file name is null, groupSize is
+	 *                                  less than 1 or either file cannot be read
+	 */
+	public void openJournal(String snapshotFile, String journalFile, int groupSize) {
+		openJournal(snapshotFile, journalFile, groupSize, AppJournal.DEFAULT_SYNC_DELAY_MILLIS);
+	}
+
+	/**
+	 * Opens a journal for the application list, as openJournal does, with the
+	 * longest time a record waits for its group to fill before it is synced. A
+	 * record cut short at the end of the journal by a crash is removed before any
+	 * record is appended
+	 * 
+	 * @param snapshotFile    name of file the list is saved to by AppWriter
+	 * @param journalFile     name of journal file
+	 * @param groupSize       number of records written between syncs to disk
+	 * @param syncDelayMillis longest time a record waits for its group to fill, in
+	 *                        milliseconds
+	 * @throws IllegalArgumentException if either file name is null, groupSize or
+	 *                                  syncDelayMillis is less than 1 or either
+	 *                                  file cannot be read
+	 */
+	public void openJournal(String snapshotFile, String journalFile, int groupSize, long syncDelayMillis) {
+		if (snapshotFile == null || journalFile == null || groupSize < 1 || syncDelayMillis < 1) {
+			throw new IllegalArgumentException();
+		}
+		AppList list = new AppList();
+		if (new File(snapshotFile).length() > 0) {
+			list.addApps(AppReader.readAppsInParallel(snapshotFile));
+		}
+		JournalReplayer replayer = new JournalReplayer(list, AppReader.readSequence(snapshotFile));
+		long length = AppJournal.replay(journalFile, replayer);
+		AppJournal opened = new AppJournal(journalFile, groupSize, syncDelayMillis, length, replayer.last);
+		structureLock.writeLock().lock();
+		try {
+			detachJournal();
+			appList = list;
+			journal = opened;
+			journalSnapshot = snapshotFile;
+			savedFile = snapshotFile;
+			savedChecksum = -1;
+			replaceNoteSource(null);
+			snapshot.set(new AppSnapshot(list));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Compacts the open journal. The changes since the last compaction are
+	 * appended to the delta file of the journal's snapshot file, or the snapshot
+	 * file is replaced in one step when a full save is cheaper, and then every
+	 * record in the journal is removed. Changes wait while the journal is
+	 * compacted
+	 * 
+	 * @return true if a journal was compacted, false if no journal is open
+	 * @throws IllegalArgumentException if the snapshot cannot be written
+	 */
+	public boolean compactJournal() {
+		structureLock.writeLock().lock();
+		try {
+			if (journal == null) {
+				return false;
+			}
+			compact();
+			return true;
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the size of the open journal
+	 * 
+	 * @return number of bytes in the journal, or 0 if no journal is open
+	 */
+	public long getJournalSize() {
+		AppJournal log = journal;
+		return log == null ? 0 : log.size();
 	}
 
 	/**
-	 * Gets a 2D list of objects based on the application list
+	 * Gets the number of records appended to the open journal since it was opened
+	 * or last compacted
+	 * 
+	 * @return number of records, or 0 if no journal is open
+	 */
+	public long getJournalRecordCount() {
+		AppJournal log = journal;
+		return log == null ? 0 : log.getRecordCount();
+	}
+
+	/**
+	 * Syncs and closes the open journal. Later changes are not journaled
+	 */
+	public void closeJournal() {
+		structureLock.writeLock().lock();
+		try {
+			detachJournal();
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets a 2D list of objects based on the application list. The array comes
+	 * from the latest published snapshot, so it is never changed by later commands
+	 * and must not be modified
 	 * 
 	 * @return 2D array of applications
 	 */
 	public Object[][] getAppListAsArray() {
-		ArrayList<Application> list = appList.getApps();
-		Object[][] output = new Object[list.size()][4];
-		for (int i = 0; i < list.size(); i++) {
-			output[i][0] = list.get(i).getAppId();
-			output[i][1] = list.get(i).getStateName();
-			output[i][2] = list.get(i).getAppType();
-			output[i][3] = list.get(i).getSummary();
-		}
-		return output;
+		return snapshot.get().getRows();
 	}
 
 	/**
-	 * Gets a 2D list of objects based on the application list and application type
+	 * Gets a 2D list of objects based on the application list and application
+	 * type. The array comes from the latest published snapshot, so it is never
+	 * changed by later commands and must not be modified
 	 * 
 	 * @param appType type of application being listed
 	 * @return 2D array of applications based on type
@@ -100,36 +361,219 @@ public class AppManager {
 		if (appType == null) {
 			throw new IllegalArgumentException();
 		}
-		ArrayList<Application> list = appList.getAppsByType(appType);
-		Object[][] output = new Object[list.size()][4];
-		for (int i = 0; i < list.size(); i++) {
-			output[i][0] = list.get(i).getAppId();
-			output[i][1] = list.get(i).getStateName();
-			output[i][2] = list.get(i).getAppType();
-			output[i][3] = list.get(i).getSummary();
+		return snapshot.get().getRowsByAppType(appType);
+	}
+
+	/**
+	 * Gets the number of applications in the application list
+	 * 
+	 * @return number of applications
+	 */
+	public int getAppCount() {
+		return snapshot.get().size();
+	}
+
+	/**
+	 * Gets the number of applications of the given type
+	 * 
+	 * @param appType type of application being counted
+	 * @return number of applications of the type
+	 * @throws IllegalArgumentException if appType is null
+	 */
+	public int getAppCountByAppType(String appType) {
+		if (appType == null) {
+			throw new IllegalArgumentException();
+		}
+		return snapshot.get().countByAppType(appType);
+	}
+
+	/**
+	 * Gets a window of the 2D list of objects based on the application list. Only
+	 * the rows in the window are copied
+	 * 
+	 * @param offset position of the first application in the window
+	 * @param limit  largest number of applications in the window
+	 * @return 2D array of the applications in the window
+	 * @throws IllegalArgumentException if offset or limit is negative
+	 */
+	public Object[][] getAppListPage(int offset, int limit) {
+		if (offset < 0 || limit < 0) {
+			throw new IllegalArgumentException();
 		}
-		return output;
+		return snapshot.get().getPage(offset, limit);
 	}
 
 	/**
-	 * Gets an application by its id
+	 * Gets a window of the 2D list of objects based on the application list and
+	 * application type. Only the rows in the window are copied
+	 * 
+	 * @param appType type of application being listed
+	 * @param offset  position of the first application of the type in the window
+	 * @param limit   largest number of applications in the window
+	 * @return 2D array of the applications of the type in the window
+	 * @throws IllegalArgumentException if appType is null or offset or limit is
+	 *                                  negative
+	 */
+	public Object[][] getAppListPageByAppType(String appType, int offset, int limit) {
+		if (appType == null || offset < 0 || limit < 0) {
+			throw new IllegalArgumentException();
+		}
+		return snapshot.get().getPageByAppType(appType, offset, limit);
+	}
+
+	/**
+	 * Gets immutable views of the applications assigned to the given reviewer.
+	 * The ids are found through the reviewer index of the list, and each is
+	 * resolved to its view in the last published snapshot, so an application
+	 * whose reviewer changed after that snapshot is left out until its change is
+	 * published
+	 * 
+	 * @param reviewer reviewer id
+	 * @return list of views of the applications assigned to the reviewer, ordered
+	 *         by id
+	 * @throws IllegalArgumentException if reviewer is null
+	 */
+	public ArrayList<Application> getAppsByReviewer(String reviewer) {
+		ArrayList<Application> assigned = appList.getAppsByReviewer(reviewer);
+		AppSnapshot current = snapshot.get();
+		ArrayList<Application> views = new ArrayList<Application>(assigned.size());
+		for (Application app : assigned) {
+			Application view = current.getAppById(app.getAppId());
+			if (view != null && reviewer.equals(view.getReviewer())) {
+				views.add(view);
+			}
+		}
+		return views;
+	}
+
+	/**
+	 * Gets an immutable view of an application by its id, as of the last
+	 * published snapshot. Commands must be run through executeCommand, which
+	 * takes the lock stripe of the application
 	 * 
 	 * @param id id of application
-	 * @return application of corresponding id
+	 * @return view of the application of corresponding id
 	 */
 	public Application getAppById(int id) {
-		return appList.getAppById(id);
+		return snapshot.get().getAppById(id);
 	}
 
 	/**
 	 * Executes the given command with the corresponding application based on
-	 * application id
+	 * application id. Commands on applications in different lock stripes run at
+	 * the same time
 	 * 
 	 * @param id      id of application being commanded
 	 * @param command command being executed
 	 */
 	public void executeCommand(int id, Command command) {
-		appList.executeCommand(id, command);
+		structureLock.readLock().lock();
+		try {
+			synchronized (stripeOf(id)) {
+				AppJournal log = journal;
+				if (log != null && appList.getAppById(id) != null) {
+					log.appendExecute(id, command);
+				}
+				try {
+					appList.executeCommand(id, command);
+				} finally {
+					publishUpdated(id);
+				}
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Executes a batch of commands. The command at each position is executed on
+	 * the application with the id at the same position. All ids are resolved in
+	 * one pass, then the applications are updated in parallel on the common
+	 * fork/join pool, while small batches run on the calling thread. Commands on
+	 * the same application run in the order they appear in the batch. A command
+	 * that fails does not stop the rest of the batch, and one snapshot is
+	 * published for the whole batch
+	 * 
+	 * @param ids      ids of applications being commanded
+	 * @param commands commands being executed
+	 * @return result of each command, in the order of the batch
+	 * @throws IllegalArgumentException if either array is null, the arrays have
+	 *                                  different lengths or a command is null
+	 */
+	public CommandResult[] executeCommands(int[] ids, Command[] commands) {
+		checkBatch(ids, commands);
+		// Orders the batch by id and then by position, so each application's
+		// commands form one run that keeps the order of the batch
+		long[] order = new long[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			order[i] = ((long) ids[i] << 32) | i;
+		}
+		Arrays.sort(order);
+		int[] runs = new int[ids.length + 1];
+		int runCount = 0;
+		for (int p = 0; p < order.length; p++) {
+			if (p == 0 || (int) (order[p] >> 32) != (int) (order[p - 1] >> 32)) {
+				runs[runCount++] = p;
+			}
+		}
+		runs[runCount] = order.length;
+		CommandResult[] results = new CommandResult[ids.length];
+		structureLock.readLock().lock();
+		try {
+			Application[] apps = appList.getAppsById(ids);
+			try {
+				new BatchTask(order, runs, 0, runCount, apps, commands, results).invoke();
+			} finally {
+				int[] changed = new int[runCount];
+				int changedCount = 0;
+				for (int r = 0; r < runCount; r++) {
+					int first = (int) order[runs[r]];
+					if (apps[first] != null) {
+						changed[changedCount++] = ids[first];
+					}
+				}
+				publishUpdated(Arrays.copyOf(changed, changedCount));
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+		return results;
+	}
+
+	/**
+	 * Checks a batch of commands without executing them. The command at each
+	 * position is checked in parallel against the current state of the
+	 * application with the id at the same position, holding its lock stripe as
+	 * executeCommand does, and nothing is thrown for a
+	 * command that would be rejected. Each command is checked on its own, so a
+	 * command that depends on an earlier command in the batch for the same
+	 * application may be reported as unsupported
+	 * 
+	 * @param ids      ids of applications being commanded
+	 * @param commands commands being checked
+	 * @return result each command would have, in the order of the batch
+	 * @throws IllegalArgumentException if either array is null, the arrays have
+	 *                                  different lengths or a command is null
+	 */
+	public CommandResult[] validateCommands(int[] ids, Command[] commands) {
+		checkBatch(ids, commands);
+		CommandResult[] results = new CommandResult[ids.length];
+		structureLock.readLock().lock();
+		try {
+			Application[] apps = appList.getAppsById(ids);
+			Arrays.parallelSetAll(results, i -> {
+				if (apps[i] == null) {
+					return CommandResult.UNKNOWN_ID;
+				}
+				// Holds the stripe executeCommand holds, so no command is halfway through
+				synchronized (stripeOf(ids[i])) {
+					return apps[i].canUpdate(commands[i]) ? CommandResult.OK : CommandResult.UNSUPPORTED;
+				}
+			});
+		} finally {
+			structureLock.readLock().unlock();
+		}
+		return results;
 	}
 
 	/**
@@ -138,7 +582,16 @@ public class AppManager {
 	 * @param id id of application being deleted
 	 */
 	public void deleteAppById(int id) {
-		appList.deleteAppById(id);
+		structureLock.writeLock().lock();
+		try {
+			if (journal != null) {
+				journal.appendDelete(id);
+			}
+			appList.deleteAppById(id);
+			snapshot.set(snapshot.get().withRemoved(id));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -150,6 +603,407 @@ public class AppManager {
 	 * @param note    application note
 	 */
 	public void addAppToList(AppType appType, String summary, String note) {
-		appList.addApp(appType, summary, note);
+		structureLock.writeLock().lock();
+		try {
+			if (journal != null) {
+				journal.appendAdd(appList.getNextAppId(), appType, summary, note);
+			}
+			int id = appList.addApp(appType, summary, note);
+			snapshot.set(snapshot.get().withAdded(appList.getAppById(id).getView()));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Checks that a batch of commands is well formed
+	 * 
+	 * @param ids      ids of applications being commanded
+	 * @param commands commands of the batch
+	 * @throws IllegalArgumentException if either array is null, the arrays have
+	 *                                  different lengths or a command is null
+	 */
+	private static void checkBatch(int[] ids, Command[] commands) {
+		if (ids == null || commands == null || ids.length != commands.length) {
+			throw new IllegalArgumentException();
+		}
+		for (Command command : commands) {
+			if (command == null) {
+				throw new IllegalArgumentException();
+			}
+		}
+	}
+
+	/**
+	 * Saves the changes to the snapshot file of the open journal and truncates the
+	 * journal. The structure lock must be held for writing
+	 */
+	private void compact() {
+		if (canSaveChanges(journalSnapshot)) {
+			saveChanges(journalSnapshot);
+		} else {
+			saveAll(journalSnapshot);
+		}
+	}
+
+	/**
+	 * Saves the whole list to a file. The snapshot file of the open journal is
+	 * replaced in one step and the journal is truncated. The structure lock must
+	 * be held for writing
+	 * 
+	 * @param fileName name of file application list is saved to
+	 */
+	private void saveAll(String fileName) {
+		loadLazyNotes(fileName);
+		long checksum;
+		if (journal != null && fileName.equals(journalSnapshot)) {
+			checksum = AppWriter.replaceAppsFile(fileName, appList.getApps(), journal.getSequence());
+			journal.truncate();
+		} else {
+			checksum = AppWriter.writeAppsToFile(fileName, appList.getApps());
+		}
+		savedFile = fileName;
+		savedChecksum = checksum;
+		appList.clearDirtyIds();
+	}
+
+	/**
+	 * Loads every note still left in the file the list was loaded from, before
+	 * that file is written over
+	 * 
+	 * @param fileName name of file application list is saved to
+	 */
+	private void loadLazyNotes(String fileName) {
+		if (noteSource != null && new File(fileName).getAbsoluteFile()
+				.equals(new File(noteSource.getFileName()).getAbsoluteFile())) {
+			for (Application app : appList.getApps()) {
+				app.getNotes();
+			}
+			replaceNoteSource(null);
+		}
+	}
+
+	/**
+	 * Closes the note source of the list being replaced or fully loaded, which
+	 * still holds its file open if some of its notes were never loaded, and
+	 * keeps the note source of the new list. The structure lock must be held for
+	 * writing
+	 * 
+	 * @param source source the notes of the new list are loaded from, or null
+	 */
+	private void replaceNoteSource(NoteSource source) {
+		if (noteSource != null) {
+			noteSource.close();
+		}
+		noteSource = source;
+	}
+
+	/**
+	 * Checks if the changes to the list can be saved to the delta file of a file.
+	 * The file must be the one the dirty ids are relative to, and saving the
+	 * changes must be cheaper than saving the whole list and keep the delta file
+	 * smaller than the file
+	 * 
+	 * @param fileName name of file application list is saved to
+	 * @return true if the changes can be saved to the delta file
+	 */
+	private boolean canSaveChanges(String fileName) {
+		if (fileName == null || !fileName.equals(savedFile)) {
+			return false;
+		}
+		long length = new File(fileName).length();
+		long deltaLength = new File(AppWriter.getDeltaFileName(fileName)).length();
+		return length > 0 && deltaLength * 2 < length
+				&& (long) appList.getDirtyIds().length * 4 <= appList.getApps().size();
+	}
+
+	/**
+	 * Appends the applications added, changed or deleted since the last save to
+	 * the delta file of a file. Saving to the snapshot file of the open journal
+	 * truncates the journal. The structure lock must be held for writing
+	 * 
+	 * @param fileName name of file application list is saved to
+	 */
+	private void saveChanges(String fileName) {
+		int[] ids = appList.getDirtyIds();
+		ArrayList<Application> changed = new ArrayList<Application>();
+		int[] deleted = new int[ids.length];
+		int deletedCount = 0;
+		for (int id : ids) {
+			Application app = appList.getAppById(id);
+			if (app == null) {
+				deleted[deletedCount++] = id;
+			} else {
+				changed.add(app);
+			}
+		}
+		if (savedChecksum < 0) {
+			try {
+				savedChecksum = AppWriter.checksum(fileName);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		}
+		AppWriter.writeChangesToFile(fileName, changed, Arrays.copyOf(deleted, deletedCount), savedChecksum,
+				journalSequence(fileName));
+		if (journal != null && fileName.equals(journalSnapshot)) {
+			journal.truncate();
+		}
+		appList.clearDirtyIds();
+	}
+
+	/**
+	 * Gets the sequence number of the last journal record that a save to a file
+	 * includes. The structure lock must be held for writing
+	 * 
+	 * @param fileName name of file application list is saved to
+	 * @return sequence number of the last record of the open journal if the file
+	 *         is its snapshot file, or 0
+	 */
+	private long journalSequence(String fileName) {
+		return journal != null && fileName.equals(journalSnapshot) ? journal.getSequence() : 0;
+	}
+
+	/**
+	 * Syncs and closes the open journal, if any. The structure lock must be held
+	 * for writing
+	 */
+	private void detachJournal() {
+		if (journal != null) {
+			AppJournal closing = journal;
+			journal = null;
+			journalSnapshot = null;
+			closing.close();
+		}
+	}
+
+	/**
+	 * Gets the lock stripe of an application id. Consecutive ids fall in
+	 * different stripes
+	 * 
+	 * @param id id of application
+	 * @return lock of the stripe
+	 */
+	private Object stripeOf(int id) {
+		return stripes[id & (STRIPES - 1)];
+	}
+
+	/**
+	 * Publishes a snapshot with new views of the given applications. Commands in
+	 * other stripes may publish at the same time, so the new snapshot is derived
+	 * from the latest one, and the views are taken again if another snapshot was
+	 * published first. The structure lock must be held
+	 * 
+	 * @param ids ids of the applications that changed
+	 */
+	private void publishUpdated(int... ids) {
+		AppSnapshot current;
+		AppSnapshot next;
+		do {
+			current = snapshot.get();
+			next = current.withUpdated(viewsOf(ids));
+		} while (next != current && !snapshot.compareAndSet(current, next));
+	}
+
+	/**
+	 * Takes an immutable view of each of the given applications, holding its lock
+	 * stripe so no command is halfway through it
+	 * 
+	 * @param ids ids of applications
+	 * @return view of each application, or null where there is none
+	 */
+	private Application[] viewsOf(int[] ids) {
+		Application[] apps = appList.getAppsById(ids);
+		Application[] views = new Application[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			if (apps[i] != null) {
+				synchronized (stripeOf(ids[i])) {
+					views[i] = apps[i].getView();
+				}
+			}
+		}
+		return views;
+	}
+
+	/**
+	 * This class executes the commands of a range of applications in a batch,
+	 * splitting the range in half until it is small enough to run directly
+	 * 
+	 * @author Gabe Frain
+	 */
+	private class BatchTask extends RecursiveAction {
+
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** Positions of the batch ordered by id, with the id in the high bits */
+		private final long[] order;
+		/** Start of each application's run in the ordered positions */
+		private final int[] runs;
+		/** First run of the task */
+		private final int from;
+		/** Run after the last run of the task */
+		private final int to;
+		/** Applications at each position of the batch */
+		private final Application[] apps;
+		/** Commands at each position of the batch */
+		private final Command[] commands;
+		/** Results at each position of the batch */
+		private final CommandResult[] results;
+
+		/**
+		 * Constructs a task for a range of runs
+		 * 
+		 * @param order    positions of the batch ordered by id
+		 * @param runs     start of each run in the ordered positions
+		 * @param from     first run of the task
+		 * @param to       run after the last run of the task
+		 * @param apps     applications at each position
+		 * @param commands commands at each position
+		 * @param results  results at each position
+		 */
+		BatchTask(long[] order, int[] runs, int from, int to, Application[] apps, Command[] commands,
+				CommandResult[] results) {
+			this.order = order;
+			this.runs = runs;
+			this.from = from;
+			this.to = to;
+			this.apps = apps;
+			this.commands = commands;
+			this.results = results;
+		}
+
+		/**
+		 * Executes the runs of the task, splitting them between two tasks if there
+		 * are too many
+		 */
+		protected void compute() {
+			if (to - from <= BATCH_THRESHOLD) {
+				for (int r = from; r < to; r++) {
+					executeRun(runs[r], runs[r + 1]);
+				}
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new BatchTask(order, runs, from, mid, apps, commands, results),
+						new BatchTask(order, runs, mid, to, apps, commands, results));
+			}
+		}
+
+		/**
+		 * Executes the commands of one application in batch order while holding
+		 * the lock stripe of the application
+		 * 
+		 * @param start first ordered position of the run
+		 * @param end   ordered position after the run
+		 */
+		private void executeRun(int start, int end) {
+			Application app = apps[(int) order[start]];
+			if (app == null) {
+				for (int p = start; p < end; p++) {
+					results[(int) order[p]] = CommandResult.UNKNOWN_ID;
+				}
+				return;
+			}
+			AppJournal log = journal;
+			synchronized (stripeOf(app.getAppId())) {
+				for (int p = start; p < end; p++) {
+					int i = (int) order[p];
+					if (log != null) {
+						log.appendExecute(app.getAppId(), commands[i]);
+					}
+					results[i] = app.tryUpdate(commands[i]) ? CommandResult.OK : CommandResult.UNSUPPORTED;
+				}
+			}
+		}
+	}
+
+	/**
+	 * This class applies the records of a journal to an application list as the
+	 * journal is replayed. Records the snapshot already includes are skipped, as
+	 * are records that no longer apply, such as commands on deleted applications.
+	 * The list is not published until the replay is done, so the replaying thread
+	 * is the only one that can reach its applications and updates them without
+	 * taking their lock stripes
+	 * 
+	 * @author Gabe Frain
+	 */
+	private static class JournalReplayer implements AppJournal.Replayer {
+
+		/** List the records are applied to */
+		private final AppList list;
+		/** Sequence number of the last record the snapshot includes */
+		private final long included;
+		/** Largest sequence number seen, or the included one if larger */
+		private long last;
+
+		/**
+		 * Constructs a replayer for the given list
+		 * 
+		 * @param list     list the records are applied to
+		 * @param included sequence number of the last record the snapshot includes
+		 */
+		JournalReplayer(AppList list, long included) {
+			this.list = list;
+			this.included = included;
+			this.last = included;
+		}
+
+		/**
+		 * Checks if a record is not already in the snapshot, and notes its sequence
+		 * number
+		 * 
+		 * @param sequence sequence number of the record
+		 * @return true if the record must be applied
+		 */
+		private boolean applies(long sequence) {
+			last = Math.max(last, sequence);
+			return sequence > included;
+		}
+
+		/**
+		 * Executes a command on the application with the given id, if there is one
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 * @param command  command executed
+		 */
+		public void execute(long sequence, int id, Command command) {
+			Application app = applies(sequence) ? list.getAppById(id) : null;
+			if (app != null) {
+				app.tryUpdate(command);
+			}
+		}
+
+		/**
+		 * Adds an application with the given id, unless the list already has it or
+		 * the application is not valid
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of the new application
+		 * @param appType  type of application
+		 * @param summary  summary of application
+		 * @param note     application note
+		 */
+		public void add(long sequence, int id, AppType appType, String summary, String note) {
+			if (!applies(sequence)) {
+				return;
+			}
+			try {
+				list.addApp(id, appType, summary, note);
+			} catch (IllegalArgumentException e) {
+				// The application was never added
+			}
+		}
+
+		/**
+		 * Deletes the application with the given id
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 */
+		public void delete(long sequence, int id) {
+			if (applies(sequence)) {
+				list.deleteAppById(id);
+			}
+		}
 	}
 }
@@ -0,0 +1,548 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+
+/**
+ * This class is an immutable snapshot of an application list. It holds an
+ * immutable view of each application and its table row in id order, along with
+ * the entries of each application type. A snapshot is never changed once it is
+ * built. Entries are kept in chunks, and changes to the list are published as a
+ * new snapshot that copies only the chunks that changed and shares every other
+ * chunk with the snapshot it was derived from, so readers can use a snapshot
+ * without locking while writers build the next one
+ *
+ * @author Gabe Frain
+ */
+public class AppSnapshot {
+
+	/** Number of application types */
+	private static final int TYPES = 3;
+	/** Number of entries in each chunk of a new snapshot */
+	private static final int CHUNK_SIZE = 64;
+
+	/** Entries of every application, in id order */
+	private final Chunks entries;
+	/** Entries of the applications of each type code, in id order */
+	private final Chunks[] entriesByType;
+	/** Table rows of every application, or null until they are first read */
+	private volatile Object[][] rows;
+	/** Table rows of each type code, or null until they are first read */
+	private volatile Object[][][] rowsByType;
+
+	/**
+	 * Constructs an empty snapshot
+	 */
+	public AppSnapshot() {
+		this(Chunks.EMPTY, new Chunks[] { Chunks.EMPTY, Chunks.EMPTY, Chunks.EMPTY });
+	}
+
+	/**
+	 * Constructs a snapshot of every application in the list. The caller must be
+	 * the only thread that can run commands on the list
+	 *
+	 * @param list application list being copied
+	 */
+	public AppSnapshot(AppList list) {
+		ArrayList<Entry> all = new ArrayList<Entry>();
+		ArrayList<ArrayList<Entry>> byType = new ArrayList<ArrayList<Entry>>();
+		for (int t = 0; t < TYPES; t++) {
+			byType.add(new ArrayList<Entry>());
+		}
+		for (Application app : list.getApps()) {
+			Entry entry = new Entry(app.getView(), null);
+			all.add(entry);
+			byType.get(entry.type()).add(entry);
+		}
+		entries = Chunks.of(all);
+		entriesByType = new Chunks[TYPES];
+		for (int t = 0; t < TYPES; t++) {
+			entriesByType[t] = Chunks.of(byType.get(t));
+		}
+	}
+
+	/**
+	 * Constructs a snapshot from its parts
+	 *
+	 * @param entries       entries of every application
+	 * @param entriesByType entries of each type code
+	 */
+	private AppSnapshot(Chunks entries, Chunks[] entriesByType) {
+		this.entries = entries;
+		this.entriesByType = entriesByType;
+	}
+
+	/**
+	 * Gets the number of applications in the snapshot
+	 *
+	 * @return number of applications
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the immutable view of an application by its id
+	 *
+	 * @param id id of application
+	 * @return view of the application with corresponding id, or null if there is
+	 *         none
+	 */
+	public Application getAppById(int id) {
+		Entry entry = entries.find(id);
+		return entry == null ? null : entry.app;
+	}
+
+	/**
+	 * Gets the table rows of every application. The array is built the first time
+	 * it is read, is shared by every reader of the snapshot and must not be
+	 * modified
+	 *
+	 * @return 2D array of applications
+	 */
+	public Object[][] getRows() {
+		Object[][] output = rows;
+		if (output == null) {
+			output = entries.rows(0, entries.size());
+			rows = output;
+		}
+		return output;
+	}
+
+	/**
+	 * Gets the table rows of the applications of the given type. The array is
+	 * built the first time it is read, is shared by every reader of the snapshot
+	 * and must not be modified
+	 *
+	 * @param appType type of application being listed
+	 * @return 2D array of applications of the type
+	 */
+	public Object[][] getRowsByAppType(String appType) {
+		int type = Application.appTypeCode(appType);
+		if (type < 0) {
+			return new Object[0][];
+		}
+		Object[][][] output = rowsByType;
+		if (output == null) {
+			output = new Object[TYPES][][];
+			for (int t = 0; t < TYPES; t++) {
+				output[t] = entriesByType[t].rows(0, entriesByType[t].size());
+			}
+			rowsByType = output;
+		}
+		return output[type];
+	}
+
+	/**
+	 * Counts the applications of the given type
+	 *
+	 * @param appType type of application being counted
+	 * @return number of applications of the type
+	 */
+	public int countByAppType(String appType) {
+		int type = Application.appTypeCode(appType);
+		return type < 0 ? 0 : entriesByType[type].size();
+	}
+
+	/**
+	 * Gets a window of the table rows of every application
+	 *
+	 * @param offset position of the first application in the window
+	 * @param limit  largest number of applications in the window
+	 * @return 2D array of the applications in the window
+	 */
+	public Object[][] getPage(int offset, int limit) {
+		return page(entries, offset, limit);
+	}
+
+	/**
+	 * Gets a window of the table rows of the applications of the given type
+	 *
+	 * @param appType type of application being listed
+	 * @param offset  position of the first application of the type in the window
+	 * @param limit   largest number of applications in the window
+	 * @return 2D array of the applications of the type in the window
+	 */
+	public Object[][] getPageByAppType(String appType, int offset, int limit) {
+		int type = Application.appTypeCode(appType);
+		return type < 0 ? new Object[0][] : page(entriesByType[type], offset, limit);
+	}
+
+	/**
+	 * Derives a snapshot in which the given views replace the entries of their
+	 * applications. Only the chunks holding those entries are copied, and every
+	 * other chunk is shared with this snapshot
+	 *
+	 * @param views immutable views of the applications that changed, where a null
+	 *              view is skipped
+	 * @return snapshot with the changed entries
+	 */
+	public AppSnapshot withUpdated(Application... views) {
+		Chunks newEntries = entries;
+		Chunks[] newEntriesByType = entriesByType;
+		for (Application view : views) {
+			Entry oldEntry = view == null ? null : newEntries.find(view.getAppId());
+			if (oldEntry == null) {
+				continue;
+			}
+			Entry newEntry = new Entry(view, oldEntry.row[0]);
+			if (newEntriesByType == entriesByType) {
+				newEntriesByType = entriesByType.clone();
+			}
+			newEntries = newEntries.with(newEntry);
+			int oldType = oldEntry.type();
+			int newType = newEntry.type();
+			if (oldType != newType) {
+				newEntriesByType[oldType] = newEntriesByType[oldType].without(newEntry.id);
+			}
+			newEntriesByType[newType] = newEntriesByType[newType].with(newEntry);
+		}
+		if (newEntries == entries) {
+			return this;
+		}
+		return new AppSnapshot(newEntries, newEntriesByType);
+	}
+
+	/**
+	 * Derives a snapshot with an application added. Only the chunks the entry is
+	 * added to are copied
+	 *
+	 * @param view immutable view of the application being added
+	 * @return snapshot with the application
+	 */
+	public AppSnapshot withAdded(Application view) {
+		if (entries.find(view.getAppId()) != null) {
+			return this;
+		}
+		Entry entry = new Entry(view, null);
+		Chunks[] newEntriesByType = entriesByType.clone();
+		newEntriesByType[entry.type()] = entriesByType[entry.type()].with(entry);
+		return new AppSnapshot(entries.with(entry), newEntriesByType);
+	}
+
+	/**
+	 * Derives a snapshot with an application removed. Only the chunks the entry is
+	 * removed from are copied
+	 *
+	 * @param id id of application being removed
+	 * @return snapshot without the application
+	 */
+	public AppSnapshot withRemoved(int id) {
+		Entry entry = entries.find(id);
+		if (entry == null) {
+			return this;
+		}
+		Chunks[] newEntriesByType = entriesByType.clone();
+		newEntriesByType[entry.type()] = entriesByType[entry.type()].without(id);
+		return new AppSnapshot(entries.without(id), newEntriesByType);
+	}
+
+	/**
+	 * Copies a window of table rows
+	 *
+	 * @param chunks entries in id order
+	 * @param offset position of the first row in the window
+	 * @param limit  largest number of rows in the window
+	 * @return rows in the window
+	 */
+	private static Object[][] page(Chunks chunks, int offset, int limit) {
+		int start = Math.min(offset, chunks.size());
+		int end = (int) Math.min(chunks.size(), (long) offset + limit);
+		return chunks.rows(start, end);
+	}
+
+	/**
+	 * This class is the immutable view of an application and its table row
+	 *
+	 * @author Gabe Frain
+	 */
+	private static class Entry {
+
+		/** Id of the application */
+		private final int id;
+		/** Immutable view of the application */
+		private final Application app;
+		/** Table row of the application */
+		private final Object[] row;
+
+		/**
+		 * Constructs the entry of a view, with its table row built from the view
+		 *
+		 * @param app   immutable view of the application
+		 * @param boxed boxed id to reuse in the row, or null to box the id
+		 */
+		Entry(Application app, Object boxed) {
+			this.id = app.getAppId();
+			this.app = app;
+			this.row = new Object[] { boxed != null ? boxed : Integer.valueOf(id), app.getStateName(),
+					app.getAppType(), app.getSummary() };
+		}
+
+		/**
+		 * Gets the type code of the application
+		 *
+		 * @return type code of the application
+		 */
+		int type() {
+			return Application.appTypeCode((String) row[2]);
+		}
+	}
+
+	/**
+	 * This class is an immutable sequence of entries in id order, split into
+	 * chunks of between one and twice CHUNK_SIZE entries. Deriving a sequence
+	 * with one entry changed copies only the chunk holding it and the array of
+	 * chunks, so a change costs the number of chunks rather than the number of
+	 * entries
+	 *
+	 * @author Gabe Frain
+	 */
+	private static class Chunks {
+
+		/** Sequence with no entries */
+		static final Chunks EMPTY = new Chunks(new Entry[0][]);
+
+		/** Chunks of entries, in id order */
+		private final Entry[][] chunks;
+		/** Position after the last entry of each chunk */
+		private final int[] ends;
+
+		/**
+		 * Constructs a sequence of chunks and computes where each chunk ends
+		 *
+		 * @param chunks chunks of entries
+		 */
+		Chunks(Entry[][] chunks) {
+			this(chunks, endsOf(chunks));
+		}
+
+		/**
+		 * Constructs a sequence of chunks that end at the given positions
+		 *
+		 * @param chunks chunks of entries
+		 * @param ends   position after the last entry of each chunk
+		 */
+		private Chunks(Entry[][] chunks, int[] ends) {
+			this.chunks = chunks;
+			this.ends = ends;
+		}
+
+		/**
+		 * Splits entries in id order into chunks of CHUNK_SIZE
+		 *
+		 * @param entries entries in id order
+		 * @return sequence of the entries
+		 */
+		static Chunks of(ArrayList<Entry> entries) {
+			Entry[][] chunks = new Entry[(entries.size() + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+			for (int c = 0; c < chunks.length; c++) {
+				int start = c * CHUNK_SIZE;
+				chunks[c] = entries.subList(start, Math.min(entries.size(), start + CHUNK_SIZE))
+						.toArray(new Entry[0]);
+			}
+			return new Chunks(chunks);
+		}
+
+		/**
+		 * Gets the number of entries
+		 *
+		 * @return number of entries
+		 */
+		int size() {
+			return ends.length == 0 ? 0 : ends[ends.length - 1];
+		}
+
+		/**
+		 * Finds an entry by id
+		 *
+		 * @param id id of application
+		 * @return entry with the id, or null if there is none
+		 */
+		Entry find(int id) {
+			if (chunks.length == 0) {
+				return null;
+			}
+			Entry[] chunk = chunks[chunkOf(id)];
+			int index = indexOf(chunk, id);
+			return index < 0 ? null : chunk[index];
+		}
+
+		/**
+		 * Derives a sequence in which the entry replaces the entry with its id, or
+		 * is inserted in id order. A chunk that grows past twice CHUNK_SIZE is
+		 * split in two
+		 *
+		 * @param entry entry being set
+		 * @return sequence with the entry
+		 */
+		Chunks with(Entry entry) {
+			if (chunks.length == 0) {
+				return new Chunks(new Entry[][] { { entry } });
+			}
+			int c = chunkOf(entry.id);
+			Entry[] chunk = chunks[c];
+			int index = indexOf(chunk, entry.id);
+			if (index >= 0) {
+				Entry[][] newChunks = chunks.clone();
+				newChunks[c] = chunk.clone();
+				newChunks[c][index] = entry;
+				return new Chunks(newChunks, ends);
+			}
+			index = -(index + 1);
+			Entry[] grown = new Entry[chunk.length + 1];
+			System.arraycopy(chunk, 0, grown, 0, index);
+			grown[index] = entry;
+			System.arraycopy(chunk, index, grown, index + 1, chunk.length - index);
+			if (grown.length <= 2 * CHUNK_SIZE) {
+				Entry[][] newChunks = chunks.clone();
+				newChunks[c] = grown;
+				return new Chunks(newChunks);
+			}
+			Entry[][] newChunks = new Entry[chunks.length + 1][];
+			System.arraycopy(chunks, 0, newChunks, 0, c);
+			newChunks[c] = Arrays.copyOfRange(grown, 0, CHUNK_SIZE);
+			newChunks[c + 1] = Arrays.copyOfRange(grown, CHUNK_SIZE, grown.length);
+			System.arraycopy(chunks, c + 1, newChunks, c + 2, chunks.length - c - 1);
+			return new Chunks(newChunks);
+		}
+
+		/**
+		 * Derives a sequence without the entry with the given id. A chunk left
+		 * empty is dropped
+		 *
+		 * @param id id of application
+		 * @return sequence without the entry, or this sequence if there is none
+		 */
+		Chunks without(int id) {
+			if (chunks.length == 0) {
+				return this;
+			}
+			int c = chunkOf(id);
+			Entry[] chunk = chunks[c];
+			int index = indexOf(chunk, id);
+			if (index < 0) {
+				return this;
+			}
+			Entry[][] newChunks;
+			if (chunk.length == 1) {
+				newChunks = new Entry[chunks.length - 1][];
+				System.arraycopy(chunks, 0, newChunks, 0, c);
+				System.arraycopy(chunks, c + 1, newChunks, c, newChunks.length - c);
+			} else {
+				newChunks = chunks.clone();
+				newChunks[c] = new Entry[chunk.length - 1];
+				System.arraycopy(chunk, 0, newChunks[c], 0, index);
+				System.arraycopy(chunk, index + 1, newChunks[c], index, chunk.length - index - 1);
+			}
+			return new Chunks(newChunks);
+		}
+
+		/**
+		 * Copies the table rows of the entries between two positions
+		 *
+		 * @param start position of the first entry
+		 * @param end   position after the last entry
+		 * @return table rows of the entries
+		 */
+		Object[][] rows(int start, int end) {
+			Object[][] output = new Object[Math.max(0, end - start)][];
+			if (output.length == 0) {
+				return output;
+			}
+			int c = chunkAt(start);
+			int index = start - (c == 0 ? 0 : ends[c - 1]);
+			for (int i = 0; i < output.length; i++) {
+				if (index == chunks[c].length) {
+					c++;
+					index = 0;
+				}
+				output[i] = chunks[c][index++].row;
+			}
+			return output;
+		}
+
+		/**
+		 * Finds the chunk that holds an id, or would hold it if it were inserted.
+		 * There must be at least one chunk
+		 *
+		 * @param id id of application
+		 * @return first chunk whose last id is not less than the id, or the last
+		 *         chunk if there is none
+		 */
+		private int chunkOf(int id) {
+			int low = 0;
+			int high = chunks.length - 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				Entry[] chunk = chunks[mid];
+				if (chunk[chunk.length - 1].id < id) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Finds the chunk that holds a position
+		 *
+		 * @param position position of an entry
+		 * @return first chunk that ends after the position
+		 */
+		private int chunkAt(int position) {
+			int low = 0;
+			int high = ends.length - 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (ends[mid] <= position) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Finds the position of an id in a chunk
+		 *
+		 * @param chunk entries ordered by id
+		 * @param id    id being searched for
+		 * @return position of the entry, or (-(insertion point) - 1) if there is none
+		 */
+		private static int indexOf(Entry[] chunk, int id) {
+			int low = 0;
+			int high = chunk.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (chunk[mid].id < id) {
+					low = mid + 1;
+				} else if (chunk[mid].id > id) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+
+		/**
+		 * Computes the position after the last entry of each chunk
+		 *
+		 * @param chunks chunks of entries
+		 * @return position after the last entry of each chunk
+		 */
+		private static int[] endsOf(Entry[][] chunks) {
+			int[] ends = new int[chunks.length];
+			int end = 0;
+			for (int c = 0; c < chunks.length; c++) {
+				end += chunks[c].length;
+				ends[c] = end;
+			}
+			return ends;
+		}
+	}
+}
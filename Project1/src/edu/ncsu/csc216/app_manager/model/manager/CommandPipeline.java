@@ -0,0 +1,307 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.ncsu.csc216.app_manager.model.command.Command;
+
+/**
+ * This class feeds commands to the application manager through a preallocated
+ * ring buffer. Any number of producers publish (id, command) events into the
+ * ring, and a single writer thread drains the published events in batches and
+ * executes each batch in publish order. Producers never touch the applications,
+ * and the only coordination between them is claiming a sequence number. When
+ * the ring is full, producers wait for the writer to free a slot
+ *
+ * @author Gabe Frain
+ */
+public class CommandPipeline implements AutoCloseable {
+
+	/** Largest number of events the writer executes as one batch */
+	private static final int MAX_BATCH = 256;
+	/** Time an idle thread parks for with the park wait strategy */
+	private static final long PARK_NANOS = 50_000L;
+
+	/**
+	 * This enumeration represents the ways a thread can wait for the ring when it
+	 * has nothing to do
+	 */
+	public enum WaitStrategy {
+		/** Spins on the processor, for the lowest latency at the cost of a core */
+		BUSY_SPIN,
+		/** Yields the processor to other threads between checks */
+		YIELD,
+		/** Parks the thread for a short time between checks */
+		PARK
+	}
+
+	/** Manager the commands are executed by */
+	private final AppManager manager;
+	/** Way idle threads wait */
+	private final WaitStrategy waitStrategy;
+	/** Number of slots minus one, used to find the slot of a sequence */
+	private final int mask;
+	/** Application ids of the events in each slot */
+	private final int[] ids;
+	/** Commands of the events in each slot */
+	private final Command[] commands;
+	/** Sequence of the event last published in each slot */
+	private final AtomicLongArray published;
+	/** Last sequence claimed by a producer */
+	private final AtomicLong claimed = new AtomicLong(-1);
+	/** Last sequence drained by the writer */
+	private volatile long consumed = -1;
+	/** If the writer should keep waiting for new events */
+	private volatile boolean running;
+	/** Writer thread, or null if the pipeline has not been started */
+	private Thread writer;
+	/** Number of events drained by the writer */
+	private volatile long drainedCount;
+	/** Number of drained events that were not executed */
+	private volatile long failedCount;
+	/** Number of batches drained by the writer */
+	private volatile long batchCount;
+	/** Time taken to execute the last batch, in nanoseconds */
+	private volatile long lastDrainNanos;
+	/** Total time taken to execute every batch, in nanoseconds */
+	private volatile long totalDrainNanos;
+
+	/**
+	 * Constructs a pipeline for the given manager. The capacity is rounded up to
+	 * a power of two
+	 *
+	 * @param manager      manager the commands are executed by
+	 * @param capacity     number of events the ring holds
+	 * @param waitStrategy way idle threads wait
+	 * @throws IllegalArgumentException if manager or waitStrategy is null or the
+	 *                                  capacity is not between 1 and 2^30
+	 */
+	public CommandPipeline(AppManager manager, int capacity, WaitStrategy waitStrategy) {
+		if (manager == null || waitStrategy == null || capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException();
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size = size << 1;
+		}
+		this.manager = manager;
+		this.waitStrategy = waitStrategy;
+		mask = size - 1;
+		ids = new int[size];
+		commands = new Command[size];
+		published = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			published.set(i, -1);
+		}
+	}
+
+	/**
+	 * Gets the number of events the ring holds
+	 *
+	 * @return capacity of the ring
+	 */
+	public int getCapacity() {
+		return ids.length;
+	}
+
+	/**
+	 * Starts the writer thread
+	 *
+	 * @throws IllegalStateException if the pipeline has already been started
+	 */
+	public synchronized void start() {
+		if (writer != null) {
+			throw new IllegalStateException();
+		}
+		running = true;
+		writer = new Thread(this::drain, "app-command-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Publishes a command for the application with the given id. Waits for a free
+	 * slot if the ring is full
+	 *
+	 * @param id      id of application being commanded
+	 * @param command command being executed
+	 * @throws IllegalArgumentException if command is null
+	 * @throws IllegalStateException    if the pipeline is not running
+	 */
+	public void publish(int id, Command command) {
+		if (command == null) {
+			throw new IllegalArgumentException();
+		}
+		if (!running) {
+			throw new IllegalStateException();
+		}
+		long sequence = claimed.incrementAndGet();
+		while (sequence - ids.length > consumed) {
+			idle();
+		}
+		int slot = (int) sequence & mask;
+		ids[slot] = id;
+		commands[slot] = command;
+		published.lazySet(slot, sequence);
+	}
+
+	/**
+	 * Waits until every event published so far has been drained
+	 */
+	public void awaitDrained() {
+		long target = claimed.get();
+		while (consumed < target) {
+			idle();
+		}
+	}
+
+	/**
+	 * Stops the writer once every published event has been drained, and waits
+	 * for it to finish. Producers must stop publishing before the pipeline is
+	 * closed
+	 */
+	public void close() {
+		Thread thread;
+		synchronized (this) {
+			running = false;
+			thread = writer;
+		}
+		if (thread != null) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of events published but not yet drained
+	 *
+	 * @return depth of the queue
+	 */
+	public long getQueueDepth() {
+		return Math.max(0, claimed.get() - consumed);
+	}
+
+	/**
+	 * Gets the number of events drained by the writer
+	 *
+	 * @return number of drained events
+	 */
+	public long getDrainedCount() {
+		return drainedCount;
+	}
+
+	/**
+	 * Gets the number of drained events that were not executed, because the
+	 * command was not appropriate for the application or no application had the
+	 * id
+	 *
+	 * @return number of failed events
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * Gets the number of batches drained by the writer
+	 *
+	 * @return number of batches
+	 */
+	public long getBatchCount() {
+		return batchCount;
+	}
+
+	/**
+	 * Gets the time taken to execute the last batch
+	 *
+	 * @return drain latency of the last batch, in nanoseconds
+	 */
+	public long getLastDrainLatencyNanos() {
+		return lastDrainNanos;
+	}
+
+	/**
+	 * Gets the average time taken to execute a batch
+	 *
+	 * @return average drain latency, in nanoseconds
+	 */
+	public long getAverageDrainLatencyNanos() {
+		long batches = batchCount;
+		return batches == 0 ? 0 : totalDrainNanos / batches;
+	}
+
+	/**
+	 * Drains published events until the pipeline is closed and the ring is empty.
+	 * Runs on the writer thread
+	 */
+	private void drain() {
+		int[] batchIds = new int[Math.min(ids.length, MAX_BATCH)];
+		Command[] batchCommands = new Command[batchIds.length];
+		long next = consumed + 1;
+		while (running || next <= claimed.get()) {
+			int count = 0;
+			while (count < batchIds.length && published.get((int) (next + count) & mask) == next + count) {
+				int slot = (int) (next + count) & mask;
+				batchIds[count] = ids[slot];
+				batchCommands[count] = commands[slot];
+				commands[slot] = null;
+				count++;
+			}
+			if (count == 0) {
+				idle();
+				continue;
+			}
+			execute(Arrays.copyOf(batchIds, count), Arrays.copyOf(batchCommands, count));
+			Arrays.fill(batchCommands, 0, count, null);
+			next += count;
+			consumed = next - 1;
+		}
+	}
+
+	/**
+	 * Executes one batch of events and records its latency and failures
+	 *
+	 * @param batchIds      ids of the batch
+	 * @param batchCommands commands of the batch
+	 */
+	private void execute(int[] batchIds, Command[] batchCommands) {
+		int failures = 0;
+		long start = System.nanoTime();
+		try {
+			for (CommandResult result : manager.executeCommands(batchIds, batchCommands)) {
+				if (result != CommandResult.OK) {
+					failures++;
+				}
+			}
+		} catch (RuntimeException e) {
+			failures = batchIds.length;
+		}
+		long elapsed = System.nanoTime() - start;
+		lastDrainNanos = elapsed;
+		totalDrainNanos = totalDrainNanos + elapsed;
+		batchCount = batchCount + 1;
+		failedCount = failedCount + failures;
+		drainedCount = drainedCount + batchIds.length;
+	}
+
+	/**
+	 * Waits once using the wait strategy of the pipeline
+	 */
+	private void idle() {
+		switch (waitStrategy) {
+		case BUSY_SPIN:
+			Thread.onSpinWait();
+			break;
+		case YIELD:
+			Thread.yield();
+			break;
+		default:
+			LockSupport.parkNanos(PARK_NANOS);
+			break;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+/**
+ * This enumeration represents the outcome of one command in a batch of
+ * commands executed by the application manager
+ *
+ * @author Gabe Frain
+ */
+public enum CommandResult {
+	/** The command was executed */
+	OK,
+	/** The command is not appropriate for the state of the application */
+	UNSUPPORTED,
+	/** No application has the id of the command */
+	UNKNOWN_ID
+}
@@ -0,0 +1,184 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * This class compacts the journal of the application manager in the
+ * background. A scheduled task checks the journal at a fixed interval and
+ * compacts it once it has grown past a number of bytes, holds a number of
+ * records or has gone a length of time since the last compaction. Each
+ * compaction replaces the snapshot file with the current list and empties the
+ * journal, so a restart only loads the snapshot and replays a short journal
+ *
+ * @author Gabe Frain
+ */
+public class JournalCompactor implements AutoCloseable {
+
+	/** Manager whose journal is compacted */
+	private final AppManager manager;
+	/** Compaction run when a trigger is reached, true if the journal was compacted */
+	private final BooleanSupplier compaction;
+	/** Journal size that triggers a compaction, or 0 for no size trigger */
+	private final long maxBytes;
+	/** Record count that triggers a compaction, or 0 for no count trigger */
+	private final long maxRecords;
+	/** Time between compactions of a journal with records, or 0 for no time trigger */
+	private final long maxAgeNanos;
+	/** Time between checks of the journal, in milliseconds */
+	private final long checkIntervalMillis;
+	/** Executor the checks run on, or null if the compactor has not been started */
+	private ScheduledExecutorService executor;
+	/** Time of the last compaction, from System.nanoTime */
+	private volatile long lastCompaction;
+	/** Number of compactions */
+	private volatile long compactionCount;
+	/** Number of compactions that failed */
+	private volatile long failedCount;
+	/** Time taken by the last compaction, in nanoseconds */
+	private volatile long lastCompactionNanos;
+
+	/**
+	 * Constructs a compactor for the given manager. A trigger of 0 is turned off
+	 *
+	 * @param manager             manager whose journal is compacted
+	 * @param maxBytes            journal size that triggers a compaction
+	 * @param maxRecords          record count that triggers a compaction
+	 * @param maxAgeMillis        time after the last compaction that triggers a
+	 *                            compaction of a journal with records
+	 * @param checkIntervalMillis time between checks of the journal
+	 * @throws IllegalArgumentException if manager is null, a trigger is negative,
+	 *                                  every trigger is off or the interval is not
+	 *                                  positive
+	 */
+	public JournalCompactor(AppManager manager, long maxBytes, long maxRecords, long maxAgeMillis,
+			long checkIntervalMillis) {
+		this(manager, manager == null ? null : manager::compactJournal, maxBytes, maxRecords, maxAgeMillis,
+				checkIntervalMillis);
+	}
+
+	/**
+	 * Constructs a compactor for the given manager that runs the given compaction
+	 * when a trigger is reached. A trigger of 0 is turned off
+	 *
+	 * @param manager             manager whose journal is checked
+	 * @param compaction          compaction of the journal, true if it compacted
+	 * @param maxBytes            journal size that triggers a compaction
+	 * @param maxRecords          record count that triggers a compaction
+	 * @param maxAgeMillis        time after the last compaction that triggers a
+	 *                            compaction of a journal with records
+	 * @param checkIntervalMillis time between checks of the journal
+	 * @throws IllegalArgumentException if manager or compaction is null, a trigger
+	 *                                  is negative, every trigger is off or the
+	 *                                  interval is not positive
+	 */
+	JournalCompactor(AppManager manager, BooleanSupplier compaction, long maxBytes, long maxRecords,
+			long maxAgeMillis, long checkIntervalMillis) {
+		if (manager == null || compaction == null || maxBytes < 0 || maxRecords < 0 || maxAgeMillis < 0 || checkIntervalMillis < 1
+				|| maxBytes == 0 && maxRecords == 0 && maxAgeMillis == 0) {
+			throw new IllegalArgumentException();
+		}
+		this.manager = manager;
+		this.compaction = compaction;
+		this.maxBytes = maxBytes;
+		this.maxRecords = maxRecords;
+		this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+		this.checkIntervalMillis = checkIntervalMillis;
+		lastCompaction = System.nanoTime();
+	}
+
+	/**
+	 * Starts checking the journal on a background thread
+	 *
+	 * @throws IllegalStateException if the compactor has already been started
+	 */
+	public synchronized void start() {
+		if (executor != null) {
+			throw new IllegalStateException();
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "app-journal-compactor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops checking the journal and waits for a running compaction to finish
+	 */
+	public void close() {
+		ScheduledExecutorService running;
+		synchronized (this) {
+			running = executor;
+		}
+		if (running != null) {
+			running.shutdown();
+			try {
+				running.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Checks the journal once and compacts it if a trigger has been reached. A
+	 * compaction that fails with any runtime exception is counted and retried at
+	 * the next check, so one failure never cancels the scheduled checks
+	 *
+	 * @return true if the journal was compacted
+	 */
+	public synchronized boolean check() {
+		long records = manager.getJournalRecordCount();
+		boolean due = maxBytes > 0 && manager.getJournalSize() >= maxBytes
+				|| maxRecords > 0 && records >= maxRecords
+				|| maxAgeNanos > 0 && records > 0 && System.nanoTime() - lastCompaction >= maxAgeNanos;
+		if (!due) {
+			return false;
+		}
+		long start = System.nanoTime();
+		try {
+			if (!compaction.getAsBoolean()) {
+				return false;
+			}
+		} catch (RuntimeException e) {
+			failedCount = failedCount + 1;
+			return false;
+		}
+		lastCompaction = System.nanoTime();
+		lastCompactionNanos = lastCompaction - start;
+		compactionCount = compactionCount + 1;
+		return true;
+	}
+
+	/**
+	 * Gets the number of compactions
+	 *
+	 * @return number of compactions
+	 */
+	public long getCompactionCount() {
+		return compactionCount;
+	}
+
+	/**
+	 * Gets the number of compactions that failed
+	 *
+	 * @return number of failed compactions
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * Gets the time taken by the last compaction
+	 *
+	 * @return duration of the last compaction, in nanoseconds
+	 */
+	public long getLastCompactionNanos() {
+		return lastCompactionNanos;
+	}
+}
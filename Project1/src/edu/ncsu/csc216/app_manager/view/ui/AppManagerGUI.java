@@ -346,11 +346,13 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			} else if (e.getSource() == btnDeleteApp) {
 				//If the delete button is clicked, delete the application
 				int row = appsTable.getSelectedRow();
-				if (row == -1 || row >= appTableModel.getRowCount()) {
+				//The row may be past the end of the list if applications were deleted
+				Object id = row == -1 ? null : appTableModel.getValueAt(row, 0);
+				if (id == null || row >= appTableModel.getRowCount()) {
 					JOptionPane.showMessageDialog(AppManagerGUI.this, "No application selected.");
 				} else {
 					try {
-						int appId = Integer.parseInt(appTableModel.getValueAt(row, 0).toString());
+						int appId = Integer.parseInt(id.toString());
 						AppManager.getInstance().deleteAppById(appId);
 					} catch (NumberFormatException nfe ) {
 						JOptionPane.showMessageDialog(AppManagerGUI.this, "No application selected.");
@@ -360,11 +362,13 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			} else if (e.getSource() == btnEditApp) {
 				//If the edit button is clicked, switch panel based on state
 				int row = appsTable.getSelectedRow();
-				if (row == -1) {
+				//The row may be past the end of the list if applications were deleted
+				Object id = row == -1 ? null : appTableModel.getValueAt(row, 0);
+				if (id == null) {
 					JOptionPane.showMessageDialog(AppManagerGUI.this, "No application selected.");
 				} else {
 					try {
-						int appId = Integer.parseInt(appTableModel.getValueAt(row, 0).toString());
+						int appId = Integer.parseInt(id.toString());
 						String stateName = AppManager.getInstance().getAppById(appId).getStateName();
 						if (stateName.equals(Application.REFCHK_NAME)) {
 							cardLayout.show(panel, REFCHECK_PANEL);
@@ -417,7 +421,9 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 		
 		/**
 		 * ApplicationTableModel is the object underlying the JTable object that displays
-		 * the list of Applications to the user.
+		 * the list of Applications to the user. The model is virtual: it asks the
+		 * ApplicationManager for the number of rows and only fetches the page of rows
+		 * that the table is currently showing.
 		 * @author Dr. Sarah Heckman (sarah_heckman@ncsu.edu)
 		 * @author Dr. Chandrika Satyavolu (jsatyav@ncsu.edu)
 		 */
@@ -425,10 +431,16 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
+			/** Number of rows fetched from the ApplicationManager at a time */
+			private static final int PAGE_SIZE = 100;
 			/** Column names for the table */
 			private String [] columnNames = {"Application ID", "Application State", "Application Type", "Application Summary"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Application type shown in the table, or null for all applications */
+			private String appType;
+			/** Page of data currently fetched for the table */
+			private Object [][] page;
+			/** Row of the table where the fetched page starts */
+			private int pageStart;
 			
 			/**
 			 * Constructs the ApplicationTableModel by requesting the latest information
@@ -451,9 +463,10 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
-				if (data == null) 
-					return 0;
-				return data.length;
+				AppManager m = AppManager.getInstance();
+				if (appType == null) 
+					return m.getAppCount();
+				return m.getAppCountByAppType(appType);
 			}
 			
 			/**
@@ -472,28 +485,62 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
+				Object [] data = getRow(row);
 				if (data == null)
 					return null;
-				return data[row][col];
+				return data[col];
 			}
 			
 			/**
-			 * Sets the given value to the given {row, col} location.
+			 * Returns false, since the table is read only.
+			 * @param row index of row
+			 * @param col index of column
+			 * @return false for every cell.
+			 */
+			public boolean isCellEditable(int row, int col) {
+				return false;
+			}
+			
+			/**
+			 * Does nothing, since the rows are shared with every reader of the
+			 * ApplicationManager's snapshot and must not be modified. Applications
+			 * are changed through the panels of their states.
 			 * @param value Object to modify in the data.
 			 * @param row location to modify the data.
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
-				fireTableCellUpdated(row, col);
+				//The table is read only
+			}
+			
+			/**
+			 * Returns the row at the given index, fetching the page that holds the row
+			 * from the ApplicationManager if it is not the current page.
+			 * @param row index of row
+			 * @return the data in the row, or null if there is no such row.
+			 */
+			private Object [] getRow(int row) {
+				if (page == null || row < pageStart || row >= pageStart + page.length) {
+					AppManager m = AppManager.getInstance();
+					pageStart = row - row % PAGE_SIZE;
+					if (appType == null) {
+						page = m.getAppListPage(pageStart, PAGE_SIZE);
+					} else {
+						page = m.getAppListPageByAppType(appType, pageStart, PAGE_SIZE);
+					}
+				}
+				if (row < pageStart || row >= pageStart + page.length)
+					return null;
+				return page[row - pageStart];
 			}
 			
 			/**
 			 * Updates the given model with Application information from the ApplicationManager.
 			 */
 			private void updateAppData() {
-				AppManager m = AppManager.getInstance();
-				data = m.getAppListAsArray();
+				appType = null;
+				page = null;
+				fireTableDataChanged();
 			}
 			
 			/**
@@ -502,16 +549,13 @@ public class AppManagerGUI extends JFrame implements ActionListener {
 			 * @param appType application type to search for.
 			 */
 			private void updateAppDataByType(AppType appType) {
-				try {
-					AppManager m = AppManager.getInstance();
-					if (appType == AppType.NEW) {
-						data = m.getAppListAsArrayByAppType("New");
-					} else if(appType == AppType.OLD) {
-						data = m.getAppListAsArrayByAppType("Old");
-					}
-				} catch (IllegalArgumentException e) {
-					JOptionPane.showMessageDialog(AppManagerGUI.this, e.getMessage());
+				if (appType == AppType.NEW) {
+					this.appType = Application.A_NEW;
+				} else if(appType == AppType.OLD) {
+					this.appType = Application.A_OLD;
 				}
+				page = null;
+				fireTableDataChanged();
 			}
 		}
 	}
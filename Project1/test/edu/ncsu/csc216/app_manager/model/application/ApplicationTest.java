@@ -3,9 +3,17 @@ package edu.ncsu.csc216.app_manager.model.application;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
@@ -116,6 +124,91 @@ public class ApplicationTest {
 	/** Reopen Application */
 	private static final Command REOPEN_APP_REV = new Command(REOPEN_COMMAND, NRID, REV_COMPLETED, COMMAND_NOTE);
 
+	/**
+	 * Tests the codes of states, types and resolutions
+	 */
+	@Test
+	public void testCodes() {
+		String[] states = { REVIEW_NAME, INTERVIEW_NAME, WAITLIST_NAME, REFCHK_NAME, OFFER_NAME, CLOSED_NAME };
+		for (int i = 0; i < states.length; i++) {
+			assertEquals(i, Application.stateCode(states[i]));
+			assertEquals(states[i], Application.stateName(i));
+		}
+		String[] types = { A_NEW, A_OLD, A_HIRED };
+		for (int i = 0; i < types.length; i++) {
+			assertEquals(i, Application.appTypeCode(types[i]));
+			assertEquals(types[i], Application.appTypeName(i));
+		}
+		String[] resolutions = { null, R_REVCOMPLETED, R_INTCOMPLETED, R_REFCHKCOMPLETED, R_OFFERCOMPLETED };
+		for (int i = 0; i < resolutions.length; i++) {
+			assertEquals(i, Application.resolutionCode(resolutions[i]));
+			assertEquals(resolutions[i], Application.resolutionName(i));
+		}
+
+		// Unknown names and codes
+		assertEquals(-1, Application.stateCode("Unknown"));
+		assertEquals(-1, Application.appTypeCode(null));
+		assertEquals(-1, Application.resolutionCode("Unknown"));
+		assertThrows(IllegalArgumentException.class, () -> Application.stateName(6));
+		assertThrows(IllegalArgumentException.class, () -> Application.appTypeName(-1));
+		assertThrows(IllegalArgumentException.class, () -> Application.resolutionName(5));
+	}
+
+	/**
+	 * Tests the setListener method
+	 */
+	@Test
+	public void testSetListener() {
+		ArrayList<String> changes = new ArrayList<String>();
+		ArrayList<Integer> updates = new ArrayList<Integer>();
+		Application app = new Application(FIRST_ID, NEW_APP_TYPE, SUMMARY, COMMAND_NOTE);
+		app.setListener(new Application.AppListener() {
+			public void typeChanged(Application changed, AppType oldType, AppType newType) {
+				changes.add(changed.getAppId() + ":" + oldType + "->" + newType);
+			}
+
+			public void stateChanged(Application changed, String oldState, String newState) {
+				changes.add(changed.getAppId() + ":" + oldState + "->" + newState);
+			}
+
+			public void reviewerChanged(Application changed, String oldReviewer, String newReviewer) {
+				changes.add(changed.getAppId() + ":" + oldReviewer + "->" + newReviewer);
+			}
+
+			public void updated(Application changed) {
+				updates.add(changed.getAppId());
+			}
+		});
+
+		// Review to Interview changes the reviewer, the state and the type from new
+		// to old
+		app.update(ACCEPT_APP);
+		assertEquals(3, changes.size());
+		assertEquals("1:null->ghfrain", changes.get(0));
+		assertEquals("1:Review->Interview", changes.get(1));
+		assertEquals("1:NEW->OLD", changes.get(2));
+
+		// Interview to RefCheck keeps the type and the reviewer
+		app.update(ACCEPT_APP);
+		assertEquals(4, changes.size());
+		assertEquals("1:Interview->RefCheck", changes.get(3));
+		assertEquals(2, updates.size());
+
+		// Unsupported commands change nothing and are not reported
+		assertThrows(UnsupportedOperationException.class, () -> app.update(REOPEN_APP_REV));
+		assertEquals(false, app.tryUpdate(REOPEN_APP_REV));
+		assertEquals(4, changes.size());
+		assertEquals(2, updates.size());
+
+		// Removed listeners are not notified
+		app.setListener(null);
+		app.update(ACCEPT_APP);
+		app.update(ACCEPT_APP);
+		assertEquals(A_HIRED, app.getAppType());
+		assertEquals(4, changes.size());
+		assertEquals(2, updates.size());
+	}
+
 	/**
 	 * Tests the both Application Constructors
 	 */
@@ -151,6 +244,253 @@ public class ApplicationTest {
 		assertEquals("Application cannot be created.", e2.getMessage());
 	}
 
+	/**
+	 * Tests that the large constructor accepts only consistent combinations of
+	 * state, type, resolution, processed flag and reviewer
+	 */
+	@Test
+	public void testApplicationValidation() {
+		Application waitlistApp = new Application(FIRST_ID, WAITLIST_NAME, A_NEW, SUMMARY, NRID, false, R_REVCOMPLETED,
+				NOTES_PRACTICE);
+		assertAll(() -> assertEquals(WAITLIST_NAME, waitlistApp.getStateName()),
+				() -> assertEquals(A_NEW, waitlistApp.getAppType()),
+				() -> assertEquals(R_REVCOMPLETED, waitlistApp.getResolution()));
+		Application offerApp = new Application(FIRST_ID, OFFER_NAME, A_OLD, SUMMARY, RID, true, "Unknown",
+				NOTES_PRACTICE);
+		assertAll(() -> assertEquals(null, offerApp.getResolution()), () -> assertEquals(true, offerApp.isProcessed()),
+				() -> assertEquals(RID, offerApp.getReviewer()));
+		Application closedApp = new Application(FIRST_ID, CLOSED_NAME, A_HIRED, SUMMARY, "", true, R_OFFERCOMPLETED,
+				NOTES_PRACTICE);
+		assertEquals(NRID, closedApp.getReviewer());
+
+		// Interview, reference check and offer need a reviewer and no resolution
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, INTERVIEW_NAME, A_OLD, SUMMARY, NRID, false, null, NOTES_PRACTICE));
+		assertThrows(IllegalArgumentException.class, () -> new Application(FIRST_ID, REFCHK_NAME, A_OLD, SUMMARY,
+				RID, true, R_REFCHKCOMPLETED, NOTES_PRACTICE));
+		// New applications cannot be past review
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, OFFER_NAME, A_NEW, SUMMARY, RID, true, null, NOTES_PRACTICE));
+		assertThrows(IllegalArgumentException.class, () -> new Application(FIRST_ID, CLOSED_NAME, A_NEW, SUMMARY,
+				RID, false, R_INTCOMPLETED, NOTES_PRACTICE));
+		// Paperwork must match the state
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, REFCHK_NAME, A_OLD, SUMMARY, RID, false, null, NOTES_PRACTICE));
+		assertThrows(IllegalArgumentException.class, () -> new Application(FIRST_ID, WAITLIST_NAME, A_OLD, SUMMARY,
+				RID, true, R_REVCOMPLETED, NOTES_PRACTICE));
+		// Unknown states and types
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, "Unknown", A_OLD, SUMMARY, RID, false, null, NOTES_PRACTICE));
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, REVIEW_NAME, "Unknown", SUMMARY, NRID, false, null, NOTES_PRACTICE));
+	}
+
+	/**
+	 * Tests the isValidRecord method
+	 */
+	@Test
+	public void testIsValidRecord() {
+		assertEquals(true,
+				Application.isValidRecord(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null, NOTES_PRACTICE));
+		assertEquals(true, Application.isValidRecord(FIRST_ID, CLOSED_NAME, A_OLD, SUMMARY, RID, false,
+				R_INTCOMPLETED, NOTES_PRACTICE));
+		assertEquals(false,
+				Application.isValidRecord(NULL_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null, NOTES_PRACTICE));
+		assertEquals(false,
+				Application.isValidRecord(FIRST_ID, REVIEW_NAME, A_NEW, E_SUMMARY, NRID, false, null, NOTES_PRACTICE));
+		assertEquals(false, Application.isValidRecord(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null,
+				new ArrayList<String>()));
+		assertEquals(false, Application.isValidRecord(FIRST_ID, null, A_NEW, SUMMARY, NRID, false, null, NOTES));
+		assertEquals(false,
+				Application.isValidRecord(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, RID, false, null, NOTES_PRACTICE));
+		assertEquals(false, Application.isValidRecord(FIRST_ID, OFFER_NAME, A_OLD, SUMMARY, RID, false, null,
+				NOTES_PRACTICE));
+	}
+
+	/**
+	 * Tests the table of valid records against every combination of fields the
+	 * finite state machine can reach from a new application. Each reached
+	 * application must be valid, so it can be saved and loaded again, and the
+	 * state names are compared by value
+	 */
+	@Test
+	public void testValidRecordsMatchReachableStates() {
+		String[] reviewers = { null, "bob", "amy" };
+		Resolution[] resolutions = { null, Resolution.REVCOMPLETED, Resolution.INTCOMPLETED,
+				Resolution.REFCHKCOMPLETED, Resolution.OFFERCOMPLETED };
+		ArrayDeque<Application> queue = new ArrayDeque<Application>();
+		HashSet<String> seen = new HashSet<String>();
+		for (AppType type : AppType.values()) {
+			queue.add(new Application(FIRST_ID, type, SUMMARY, COMMAND_NOTE));
+		}
+		while (!queue.isEmpty()) {
+			Application app = queue.poll();
+			String state = new String(app.getStateName());
+			assertEquals(true, Application.isValidHeader(FIRST_ID, state, app.getAppType(), SUMMARY,
+					app.getReviewer(), app.isProcessed(), app.getResolution()), app.toString());
+			if (!seen.add(state + "," + app.getAppType() + "," + app.getReviewer() + "," + app.isProcessed() + ","
+					+ app.getResolution())) {
+				continue;
+			}
+			for (CommandValue value : CommandValue.values()) {
+				for (String reviewer : reviewers) {
+					for (Resolution resolution : resolutions) {
+						if (!Command.isValid(value, reviewer, resolution, COMMAND_NOTE)) {
+							continue;
+						}
+						Application next = new Application(FIRST_ID, state, app.getAppType(), SUMMARY,
+								app.getReviewer(), app.isProcessed(), app.getResolution(),
+								new ArrayList<String>(app.getNotes()));
+						if (next.tryUpdate(new Command(value, reviewer, resolution, COMMAND_NOTE))) {
+							queue.add(next);
+						}
+					}
+				}
+			}
+		}
+		assertEquals(true, seen.size() > 10);
+
+		// The rules the transitions keep are part of the table
+		assertEquals(false, Application.isValidHeader(FIRST_ID, new String(REVIEW_NAME), A_OLD, SUMMARY, RID,
+				false, null));
+		assertEquals(false, Application.isValidHeader(FIRST_ID, new String(WAITLIST_NAME), A_OLD, SUMMARY, NRID,
+				false, R_INTCOMPLETED));
+		assertEquals(true, Application.isValidHeader(FIRST_ID, new String(WAITLIST_NAME), A_OLD, SUMMARY, NRID,
+				false, R_REVCOMPLETED));
+	}
+
+	/**
+	 * Tests the application constructor with lazy notes
+	 */
+	@Test
+	public void testApplicationWithLazyNotes() {
+		int[] loads = new int[1];
+		Supplier<ArrayList<String>> loader = () -> {
+			loads[0]++;
+			return new ArrayList<String>(NOTES_PRACTICE);
+		};
+		Application app = new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null, loader);
+		assertEquals(REVIEW_NAME, app.getStateName());
+		assertEquals(0, loads[0]);
+		assertEquals(NOTES_PRACTICE, app.getNotes());
+		assertEquals("-Practice Note\n", app.getNotesString());
+		assertEquals(1, loads[0]);
+
+		// A command adds its note after the loaded notes
+		Application lazy = new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null, loader);
+		lazy.update(ACCEPT_APP);
+		assertEquals(2, loads[0]);
+		assertEquals(Arrays.asList("Practice Note", "[Interview] " + COMMAND_NOTE), lazy.getNotes());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null,
+						(Supplier<ArrayList<String>>) null));
+		assertThrows(IllegalArgumentException.class,
+				() -> new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, RID, false, null, loader));
+		assertEquals(true, Application.isValidHeader(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null));
+		assertEquals(false, Application.isValidHeader(FIRST_ID, OFFER_NAME, A_OLD, SUMMARY, RID, false, null));
+		assertEquals(2, loads[0]);
+	}
+
+	/**
+	 * Tests that a view keeps the fields and notes the application had when it
+	 * was taken, and rejects every change
+	 */
+	@Test
+	public void testGetView() {
+		ArrayList<String> notes = new ArrayList<String>(Arrays.asList("First Note"));
+		Application app = new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, null, false, null,
+				new ArrayList<String>(notes));
+		Application view = app.getView();
+		assertEquals(true, view.isView());
+		assertEquals(false, app.isView());
+		assertEquals(view, view.getView());
+		assertEquals(app.toString(), view.toString());
+		app.update(ACCEPT_APP);
+		assertAll(() -> assertEquals(REVIEW_NAME, view.getStateName()),
+				() -> assertEquals(A_NEW, view.getAppType()), () -> assertEquals(null, view.getReviewer()),
+				() -> assertEquals(notes, view.getNotes()),
+				() -> assertEquals(INTERVIEW_NAME, app.getStateName()),
+				() -> assertEquals(2, app.getNotes().size()));
+		view.getNotes().add("Changed");
+		assertEquals(notes, view.getNotes());
+		assertThrows(UnsupportedOperationException.class, () -> view.update(ACCEPT_APP));
+		assertThrows(UnsupportedOperationException.class, () -> view.tryUpdate(ACCEPT_APP));
+		assertThrows(UnsupportedOperationException.class, () -> view.setState(CLOSED_NAME));
+		assertThrows(UnsupportedOperationException.class, () -> view.setAppId(SECOND_ID));
+		assertThrows(UnsupportedOperationException.class, () -> view.setListener(null));
+
+		// Lazy notes are loaded once for the application and its views
+		int[] loads = new int[1];
+		Application lazy = new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null, () -> {
+			loads[0]++;
+			return new ArrayList<String>(NOTES_PRACTICE);
+		});
+		Application lazyView = lazy.getView();
+		lazy.update(ACCEPT_APP);
+		assertEquals(NOTES_PRACTICE, lazyView.getNotes());
+		assertEquals(Arrays.asList("Practice Note", "[Interview] " + COMMAND_NOTE), lazy.getNotes());
+		assertEquals(1, loads[0]);
+	}
+
+	/**
+	 * Tests that writeTo writes what toString returns
+	 * 
+	 * @throws IOException if an application cannot be written
+	 */
+	@Test
+	public void testWriteTo() throws IOException {
+		ArrayList<String> notes = new ArrayList<String>(Arrays.asList("First Note", "Second Note\r\nmore"));
+		Application app = new Application(FIRST_ID, CLOSED_NAME, A_OLD, SUMMARY, RID, false, R_INTCOMPLETED, notes);
+		String expected = "*1,Closed,Old,Application summary,ghfrain,false,InterviewCompleted\r\n-First Note\n"
+				+ "-Second Note\r\nmore\n";
+		assertEquals(expected, app.toString());
+		assertEquals("-First Note\n-Second Note\r\nmore\n", app.getNotesString());
+		StringBuilder out = new StringBuilder();
+		app.writeTo(out);
+		assertEquals(expected, out.toString());
+		out.setLength(0);
+		app.writeTo(out, false);
+		assertEquals(expected.substring(0, expected.length() - 1), out.toString());
+
+		Application reviewApp = new Application(SECOND_ID, REVIEW_NAME, A_NEW, SUMMARY, NRID, false, null,
+				new ArrayList<String>(Arrays.asList("First Note")));
+		StringWriter writer = new StringWriter();
+		reviewApp.writeTo(writer);
+		assertEquals("*2,Review,New,Application summary,null,false,\r\n-First Note\n", writer.toString());
+		assertEquals(writer.toString(), reviewApp.toString());
+	}
+
+	/**
+	 * Tests the canUpdate and tryUpdate methods
+	 */
+	@Test
+	public void testTryUpdate() {
+		Application reviewApp = new Application(FIRST_ID, REVIEW_NAME, A_OLD, SUMMARY, NRID, false, null, NOTES);
+		assertEquals(true, reviewApp.canUpdate(ACCEPT_APP));
+		assertEquals(false, reviewApp.canUpdate(STANDBY_APP));
+		assertEquals(false, reviewApp.canUpdate(REOPEN_APP_REV));
+		assertEquals(false, reviewApp.tryUpdate(STANDBY_APP));
+		assertEquals(REVIEW_NAME, reviewApp.getStateName());
+		assertEquals(true, reviewApp.tryUpdate(ACCEPT_APP));
+		assertEquals(INTERVIEW_NAME, reviewApp.getStateName());
+
+		// Reopening into reference check needs a reviewer, and a rejected command
+		// leaves the application unchanged
+		Application waitlistApp = new Application(FIRST_ID, WAITLIST_NAME, A_OLD, SUMMARY, RID, false,
+				R_INTCOMPLETED, NOTES_PRACTICE);
+		assertEquals(false, waitlistApp.canUpdate(REOPEN_APP_REV));
+		assertThrows(UnsupportedOperationException.class, () -> waitlistApp.update(REOPEN_APP_REV));
+		assertAll(() -> assertEquals(RID, waitlistApp.getReviewer()),
+				() -> assertEquals(WAITLIST_NAME, waitlistApp.getStateName()),
+				() -> assertEquals(R_INTCOMPLETED, waitlistApp.getResolution()));
+		assertEquals(true, waitlistApp.canUpdate(REOPEN_APP_INT));
+
+		Application closedApp = new Application(FIRST_ID, CLOSED_NAME, A_OLD, SUMMARY, RID, false, R_REVCOMPLETED,
+				NOTES_PRACTICE);
+		assertEquals(false, closedApp.canUpdate(REOPEN_APP_REV));
+	}
+
 	/**
 	 * Tests the setAppId method
 	 */
@@ -409,6 +749,13 @@ public class ApplicationTest {
 		assertAll(() -> assertEquals(RID, offerRejApp.getReviewer()),
 				() -> assertEquals(R_OFFERCOMPLETED, offerRejApp.getResolution()),
 				() -> assertEquals(CLOSED_NAME, offerRejApp.getStateName()));
+		Application offerStaApp = new Application(FIRST_ID, OFFER_NAME, A_OLD, SUMMARY, RID, true, null, NOTES);
+		Exception ose = assertThrows(UnsupportedOperationException.class, () -> offerStaApp.update(STANDBY_APP));
+		assertEquals("Invalid information.", ose.getMessage());
+		Exception ore = assertThrows(UnsupportedOperationException.class, () -> offerStaApp.update(REOPEN_APP_INT));
+		assertEquals("Invalid information.", ore.getMessage());
+		assertAll(() -> assertEquals(null, offerStaApp.getResolution()),
+				() -> assertEquals(OFFER_NAME, offerStaApp.getStateName()));
 	}
 
 	/**
@@ -429,4 +776,61 @@ public class ApplicationTest {
 				() -> assertEquals(null, closedApp.getResolution()),
 				() -> assertEquals(REVIEW_NAME, closedApp.getStateName()));
 	}
+
+	/**
+	 * Tests that the states and transitions shared by every application hold no
+	 * state of their own, so applications in the same state can be updated on
+	 * different threads at once
+	 * 
+	 * @throws ReflectiveOperationException if the shared fields cannot be read
+	 * @throws InterruptedException         if the test is interrupted
+	 */
+	@Test
+	public void testSharedStatesAreStateless() throws ReflectiveOperationException, InterruptedException {
+		Class<?> stateClass = Arrays.stream(Application.class.getDeclaredClasses())
+				.filter(c -> "State".equals(c.getSimpleName())).findFirst().get();
+		for (Field field : stateClass.getDeclaredFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				assertTrue(Modifier.isFinal(field.getModifiers()), field.getName());
+				assertEquals(String.class, field.getType(), field.getName());
+			}
+		}
+		Field table = Application.class.getDeclaredField("TRANSITIONS");
+		assertTrue(Modifier.isStatic(table.getModifiers()) && Modifier.isFinal(table.getModifiers()));
+		table.setAccessible(true);
+		for (Object[] row : (Object[][]) table.get(null)) {
+			for (Object transition : row) {
+				if (transition != null) {
+					for (Field field : transition.getClass().getDeclaredFields()) {
+						assertTrue(Modifier.isStatic(field.getModifiers()), field.getName());
+					}
+				}
+			}
+		}
+
+		// Each thread owns its applications, which share the same state instances
+		Thread[] threads = new Thread[4];
+		String[] failures = new String[threads.length];
+		for (int t = 0; t < threads.length; t++) {
+			int thread = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					Application app = new Application(FIRST_ID, REVIEW_NAME, A_NEW, SUMMARY, null, false, null,
+							new ArrayList<String>(NOTES));
+					app.update(i % 2 == 0 ? ACCEPT_APP : REJECT_APP);
+					String expected = i % 2 == 0 ? INTERVIEW_NAME : CLOSED_NAME;
+					if (!expected.equals(app.getStateName())) {
+						failures[thread] = app.getStateName();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (String failure : failures) {
+			assertEquals(null, failure);
+		}
+	}
 }
@@ -83,4 +83,20 @@ public class CommandTest {
 		assertEquals("Invalid information.", ene.getMessage());
 	}
 
+	/**
+	 * Tests the isValid method
+	 */
+	@Test
+	public void testIsValid() {
+		assertEquals(true, Command.isValid(C, RID, R, NOTE));
+		assertEquals(true, Command.isValid(RC, NRID, R, NOTE));
+		assertEquals(false, Command.isValid(NC, RID, R, NOTE));
+		assertEquals(false, Command.isValid(C, NRID, R, NOTE));
+		assertEquals(false, Command.isValid(C, ERID, R, NOTE));
+		assertEquals(false, Command.isValid(SC, RID, NR, NOTE));
+		assertEquals(false, Command.isValid(RC, RID, NR, NOTE));
+		assertEquals(false, Command.isValid(C, RID, R, NNOTE));
+		assertEquals(false, Command.isValid(C, RID, R, ENOTE));
+	}
+
 }
@@ -0,0 +1,298 @@
+package edu.ncsu.csc216.app_manager.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+import edu.ncsu.csc216.app_manager.model.command.Command.Resolution;
+
+/**
+ * Tests the Application Journal Class
+ * 
+ * @author Gabe Frain
+ */
+public class AppJournalTest {
+
+	/** Summary String */
+	private static final String SUMMARY = "Great work\n\u00fcber";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+	/** Reviewer Id */
+	private static final String RID = "ghfrain";
+	/** Accept Command */
+	private static final Command ACCEPT = new Command(CommandValue.ACCEPT, RID, null, NOTE);
+	/** Reject Command */
+	private static final Command REJECT = new Command(CommandValue.REJECT, null, Resolution.REVCOMPLETED, NOTE);
+
+	/**
+	 * This class records each replayed record as a line of text
+	 * 
+	 * @author Gabe Frain
+	 */
+	private static class Recorder implements AppJournal.Replayer {
+
+		/** Replayed records */
+		private final ArrayList<String> records = new ArrayList<String>();
+		/** Sequence numbers of the replayed records */
+		private final ArrayList<Long> sequences = new ArrayList<Long>();
+
+		/**
+		 * Records a command
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 * @param command  command executed
+		 */
+		public void execute(long sequence, int id, Command command) {
+			sequences.add(sequence);
+			records.add("execute " + id + " " + command.getCommand() + " " + command.getReviewerId() + " "
+					+ command.getResolution() + " " + command.getNote());
+		}
+
+		/**
+		 * Records an addition
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of the new application
+		 * @param appType  type of application
+		 * @param summary  summary of application
+		 * @param note     application note
+		 */
+		public void add(long sequence, int id, AppType appType, String summary, String note) {
+			sequences.add(sequence);
+			records.add("add " + id + " " + appType + " " + summary + " " + note);
+		}
+
+		/**
+		 * Records a deletion
+		 * 
+		 * @param sequence sequence number of the record
+		 * @param id       id of application
+		 */
+		public void delete(long sequence, int id) {
+			sequences.add(sequence);
+			records.add("delete " + id);
+		}
+	}
+
+	/**
+	 * Creates an empty temporary journal file
+	 * 
+	 * @return journal file
+	 * @throws IOException if the file cannot be created
+	 */
+	private File tempJournal() throws IOException {
+		File file = Files.createTempFile("apps", ".journal").toFile();
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Tests the AppJournal Constructor
+	 */
+	@Test
+	public void testAppJournal() {
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal(tempJournal().getPath(), 0));
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal("no-such-dir/apps.journal", 1));
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal(tempJournal().getPath(), 1, 0, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal(tempJournal().getPath(), 1, 1, -1, 0));
+		assertThrows(IllegalArgumentException.class, () -> new AppJournal(tempJournal().getPath(), 1, 1, 0, -1));
+	}
+
+	/**
+	 * Tests that appended records are replayed in order
+	 * 
+	 * @throws IOException if the journal file cannot be created
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 100);
+		journal.appendAdd(1, AppType.NEW, SUMMARY, NOTE);
+		journal.appendExecute(1, ACCEPT);
+		journal.appendExecute(1, REJECT);
+		journal.appendDelete(1);
+		journal.appendAdd(2, null, null, null);
+		journal.close();
+		assertEquals(file.length(), journal.size());
+
+		Recorder recorder = new Recorder();
+		assertEquals(file.length(), AppJournal.replay(file.getPath(), recorder));
+		assertEquals(5, recorder.records.size());
+		assertEquals("add 1 NEW " + SUMMARY + " " + NOTE, recorder.records.get(0));
+		assertEquals("execute 1 ACCEPT " + RID + " null " + NOTE, recorder.records.get(1));
+		assertEquals("execute 1 REJECT null REVCOMPLETED " + NOTE, recorder.records.get(2));
+		assertEquals("delete 1", recorder.records.get(3));
+		assertEquals("add 2 null null null", recorder.records.get(4));
+		assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), recorder.sequences);
+
+		assertEquals(0, AppJournal.replay("no-such-file.journal", recorder));
+	}
+
+	/**
+	 * Tests that a record cut short at the end of the journal is ignored, and is
+	 * removed when the journal is opened again
+	 * 
+	 * @throws IOException if the journal file cannot be changed
+	 */
+	@Test
+	public void testReplayTornRecord() throws IOException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 1);
+		journal.appendExecute(1, ACCEPT);
+		long complete = journal.size();
+		journal.appendExecute(2, ACCEPT);
+		journal.close();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		Recorder recorder = new Recorder();
+		assertEquals(complete, AppJournal.replay(file.getPath(), recorder));
+		assertEquals(1, recorder.records.size());
+		assertEquals("execute 1 ACCEPT " + RID + " null " + NOTE, recorder.records.get(0));
+
+		// Records appended after reopening follow the last complete record
+		journal = new AppJournal(file.getPath(), 1, 1000, complete, 1);
+		assertEquals(complete, file.length());
+		journal.appendDelete(3);
+		journal.close();
+		recorder = new Recorder();
+		assertEquals(file.length(), AppJournal.replay(file.getPath(), recorder));
+		assertEquals(2, recorder.records.size());
+		assertEquals("delete 3", recorder.records.get(1));
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(2);
+		}
+		assertEquals(0, AppJournal.replay(file.getPath(), recorder));
+		journal = new AppJournal(file.getPath(), 1);
+		assertEquals(0, journal.size());
+		assertEquals(0, file.length());
+		journal.close();
+	}
+
+	/**
+	 * Tests that a corrupt record length larger than the rest of the journal ends
+	 * the replay like a torn record instead of being allocated, and that a corrupt
+	 * string length inside a record makes the journal invalid
+	 * 
+	 * @throws IOException if the journal file cannot be changed
+	 */
+	@Test
+	public void testReplayCorruptLength() throws IOException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 1);
+		journal.appendExecute(1, ACCEPT);
+		long complete = journal.size();
+		journal.appendExecute(2, ACCEPT);
+		journal.close();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(complete);
+			raf.writeInt(Integer.MAX_VALUE - 1);
+		}
+		Recorder recorder = new Recorder();
+		assertEquals(complete, AppJournal.replay(file.getPath(), recorder));
+		assertEquals(1, recorder.records.size());
+		journal = new AppJournal(file.getPath(), 1, 1000, complete, 1);
+		assertEquals(complete, file.length());
+		journal.appendDelete(3);
+		journal.close();
+		recorder = new Recorder();
+		assertEquals(file.length(), AppJournal.replay(file.getPath(), recorder));
+		assertEquals("delete 3", recorder.records.get(1));
+
+		// The reviewer length follows the record length, op, sequence, id, command
+		// and resolution
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(Integer.BYTES + 1 + Long.BYTES + Integer.BYTES + 2);
+			raf.writeInt(Integer.MAX_VALUE - 1);
+		}
+		assertThrows(IllegalArgumentException.class, () -> AppJournal.replay(file.getPath(), new Recorder()));
+	}
+
+	/**
+	 * Tests that records reach the file once a group is complete
+	 * 
+	 * @throws IOException if the journal file cannot be created
+	 */
+	@Test
+	public void testGroupCommit() throws IOException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 3, 60000, 0, 0);
+		journal.appendDelete(1);
+		journal.appendDelete(2);
+		assertEquals(0, file.length());
+		journal.appendDelete(3);
+		assertEquals(journal.size(), file.length());
+		journal.appendDelete(4);
+		journal.sync();
+		assertEquals(journal.size(), file.length());
+		journal.close();
+
+		journal = new AppJournal(file.getPath(), 1);
+		assertEquals(file.length(), journal.size());
+		assertEquals(4, journal.getSequence());
+		journal.appendDelete(5);
+		journal.close();
+		Recorder recorder = new Recorder();
+		assertEquals(file.length(), AppJournal.replay(file.getPath(), recorder));
+		assertEquals(5, recorder.records.size());
+		assertEquals(Long.valueOf(5), recorder.sequences.get(4));
+	}
+
+	/**
+	 * Tests that a group that is still filling is synced once the delay has passed
+	 * 
+	 * @throws IOException          if the journal file cannot be created
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testSyncDelay() throws IOException, InterruptedException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 100, 10, 0, 0);
+		journal.appendDelete(1);
+		journal.appendDelete(2);
+		long deadline = System.currentTimeMillis() + 10000;
+		while (file.length() < journal.size() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(journal.size(), file.length());
+		journal.close();
+	}
+
+	/**
+	 * Tests the truncate method
+	 * 
+	 * @throws IOException if the journal file cannot be created
+	 */
+	@Test
+	public void testTruncate() throws IOException {
+		File file = tempJournal();
+		AppJournal journal = new AppJournal(file.getPath(), 10);
+		journal.appendExecute(1, ACCEPT);
+		journal.appendExecute(2, ACCEPT);
+		journal.truncate();
+		assertEquals(0, journal.size());
+		assertEquals(0, file.length());
+		assertEquals(2, journal.getSequence());
+		journal.appendDelete(3);
+		journal.close();
+		Recorder recorder = new Recorder();
+		assertEquals(file.length(), AppJournal.replay(file.getPath(), recorder));
+		assertEquals(1, recorder.records.size());
+		assertEquals("delete 3", recorder.records.get(0));
+		assertEquals(Long.valueOf(3), recorder.sequences.get(0));
+	}
+}
@@ -1,16 +1,25 @@
 package edu.ncsu.csc216.app_manager.model.io;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
@@ -118,4 +127,332 @@ public class AppReaderTest {
 		
 	}
 
+	/**
+	 * Tests that ReadAppsFromFile merges only the committed changes of a delta
+	 * file that match the length and checksum of the full file
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadAppsFromFileWithDelta() throws IOException {
+		Path dir = Files.createTempDirectory("reader");
+		Path file = dir.resolve("apps.txt");
+		Files.copy(FileSystems.getDefault().getPath(validTestFile), file);
+		String fileName = file.toString();
+		long checksum = AppWriter.checksum(fileName);
+		String base = file.toFile().length() + "," + checksum;
+		try (FileWriter delta = new FileWriter(AppWriter.getDeltaFileName(fileName))) {
+			delta.write("*-1\n*-3\n*!0," + base + "\n*-7\n*!0," + (file.toFile().length() + 1) + "," + checksum
+					+ "\n*-15\n*!0," + file.toFile().length() + "," + (checksum + 1) + "\n*-14");
+		}
+		ArrayList<Application> applications = AppReader.readAppsFromFile(fileName);
+		assertEquals(4, applications.size());
+		assertEquals(validApplications[2], applications.get(0).toString());
+
+		// Deleting every application leaves nothing to load
+		try (FileWriter delta = new FileWriter(AppWriter.getDeltaFileName(fileName))) {
+			delta.write("*-1\n*-3\n*-7\n*-14\n*-15\n*-16\n*!0," + base);
+		}
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(fileName));
+
+		// An invalid committed record rejects the file
+		try (FileWriter delta = new FileWriter(AppWriter.getDeltaFileName(fileName))) {
+			delta.write("*-x\n*!0," + base);
+		}
+		Exception e = assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(fileName));
+		assertEquals("Unable to load file.", e.getMessage());
+		try (FileWriter delta = new FileWriter(AppWriter.getDeltaFileName(fileName))) {
+			delta.write("*1,Review\n*!0," + base);
+		}
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(fileName));
+	}
+
+	/**
+	 * Tests that readSequence finds the largest sequence number among the commit
+	 * records that name the full file
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadSequence() throws IOException {
+		Path dir = Files.createTempDirectory("reader");
+		Path file = dir.resolve("apps.txt");
+		Files.copy(FileSystems.getDefault().getPath(validTestFile), file);
+		String fileName = file.toString();
+		assertEquals(0, AppReader.readSequence(fileName));
+		assertEquals(0, AppReader.readSequence(dir.resolve("missing.txt").toString()));
+
+		String base = file.toFile().length() + "," + AppWriter.checksum(fileName);
+		try (FileWriter delta = new FileWriter(AppWriter.getDeltaFileName(fileName))) {
+			delta.write("*-1\n*!4," + base + "\n*!9,1," + AppWriter.checksum(fileName) + "\n*-3\n*!7," + base
+					+ "\n*-7\n*!12," + file.toFile().length());
+		}
+		assertEquals(7, AppReader.readSequence(fileName));
+		assertEquals(4, AppReader.readAppsFromFile(fileName).size());
+	}
+
+	/**
+	 * Tests that ReadAppsFromFile rejects binary files that are cut short, have an
+	 * unknown version or hold invalid applications
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadAppsFromBinaryFile() throws IOException {
+		Path dir = Files.createTempDirectory("reader");
+		String fileName = dir.resolve("apps.bin").toString();
+		AppWriter.writeAppsToBinaryFile(fileName, AppReader.readAppsFromFile(validTestFile));
+		byte[] bytes = Files.readAllBytes(dir.resolve("apps.bin"));
+		assertEquals(6, AppReader.readAppsFromFile(fileName).size());
+
+		Path broken = dir.resolve("broken.bin");
+		Files.write(broken, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(broken.toString()));
+		Files.write(broken, Arrays.copyOf(bytes, bytes.length + 1));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(broken.toString()));
+
+		byte[] version = bytes.clone();
+		version[4] = 2;
+		Files.write(broken, version);
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(broken.toString()));
+
+		// An unknown state code makes the first application invalid
+		byte[] state = bytes.clone();
+		state[7] = 9;
+		Files.write(broken, state);
+		Exception e = assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(broken.toString()));
+		assertEquals("Unable to load file.", e.getMessage());
+
+		Files.write(broken, Arrays.copyOf(bytes, 3));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(broken.toString()));
+	}
+
+	/**
+	 * Tests that ReadAppsFromMappedFile reads the same applications as
+	 * ReadAppsFromFile and rejects the same files
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadAppsFromMappedFile() throws IOException {
+		ArrayList<Application> applications = AppReader.readAppsFromMappedFile(validTestFile);
+		assertEquals(6, applications.size());
+		for (int i = 0; i < validApplications.length; i++) {
+			assertEquals(validApplications[i], applications.get(i).toString());
+			assertEquals(AppReader.readAppsFromFile(validTestFile).get(i).getNotes(), applications.get(i).getNotes());
+		}
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> AppReader.readAppsFromMappedFile(invalidTestFile));
+		assertEquals("Unable to load file.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromMappedFile(emptyTestFile));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromMappedFile("no-such-file.txt"));
+
+		// Records the byte parser leaves to the Scanner parser
+		Path dir = Files.createTempDirectory("mapped");
+		Path file = dir.resolve("apps.txt");
+		String[] records = { "*+5,Review,New,caf\u00e9,,false,\r\n-[Review] Note",
+				"*6,Review,New,Summary,,False,Nope\n-[Review] Note\r\n-[Review] well-known",
+				"*7,Interview,Old,Summary,ghfrain,false,\r-[Review] Note\r\n-[Interview] Note" };
+		Files.write(file, String.join("\r\n", records).getBytes(StandardCharsets.UTF_8));
+		ArrayList<Application> scanned = AppReader.readAppsFromFile(file.toString());
+		ArrayList<Application> mapped = AppReader.readAppsFromMappedFile(file.toString());
+		assertEquals(3, mapped.size());
+		for (int i = 0; i < scanned.size(); i++) {
+			assertEquals(scanned.get(i).toString(), mapped.get(i).toString());
+			assertEquals(scanned.get(i).getNotes(), mapped.get(i).getNotes());
+		}
+
+		// An empty first note, which the byte parser leaves to the Scanner parser
+		Files.write(file, "*8,Review,New,Summary,,false,\n--".getBytes(StandardCharsets.UTF_8));
+		assertEquals(AppReader.readAppsFromFile(file.toString()).get(0).getNotes(),
+				AppReader.readAppsFromMappedFile(file.toString()).get(0).getNotes());
+		assertEquals("", AppReader.readAppsFromMappedFile(file.toString()).get(0).getNotes().get(0));
+
+		String binary = dir.resolve("apps.bin").toString();
+		AppWriter.writeAppsToBinaryFile(binary, applications);
+		assertEquals(6, AppReader.readAppsFromMappedFile(binary).size());
+	}
+
+	/**
+	 * Tests that the reviewer written for an application without one is read back
+	 * as no reviewer, and that a reviewer in the Review state is rejected
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	@Test
+	public void testReadReviewer() throws IOException {
+		Path file = Files.createTempDirectory("reviewer").resolve("apps.txt");
+		Files.write(file, "*1,Review,New,Summary,null,false,\n-[Review] Note".getBytes(StandardCharsets.UTF_8));
+		assertEquals(null, AppReader.readAppsFromFile(file.toString()).get(0).getReviewer());
+		assertEquals(null, AppReader.readAppsFromMappedFile(file.toString()).get(0).getReviewer());
+
+		Files.write(file, "*1,Review,New,Summary,ghfrain,false,\n-[Review] Note".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromFile(file.toString()));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsFromMappedFile(file.toString()));
+	}
+
+	/**
+	 * Tests that reading a file in chunks in parallel returns the same
+	 * applications as reading it whole, for any number of chunks
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadAppsInParallel() throws IOException {
+		ArrayList<Application> expected = AppReader.readAppsFromFile(validTestFile);
+		for (int chunks = 1; chunks <= 40; chunks++) {
+			ArrayList<Application> applications = AppReader.readAppsInParallel(validTestFile, chunks);
+			assertEquals(expected.size(), applications.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), applications.get(i).toString());
+				assertEquals(expected.get(i).getNotes(), applications.get(i).getNotes());
+			}
+			final int count = chunks;
+			assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsInParallel(invalidTestFile, count));
+		}
+		assertEquals(6, AppReader.readAppsInParallel(validTestFile).size());
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsInParallel(emptyTestFile));
+		assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsInParallel("no-such-file.txt"));
+
+		// A file large enough to be split on its own
+		Path dir = Files.createTempDirectory("parallel");
+		Path file = dir.resolve("apps.txt");
+		StringBuilder text = new StringBuilder();
+		for (int id = 1; id <= 40000; id++) {
+			text.append("*").append(id).append(",Review,New,Summary ").append(id).append(",,false,\r\n-[Review] Note ")
+					.append(id).append("\r\n");
+		}
+		Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+		ArrayList<Application> scanned = AppReader.readAppsFromFile(file.toString());
+		ArrayList<Application> parallel = AppReader.readAppsInParallel(file.toString());
+		assertEquals(40000, parallel.size());
+		for (int i = 0; i < scanned.size(); i++) {
+			assertEquals(scanned.get(i).toString(), parallel.get(i).toString());
+		}
+
+		String binary = dir.resolve("apps.bin").toString();
+		AppWriter.writeAppsToBinaryFile(binary, expected);
+		assertEquals(6, AppReader.readAppsInParallel(binary, 4).size());
+	}
+
+	/**
+	 * Tests that a stream of a file returns the applications of the file lazily
+	 * and can be split for parallel consumption
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testStreamAppsFromFile() throws IOException {
+		ArrayList<Application> expected = AppReader.readAppsFromFile(validTestFile);
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(validTestFile)) {
+			List<Application> applications = stream.collect(Collectors.toList());
+			assertEquals(expected.size(), applications.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), applications.get(i).toString());
+				assertEquals(expected.get(i).getNotes(), applications.get(i).getNotes());
+			}
+		}
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(validTestFile)) {
+			Iterator<Application> iterator = stream.iterator();
+			assertEquals(1, iterator.next().getAppId());
+			assertEquals(3, iterator.next().getAppId());
+		}
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(invalidTestFile)) {
+			assertThrows(IllegalArgumentException.class, () -> stream.count());
+		}
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(emptyTestFile)) {
+			assertEquals(0, stream.count());
+		}
+		assertThrows(IllegalArgumentException.class, () -> AppReader.streamAppsFromFile("no-such-file.txt"));
+
+		// A file large enough to be split for a parallel stream
+		Path dir = Files.createTempDirectory("stream");
+		Path file = dir.resolve("apps.txt");
+		StringBuilder text = new StringBuilder();
+		for (int id = 1; id <= 40000; id++) {
+			text.append("*").append(id).append(",Review,New,Summary ").append(id).append(",,false,\r\n-[Review] Note ")
+					.append(id).append("\r\n");
+		}
+		Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(file.toString())) {
+			assertNotNull(stream.spliterator().trySplit());
+		}
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(file.toString())) {
+			int[] ids = stream.parallel().mapToInt(Application::getAppId).toArray();
+			assertEquals(40000, ids.length);
+			for (int i = 0; i < ids.length; i++) {
+				assertEquals(i + 1, ids[i]);
+			}
+		}
+
+		String binary = dir.resolve("apps.bin").toString();
+		AppWriter.writeAppsToBinaryFile(binary, expected);
+		try (Stream<Application> stream = AppReader.streamAppsFromFile(binary)) {
+			assertEquals(6, stream.count());
+		}
+	}
+
+	/**
+	 * Tests that reading a file with lazy notes returns the same applications as
+	 * reading it with its notes, loads each note block on first use and closes
+	 * the note source once every block is loaded
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testReadAppsWithLazyNotes() throws IOException {
+		ArrayList<Application> expected = AppReader.readAppsFromFile(validTestFile);
+		for (int chunks = 1; chunks <= 10; chunks++) {
+			NoteSource source = new NoteSource(validTestFile);
+			ArrayList<Application> applications = AppReader.readAppsWithLazyNotes(source, chunks);
+			assertTrue(source.isOpen());
+			assertEquals(expected.size(), applications.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), applications.get(i).toString());
+				assertEquals(expected.get(i).getNotes(), applications.get(i).getNotes());
+			}
+			assertFalse(source.isOpen());
+		}
+		for (String fileName : new String[] { invalidTestFile, emptyTestFile }) {
+			try (NoteSource source = new NoteSource(fileName)) {
+				assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsWithLazyNotes(source));
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> new NoteSource("no-such-file.txt"));
+
+		// Closing the source of applications that are dropped before their notes
+		// are loaded releases the file, and their notes can no longer be loaded
+		NoteSource dropped = new NoteSource(validTestFile);
+		ArrayList<Application> unloaded = AppReader.readAppsWithLazyNotes(dropped);
+		dropped.close();
+		assertFalse(dropped.isOpen());
+		assertThrows(IllegalArgumentException.class, () -> unloaded.get(0).getNotes());
+
+		// Records the byte parser leaves to the Scanner parser load their notes
+		// at once, and a record without notes is still rejected up front
+		Path dir = Files.createTempDirectory("lazy");
+		Path file = dir.resolve("apps.txt");
+		String[] records = { "*1,Review,New,caf\u00e9,,false,\r\n-[Review] Note",
+				"*2,Review,New,Summary,,false,\n--[Review] Note", "*3,Review,New,Summary,,false,\n-[Review] A\n-B" };
+		Files.write(file, String.join("\r\n", records).getBytes(StandardCharsets.UTF_8));
+		ArrayList<Application> scanned = AppReader.readAppsFromFile(file.toString());
+		NoteSource source = new NoteSource(file.toString());
+		ArrayList<Application> lazy = AppReader.readAppsWithLazyNotes(source);
+		assertEquals(3, lazy.size());
+		for (int i = 0; i < scanned.size(); i++) {
+			assertEquals(scanned.get(i).getNotes(), lazy.get(i).getNotes());
+		}
+		assertFalse(source.isOpen());
+		Files.write(file, "*4,Review,New,Summary,,false,\r\n-".getBytes(StandardCharsets.UTF_8));
+		try (NoteSource invalid = new NoteSource(file.toString())) {
+			assertThrows(IllegalArgumentException.class, () -> AppReader.readAppsWithLazyNotes(invalid));
+		}
+
+		// A source none of whose notes are left in the file closes once it is read
+		Path binary = dir.resolve("apps.bin");
+		AppWriter.writeAppsToBinaryFile(binary.toString(), expected);
+		NoteSource loaded = new NoteSource(binary.toString());
+		assertEquals(expected.size(), AppReader.readAppsWithLazyNotes(loaded).size());
+		assertFalse(loaded.isOpen());
+	}
 }
@@ -5,6 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -96,4 +101,160 @@ public class AppWriterTest {
 				() -> AppWriter.writeAppsToFile("/home/ghfrain/actual_records.txt", validApplications));
 		assertEquals("Unable to save file.", exception.getMessage());
 	}
+
+	/**
+	 * Test the replaceAppsFile method
+	 * 
+	 * @throws IOException if the temporary directory cannot be created
+	 */
+	@Test
+	public void testReplaceAppsFile() throws IOException {
+		Path dir = Files.createTempDirectory("writer");
+		String fileName = dir.resolve("apps.txt").toString();
+		AppWriter.replaceAppsFile(fileName, validApplications);
+		ArrayList<Application> valApp = AppReader.readAppsFromFile(validTestFile);
+		ArrayList<Application> actApp = AppReader.readAppsFromFile(fileName);
+		assertEquals(valApp.size(), actApp.size());
+		for (int i = 0; i < valApp.size(); i++) {
+			assertEquals(valApp.get(i).toString(), actApp.get(i).toString());
+		}
+
+		// Replacing with an empty list leaves an empty file and no temporary files
+		AppWriter.replaceAppsFile(fileName, new ArrayList<Application>());
+		assertEquals(0, new File(fileName).length());
+		assertEquals(1, dir.toFile().list().length);
+
+		Exception exception = assertThrows(IllegalArgumentException.class,
+				() -> AppWriter.replaceAppsFile(dir.resolve("missing/apps.txt").toString(), validApplications));
+		assertEquals("Unable to save file.", exception.getMessage());
+	}
+
+	/**
+	 * Test the writeChangesToFile method
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testWriteChangesToFile() throws IOException {
+		Path dir = Files.createTempDirectory("writer");
+		String fileName = dir.resolve("apps.txt").toString();
+		String deltaName = AppWriter.getDeltaFileName(fileName);
+		assertEquals(fileName + ".delta", deltaName);
+		AppWriter.writeAppsToFile(fileName, validApplications);
+		long length = new File(fileName).length();
+
+		Application changed = new Application(3, "RefCheck", "Old", "Application summary", "reviewer", true, null,
+				notes3);
+		Application added = new Application(20, "Review", "New", "Application summary", null, false, null, notes1);
+		AppWriter.writeChangesToFile(fileName, new ArrayList<Application>(Arrays.asList(changed, added)),
+				new int[] { 14 });
+		AppWriter.writeChangesToFile(fileName, new ArrayList<Application>(), new int[] { 1 });
+		assertEquals(length, new File(fileName).length());
+
+		ArrayList<Application> apps = AppReader.readAppsFromFile(fileName);
+		assertEquals(5, apps.size());
+		assertEquals(changed.toString(), apps.get(0).toString());
+		assertEquals(validApplication3.toString(), apps.get(1).toString());
+		assertEquals(validApplication5.toString(), apps.get(2).toString());
+		assertEquals(validApplication6.toString(), apps.get(3).toString());
+		assertEquals(added.toString(), apps.get(4).toString());
+
+		// A batch without its commit record is ignored, and removed before the next batch
+		try (FileWriter tail = new FileWriter(deltaName, true)) {
+			tail.write("\n*-3\n*3,RefCh");
+		}
+		assertEquals(5, AppReader.readAppsFromFile(fileName).size());
+		AppWriter.writeChangesToFile(fileName, new ArrayList<Application>(), new int[0]);
+		assertEquals(5, AppReader.readAppsFromFile(fileName).size());
+		assertEquals(false, new String(Files.readAllBytes(dir.resolve(deltaName))).contains("*-3"));
+
+		// Batches written against a different full file of the same length are ignored
+		byte[] bytes = Files.readAllBytes(dir.resolve("apps.txt"));
+		byte[] others = Files.readAllBytes(dir.resolve("apps.txt"));
+		others[others.length - 1] = (byte) (others[others.length - 1] == 'x' ? 'y' : 'x');
+		Files.write(dir.resolve("apps.txt"), others);
+		assertEquals(6, AppReader.readAppsFromFile(fileName).size());
+		Files.write(dir.resolve("apps.txt"), bytes);
+		assertEquals(5, AppReader.readAppsFromFile(fileName).size());
+
+		// A full save removes the delta file, and returns the checksum of the file
+		assertEquals(AppWriter.checksum(fileName), AppWriter.writeAppsToFile(fileName, validApplications));
+		assertEquals(false, new File(deltaName).exists());
+		assertEquals(6, AppReader.readAppsFromFile(fileName).size());
+
+		// An empty list is rejected without touching the file
+		assertThrows(IllegalArgumentException.class,
+				() -> AppWriter.writeAppsToFile(fileName, new ArrayList<Application>()));
+		assertEquals(6, AppReader.readAppsFromFile(fileName).size());
+		assertEquals(1, dir.toFile().list().length);
+
+		Exception exception = assertThrows(IllegalArgumentException.class, () -> AppWriter
+				.writeChangesToFile(dir.resolve("missing/apps.txt").toString(), validApplications, new int[0]));
+		assertEquals("Unable to save file.", exception.getMessage());
+	}
+
+	/**
+	 * Test that saves of a journal snapshot record the sequence number of the last
+	 * journal record they include
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testWriteSequence() throws IOException {
+		Path dir = Files.createTempDirectory("writer");
+		String fileName = dir.resolve("apps.txt").toString();
+		String deltaName = AppWriter.getDeltaFileName(fileName);
+		long checksum = AppWriter.replaceAppsFile(fileName, validApplications, 5);
+		assertEquals(5, AppReader.readSequence(fileName));
+		assertEquals("*!5," + new File(fileName).length() + "," + checksum,
+				new String(Files.readAllBytes(dir.resolve(deltaName))));
+
+		AppWriter.writeChangesToFile(fileName, new ArrayList<Application>(), new int[] { 1 }, checksum, 9);
+		assertEquals(9, AppReader.readSequence(fileName));
+		assertEquals(5, AppReader.readAppsFromFile(fileName).size());
+
+		// A full save names the new file, so the older batches no longer apply
+		AppWriter.writeAppsToBinaryFile(fileName, validApplications, 12);
+		assertEquals(12, AppReader.readSequence(fileName));
+		assertEquals(6, AppReader.readAppsFromFile(fileName).size());
+		assertEquals(2, dir.toFile().list().length);
+
+		// A save that is not to a journal snapshot removes the delta file
+		AppWriter.replaceAppsFile(fileName, validApplications);
+		assertEquals(0, AppReader.readSequence(fileName));
+		assertEquals(false, new File(deltaName).exists());
+	}
+
+	/**
+	 * Test the writeAppsToBinaryFile method
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testWriteAppsToBinaryFile() throws IOException {
+		Path dir = Files.createTempDirectory("writer");
+		String fileName = dir.resolve("apps.bin").toString();
+		AppWriter.writeAppsToBinaryFile(fileName, validApplications);
+		byte[] bytes = Files.readAllBytes(dir.resolve("apps.bin"));
+		assertEquals('A', bytes[0]);
+		assertEquals('M', bytes[3]);
+		assertEquals(AppWriter.BINARY_VERSION, bytes[4]);
+		assertEquals(6, bytes[5]);
+
+		ArrayList<Application> apps = AppReader.readAppsFromFile(fileName);
+		assertEquals(validApplications.size(), apps.size());
+		for (int i = 0; i < apps.size(); i++) {
+			assertEquals(validApplications.get(i).toString(), apps.get(i).toString());
+		}
+
+		// Large ids and non-ASCII text survive the round trip
+		ArrayList<String> notes = new ArrayList<String>(Arrays.asList("[Review] caf\u00e9", "[Review] \u4f60\u597d"));
+		Application app = new Application(300000, "Review", "New", "r\u00e9sum\u00e9", null, false, null, notes);
+		AppWriter.writeAppsToBinaryFile(fileName, new ArrayList<Application>(Arrays.asList(app)));
+		assertEquals(app.toString(), AppReader.readAppsFromFile(fileName).get(0).toString());
+
+		Exception exception = assertThrows(IllegalArgumentException.class,
+				() -> AppWriter.writeAppsToBinaryFile(dir.resolve("missing/apps.bin").toString(), validApplications));
+		assertEquals("Unable to save file.", exception.getMessage());
+	}
 }
@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.app_manager.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the MappedRecordScanner class
+ * 
+ * @author Gabe Frain
+ */
+public class MappedRecordScannerTest {
+
+	/** Text of a file with records split by every kind of delimiter */
+	private static final String TEXT = "*1,a\r\n-n1\r\n*2,b\n-n2\n*3,c\r*\r\r\n*4,d\u00e9\r\n";
+
+	/**
+	 * Reads every record of a file with the given window size
+	 * 
+	 * @param file       file being read
+	 * @param windowSize number of bytes mapped at once
+	 * @return text of each record
+	 * @throws IOException if the file cannot be read
+	 */
+	private ArrayList<String> scan(Path file, int windowSize) throws IOException {
+		ArrayList<String> records = new ArrayList<String>();
+		try (MappedRecordScanner scanner = new MappedRecordScanner(file.toString(), windowSize)) {
+			while (scanner.nextRecord()) {
+				records.add(new String(scanner.getRecord(), 0, scanner.getRecordLength(), StandardCharsets.UTF_8));
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Tests that records are split where a Scanner splits them, for any window
+	 * size
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	@Test
+	public void testNextRecord() throws IOException {
+		Path file = Files.createTempFile("records", ".txt");
+		file.toFile().deleteOnExit();
+		Files.write(file, TEXT.getBytes(StandardCharsets.UTF_8));
+		ArrayList<String> expected = new ArrayList<String>();
+		Scanner scanner = new Scanner(TEXT);
+		scanner.useDelimiter("\\r?\\n?[*]");
+		while (scanner.hasNext()) {
+			expected.add(scanner.next());
+		}
+		scanner.close();
+		assertEquals(5, expected.size());
+		for (int windowSize = 1; windowSize <= 8; windowSize++) {
+			assertEquals(expected, scan(file, windowSize));
+		}
+		assertEquals(expected, scan(file, 1 << 20));
+
+		try (MappedRecordScanner records = new MappedRecordScanner(file.toString())) {
+			assertTrue(records.nextRecord());
+			assertTrue(records.isRecordAscii());
+			for (int i = 0; i < 4; i++) {
+				assertTrue(records.nextRecord());
+			}
+			assertFalse(records.isRecordAscii());
+			assertFalse(records.nextRecord());
+		}
+
+		Files.write(file, new byte[0]);
+		assertEquals(0, scan(file, 4).size());
+		assertThrows(IOException.class, () -> new MappedRecordScanner("no-such-file.txt"));
+	}
+
+	/**
+	 * Tests that the records of a file split at its stars are the records of the
+	 * whole file
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	@Test
+	public void testFindRecordMark() throws IOException {
+		Path file = Files.createTempFile("records", ".txt");
+		file.toFile().deleteOnExit();
+		Files.write(file, (TEXT + "**5,e").getBytes(StandardCharsets.UTF_8));
+		ArrayList<String> expected = scan(file, 1 << 20);
+		assertEquals(7, expected.size());
+		try (MappedRecordScanner scanner = new MappedRecordScanner(file.toString())) {
+			long size = scanner.getFileSize();
+			assertEquals(TEXT.getBytes(StandardCharsets.UTF_8).length + 5, size);
+			assertEquals(0, scanner.findRecordMark(0));
+			assertEquals(11, scanner.findRecordMark(1));
+			assertEquals(size - 4, scanner.findRecordMark(size - 4));
+			assertEquals(size, scanner.findRecordMark(size - 3));
+			for (long split = 0; split <= size; split++) {
+				long mark = scanner.findRecordMark(split);
+				ArrayList<String> records = new ArrayList<String>();
+				for (long[] range : new long[][] { { 0, mark }, { mark, size } }) {
+					try (MappedRecordScanner part = new MappedRecordScanner(file.toString(), range[0], range[1], 3)) {
+						while (part.nextRecord()) {
+							records.add(new String(part.getRecord(), 0, part.getRecordLength(),
+									StandardCharsets.UTF_8));
+						}
+					}
+				}
+				assertEquals(expected, records);
+			}
+		}
+	}
+}
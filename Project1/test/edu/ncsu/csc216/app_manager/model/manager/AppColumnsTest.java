@@ -0,0 +1,190 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+import edu.ncsu.csc216.app_manager.model.command.Command.Resolution;
+
+/**
+ * Tests the AppColumns class
+ *
+ * @author Gabe Frain
+ */
+public class AppColumnsTest {
+
+	/** New Application Type */
+	private static final AppType NEW_APP_TYPE = AppType.NEW;
+	/** Old Application Type */
+	private static final AppType OLD_APP_TYPE = AppType.OLD;
+	/** New Application Type String */
+	public static final String A_NEW = "New";
+	/** Old Application Type String */
+	public static final String A_OLD = "Old";
+	/** Review State String */
+	public static final String REVIEW_NAME = "Review";
+	/** Interview State String */
+	public static final String INTERVIEW_NAME = "Interview";
+	/** Summary String */
+	private static final String SUMMARY = "Great work";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+	/** Reviewer Id */
+	private static final String RID = "ghfrain";
+	/** Accept Command */
+	private static final Command ACCEPT = new Command(CommandValue.ACCEPT, RID, null, NOTE);
+
+	/**
+	 * Tests the AppColumns Constructor
+	 */
+	@Test
+	public void testAppColumns() {
+		assertEquals(0, new AppColumns().size());
+		assertEquals(0, new AppColumns(100).toArray().length);
+	}
+
+	/**
+	 * Tests the add method and the row getters
+	 */
+	@Test
+	public void testAdd() {
+		AppColumns columns = new AppColumns(1);
+		for (int i = 1; i <= 40; i++) {
+			columns.add(new Application(i, i % 2 == 0 ? NEW_APP_TYPE : OLD_APP_TYPE, SUMMARY + i, NOTE));
+		}
+		assertEquals(40, columns.size());
+		assertEquals(7, columns.getAppId(6));
+		assertEquals(REVIEW_NAME, columns.getStateName(6));
+		assertEquals(A_OLD, columns.getAppType(6));
+		assertEquals(SUMMARY + 7, columns.getSummary(6));
+		assertNull(columns.getReviewer(6));
+		assertNull(columns.getResolution(6));
+		assertEquals(false, columns.isProcessed(6));
+
+		// Rows must be added in id order
+		Application app = new Application(3, NEW_APP_TYPE, SUMMARY, NOTE);
+		assertThrows(IllegalArgumentException.class, () -> columns.add(app));
+		assertThrows(IndexOutOfBoundsException.class, () -> columns.getAppId(40));
+	}
+
+	/**
+	 * Tests the update method
+	 */
+	@Test
+	public void testUpdate() {
+		AppColumns columns = new AppColumns();
+		Application app = new Application(5, NEW_APP_TYPE, SUMMARY, NOTE);
+		columns.add(app);
+		app.update(ACCEPT);
+		columns.update(app);
+		assertEquals(INTERVIEW_NAME, columns.getStateName(0));
+		assertEquals(A_OLD, columns.getAppType(0));
+		assertEquals(RID, columns.getReviewer(0));
+
+		// Applications without a row are ignored
+		columns.update(new Application(6, NEW_APP_TYPE, SUMMARY, NOTE));
+		assertEquals(1, columns.size());
+	}
+
+	/**
+	 * Tests that reviewer ids no longer used by any row are removed from the
+	 * reviewer table and their codes reused
+	 */
+	@Test
+	public void testReviewerReclaim() {
+		AppColumns columns = new AppColumns();
+		ArrayList<Application> apps = new ArrayList<Application>();
+		for (int i = 1; i <= 40; i++) {
+			Application app = new Application(i, NEW_APP_TYPE, SUMMARY, NOTE);
+			columns.add(app);
+			app.update(new Command(CommandValue.ACCEPT, RID + i, null, NOTE));
+			columns.update(app);
+			apps.add(app);
+		}
+		assertEquals(40, columns.getReviewerCount());
+
+		// Moving every row to one reviewer frees the other ids
+		for (Application app : apps) {
+			app.update(new Command(CommandValue.STANDBY, RID, Resolution.INTCOMPLETED, NOTE));
+			columns.update(app);
+		}
+		assertEquals(1, columns.getReviewerCount());
+		assertEquals(RID, columns.getReviewer(39));
+
+		// A freed code is reused by the next new reviewer id
+		Application app = apps.get(0);
+		app.update(new Command(CommandValue.REOPEN, RID + 1, null, NOTE));
+		columns.update(app);
+		assertEquals(2, columns.getReviewerCount());
+		assertEquals(RID + 1, columns.getReviewer(0));
+		assertEquals(RID, columns.getReviewer(1));
+
+		columns.remove(1);
+		assertEquals(1, columns.getReviewerCount());
+		for (int i = 2; i <= 40; i++) {
+			columns.remove(i);
+		}
+		assertEquals(0, columns.getReviewerCount());
+	}
+
+	/**
+	 * Tests the remove and indexOf methods
+	 */
+	@Test
+	public void testRemove() {
+		AppColumns columns = new AppColumns();
+		columns.add(new Application(1, NEW_APP_TYPE, SUMMARY, NOTE));
+		columns.add(new Application(4, NEW_APP_TYPE, SUMMARY, NOTE));
+		columns.add(new Application(9, OLD_APP_TYPE, SUMMARY, NOTE));
+		assertEquals(1, columns.indexOf(4));
+		columns.remove(4);
+		columns.remove(5);
+		assertEquals(2, columns.size());
+		assertEquals(-1, columns.indexOf(4));
+		assertEquals(1, columns.indexOf(9));
+		assertEquals(A_OLD, columns.getAppType(1));
+	}
+
+	/**
+	 * Tests the getRow, toArray and toArrayByAppType methods
+	 */
+	@Test
+	public void testToArray() {
+		AppColumns columns = new AppColumns();
+		ArrayList<String> notes = new ArrayList<String>(Arrays.asList("[Review] Note 1", "[Interview] Note 2"));
+		columns.add(new Application(1, NEW_APP_TYPE, SUMMARY, NOTE));
+		columns.add(new Application(2, "Interview", "Old", SUMMARY, RID, false, null, notes));
+		columns.add(new Application(3, NEW_APP_TYPE, SUMMARY, NOTE));
+		assertEquals(Arrays.asList(2, INTERVIEW_NAME, A_OLD, SUMMARY), Arrays.asList(columns.getRow(1)));
+
+		Object[][] all = columns.toArray();
+		assertEquals(3, all.length);
+		assertEquals(3, all[2][0]);
+
+		Object[][] newApps = columns.toArrayByAppType(A_NEW);
+		assertEquals(2, newApps.length);
+		assertEquals(1, newApps[0][0]);
+		assertEquals(3, newApps[1][0]);
+		assertEquals(2, columns.countByAppType(A_NEW));
+		assertEquals(1, columns.countByAppType(A_OLD));
+		assertEquals(0, columns.toArrayByAppType("Unknown").length);
+		int[] newRows = columns.findByAppType(A_NEW);
+		assertEquals(2, newRows.length);
+		assertEquals(0, newRows[0]);
+		assertEquals(2, newRows[1]);
+		newRows = columns.findByAppType(A_NEW, 1, 5);
+		assertEquals(1, newRows.length);
+		assertEquals(2, newRows[0]);
+		assertEquals(0, columns.findByAppType(A_NEW, 2, 5).length);
+		assertEquals(0, columns.findByAppType(A_NEW, 0, 0).length);
+	}
+}
@@ -0,0 +1,101 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+
+/**
+ * Tests the AppIdMap class
+ *
+ * @author Gabe Frain
+ */
+public class AppIdMapTest {
+
+	/** New Application Type */
+	private static final AppType NEW_APP_TYPE = AppType.NEW;
+	/** Summary String */
+	private static final String SUMMARY = "Great work";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+
+	/**
+	 * Tests the AppIdMap Constructor
+	 */
+	@Test
+	public void testAppIdMap() {
+		assertEquals(0, new AppIdMap().size());
+		assertEquals(0, new AppIdMap(1000).size());
+	}
+
+	/**
+	 * Tests the put and get methods
+	 */
+	@Test
+	public void testPutAndGet() {
+		AppIdMap map = new AppIdMap();
+		Application app1 = new Application(1, NEW_APP_TYPE, SUMMARY, NOTE);
+		Application app2 = new Application(17, NEW_APP_TYPE, SUMMARY, NOTE);
+		map.put(1, app1);
+		map.put(17, app2);
+		assertEquals(2, map.size());
+		assertEquals(app1, map.get(1));
+		assertEquals(app2, map.get(17));
+		assertNull(map.get(2));
+
+		// Replacing an id keeps the size
+		map.put(1, app2);
+		assertEquals(2, map.size());
+		assertEquals(app2, map.get(1));
+
+		// Invalid entries
+		assertThrows(IllegalArgumentException.class, () -> map.put(0, app1));
+		assertThrows(IllegalArgumentException.class, () -> map.put(3, null));
+	}
+
+	/**
+	 * Tests that the map keeps every application when it grows
+	 */
+	@Test
+	public void testResize() {
+		AppIdMap map = new AppIdMap();
+		Application app = new Application(1, NEW_APP_TYPE, SUMMARY, NOTE);
+		for (int i = 1; i <= 1000; i++) {
+			map.put(i * 7, app);
+		}
+		assertEquals(1000, map.size());
+		for (int i = 1; i <= 1000; i++) {
+			assertEquals(app, map.get(i * 7));
+		}
+		assertNull(map.get(3));
+	}
+
+	/**
+	 * Tests the remove method
+	 */
+	@Test
+	public void testRemove() {
+		AppIdMap map = new AppIdMap();
+		Application[] apps = new Application[200];
+		for (int i = 1; i < apps.length; i++) {
+			apps[i] = new Application(i, NEW_APP_TYPE, SUMMARY, NOTE);
+			map.put(i, apps[i]);
+		}
+		for (int i = 1; i < apps.length; i += 2) {
+			assertEquals(apps[i], map.remove(i));
+		}
+		assertNull(map.remove(1));
+		assertEquals(99, map.size());
+		for (int i = 1; i < apps.length; i++) {
+			if (i % 2 == 0) {
+				assertEquals(apps[i], map.get(i));
+			} else {
+				assertNull(map.get(i));
+			}
+		}
+	}
+}
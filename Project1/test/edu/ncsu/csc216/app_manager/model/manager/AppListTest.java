@@ -106,6 +106,9 @@ public class AppListTest {
 		for (int i = 0; i < appList.getApps().size(); i++) {
 			assertEquals(outputlist.get(i).toString(), appList.getApps().get(i).toString());
 		}
+		assertEquals(4, appList.getApps().size());
+		assertEquals(app4, appList.getAppById(4));
+		assertEquals(6, appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1));
 
 	}
 
@@ -140,6 +143,124 @@ public class AppListTest {
 		assertThrows(IllegalArgumentException.class, () -> appList.getAppsByType(null));
 	}
 
+	/**
+	 * Tests that the type index follows applications through transitions and
+	 * deletes
+	 */
+	@Test
+	public void testGetAppsByTypeAfterChanges() {
+		AppList appList = new AppList();
+		appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		appList.addApp(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		appList.addApp(OLD_APP_TYPE, SUMMARY2, NOTE1);
+
+		// Accepting a new application makes it old
+		appList.executeCommand(2, COMMAND);
+		assertEquals(1, appList.getAppsByType(A_NEW).size());
+		assertEquals(1, appList.getAppsByType(A_NEW).get(0).getAppId());
+		assertEquals(2, appList.getAppsByType(A_OLD).size());
+		assertEquals(2, appList.getAppsByType(A_OLD).get(0).getAppId());
+		assertEquals(3, appList.getAppsByType(A_OLD).get(1).getAppId());
+
+		// Deleted applications leave the index
+		appList.deleteAppById(3);
+		assertEquals(1, appList.getAppsByType(A_OLD).size());
+		assertEquals(0, appList.getAppsByType("Hired").size());
+		assertEquals(0, appList.getAppsByType("Unknown").size());
+		assertEquals(1, appList.countByType(A_NEW));
+		assertEquals(1, appList.countByType(A_OLD));
+		assertEquals(0, appList.countByType("Unknown"));
+		assertThrows(IllegalArgumentException.class, () -> appList.countByType(null));
+	}
+
+	/**
+	 * Tests the getAppsByState and countByState methods
+	 */
+	@Test
+	public void testGetAppsByState() {
+		AppList appList = new AppList();
+		appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		appList.addApp(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		appList.addApp(OLD_APP_TYPE, SUMMARY2, NOTE1);
+		assertEquals(3, appList.countByState(REVIEW_NAME));
+		assertEquals(0, appList.countByState(INTERVIEW_NAME));
+
+		// Accepted applications move to the interview state
+		appList.executeCommand(3, COMMAND);
+		appList.executeCommand(1, COMMAND);
+		assertEquals(1, appList.countByState(REVIEW_NAME));
+		assertEquals(2, appList.countByState(INTERVIEW_NAME));
+		assertEquals(1, appList.getAppsByState(INTERVIEW_NAME).get(0).getAppId());
+		assertEquals(3, appList.getAppsByState(INTERVIEW_NAME).get(1).getAppId());
+		assertEquals(2, appList.getAppsByState(REVIEW_NAME).get(0).getAppId());
+
+		// Deleted applications leave the index
+		appList.deleteAppById(1);
+		assertEquals(1, appList.countByState(INTERVIEW_NAME));
+
+		// Loaded applications are indexed by their state
+		appList.addApps(AppReader.readAppsFromFile(testFile));
+		assertEquals(appList.getApps().size(), appList.countByState(REVIEW_NAME)
+				+ appList.countByState(INTERVIEW_NAME) + appList.countByState("Waitlist")
+				+ appList.countByState("RefCheck") + appList.countByState("Offer") + appList.countByState("Closed"));
+
+		// Invalid states
+		assertEquals(0, appList.countByState("Unknown"));
+		assertEquals(0, appList.getAppsByState("Unknown").size());
+		assertThrows(IllegalArgumentException.class, () -> appList.countByState(null));
+		assertThrows(IllegalArgumentException.class, () -> appList.getAppsByState(null));
+	}
+
+	/**
+	 * Tests the getAppsByReviewer method
+	 */
+	@Test
+	public void testGetAppsByReviewer() {
+		AppList appList = new AppList();
+		appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		appList.addApp(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		appList.addApp(OLD_APP_TYPE, SUMMARY2, NOTE1);
+		assertEquals(0, appList.getAppsByReviewer(RID).size());
+
+		// Accepting assigns the reviewer
+		appList.executeCommand(3, COMMAND);
+		appList.executeCommand(1, COMMAND);
+		assertEquals(2, appList.getAppsByReviewer(RID).size());
+		assertEquals(1, appList.getAppsByReviewer(RID).get(0).getAppId());
+		assertEquals(3, appList.getAppsByReviewer(RID).get(1).getAppId());
+
+		// Rejecting without a reviewer clears the assignment
+		appList.executeCommand(1, new Command(CommandValue.REJECT, null, Resolution.INTCOMPLETED, NOTE));
+		assertEquals(1, appList.getAppsByReviewer(RID).size());
+
+		// Deleted applications leave the index
+		appList.deleteAppById(3);
+		assertEquals(0, appList.getAppsByReviewer(RID).size());
+		assertThrows(IllegalArgumentException.class, () -> appList.getAppsByReviewer(null));
+	}
+
+	/**
+	 * Tests that the columns follow the list through commands and deletes
+	 */
+	@Test
+	public void testGetColumns() {
+		AppList appList = new AppList();
+		appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		appList.addApp(OLD_APP_TYPE, SUMMARY2, NOTE2);
+		appList.executeCommand(1, COMMAND);
+		AppColumns columns = appList.getColumns();
+		assertEquals(2, columns.size());
+		assertEquals(INTERVIEW_NAME, columns.getStateName(0));
+		assertEquals(A_OLD, columns.getAppType(0));
+		assertEquals(RID, columns.getReviewer(0));
+		appList.deleteAppById(1);
+		assertEquals(1, columns.size());
+		assertEquals(2, columns.getAppId(0));
+
+		appList.addApps(AppReader.readAppsFromFile(testFile));
+		assertEquals(appList.getApps().size(), appList.getColumns().size());
+	}
+
 	/**
 	 * Tests the getAppById method
 	 */
@@ -202,4 +323,32 @@ public class AppListTest {
 		assertEquals(app3.toString(), appList.getApps().get(1).toString());
 	}
 
+	/**
+	 * Tests the getDirtyIds and clearDirtyIds methods
+	 */
+	@Test
+	public void testDirtyIds() {
+		AppList appList = new AppList();
+		appList.addApp(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		appList.addApp(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		appList.addApp(OLD_APP_TYPE, SUMMARY1, NOTE1);
+		assertEquals(3, appList.getDirtyIds().length);
+		appList.clearDirtyIds();
+		assertEquals(0, appList.getDirtyIds().length);
+
+		appList.executeCommand(3, new Command(CommandValue.ACCEPT, "ghfrain", null, NOTE1));
+		appList.deleteAppById(1);
+		appList.deleteAppById(9);
+		int[] dirty = appList.getDirtyIds();
+		assertEquals(2, dirty.length);
+		assertEquals(1, dirty[0]);
+		assertEquals(3, dirty[1]);
+
+		appList.addApps(new ArrayList<Application>(appList.getApps()));
+		assertEquals(0, appList.getDirtyIds().length);
+
+		// A rejected command leaves the application clean
+		assertEquals(false, appList.getAppById(2).tryUpdate(new Command(CommandValue.REOPEN, null, null, NOTE1)));
+		assertEquals(0, appList.getDirtyIds().length);
+	}
 }
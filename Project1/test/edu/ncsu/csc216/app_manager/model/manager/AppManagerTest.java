@@ -1,9 +1,16 @@
 package edu.ncsu.csc216.app_manager.model.manager;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.app_manager.model.application.Application;
@@ -11,6 +18,7 @@ import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
 import edu.ncsu.csc216.app_manager.model.command.Command;
 import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
 import edu.ncsu.csc216.app_manager.model.command.Command.Resolution;
+import edu.ncsu.csc216.app_manager.model.io.AppReader;
 
 /**
  * Tests the AppManager class
@@ -176,6 +184,92 @@ public class AppManagerTest {
 		assertThrows(IllegalArgumentException.class, () -> AppManager.getInstance().getAppListAsArrayByAppType(null));
 	}
 	
+	/**
+	 * Tests that the published table rows follow commands, adds and deletes
+	 * without changing arrays that were already read
+	 */
+	@Test
+	public void testGetAppListAsArrayAfterChanges() {
+		AppManager.getInstance().createNewAppList();
+		AppManager.getInstance().addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		AppManager.getInstance().addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		Object[][] list = AppManager.getInstance().getAppListAsArray();
+		Object[][] listNew = AppManager.getInstance().getAppListAsArrayByAppType(A_NEW);
+		assertEquals(2, listNew.length);
+
+		// A command only replaces the row of the application
+		AppManager.getInstance().executeCommand(1, COMMAND);
+		Object[][] updated = AppManager.getInstance().getAppListAsArray();
+		assertEquals(REVIEW_NAME, list[0][1]);
+		assertEquals(A_NEW, list[0][2]);
+		assertEquals(INTERVIEW_NAME, updated[0][1]);
+		assertEquals(A_OLD, updated[0][2]);
+		assertSame(list[1], updated[1]);
+		assertEquals(2, listNew.length);
+		listNew = AppManager.getInstance().getAppListAsArrayByAppType(A_NEW);
+		assertEquals(1, listNew.length);
+		assertEquals(2, listNew[0][0]);
+		assertEquals(1, AppManager.getInstance().getAppListAsArrayByAppType(A_OLD).length);
+
+		// Adds and deletes change the rows
+		AppManager.getInstance().addAppToList(OLD_APP_TYPE, SUMMARY3, NOTE3);
+		AppManager.getInstance().deleteAppById(1);
+		list = AppManager.getInstance().getAppListAsArray();
+		assertEquals(2, list.length);
+		assertEquals(2, list[0][0]);
+		assertEquals(3, list[1][0]);
+		assertEquals(A_OLD, list[1][2]);
+		assertEquals(1, AppManager.getInstance().getAppListAsArrayByAppType(A_OLD).length);
+	}
+
+	/**
+	 * Tests the getAppCount and getAppCountByAppType methods
+	 */
+	@Test
+	public void testGetAppCount() {
+		AppManager.getInstance().createNewAppList();
+		assertEquals(0, AppManager.getInstance().getAppCount());
+		AppManager.getInstance().addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		AppManager.getInstance().addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		AppManager.getInstance().addAppToList(OLD_APP_TYPE, SUMMARY3, NOTE3);
+		assertEquals(3, AppManager.getInstance().getAppCount());
+		assertEquals(2, AppManager.getInstance().getAppCountByAppType(A_NEW));
+		assertEquals(1, AppManager.getInstance().getAppCountByAppType(A_OLD));
+		assertThrows(IllegalArgumentException.class, () -> AppManager.getInstance().getAppCountByAppType(null));
+	}
+
+	/**
+	 * Tests the getAppListPage and getAppListPageByAppType methods
+	 */
+	@Test
+	public void testGetAppListPage() {
+		AppManager.getInstance().createNewAppList();
+		for (int i = 0; i < 5; i++) {
+			AppManager.getInstance().addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+			AppManager.getInstance().addAppToList(OLD_APP_TYPE, SUMMARY3, NOTE3);
+		}
+		Object[][] page = AppManager.getInstance().getAppListPage(2, 3);
+		assertEquals(3, page.length);
+		assertEquals(3, page[0][0]);
+		assertEquals(5, page[2][0]);
+		assertEquals(SUMMARY1, page[2][3]);
+		assertEquals(2, AppManager.getInstance().getAppListPage(8, 5).length);
+		assertEquals(0, AppManager.getInstance().getAppListPage(12, 5).length);
+
+		Object[][] oldPage = AppManager.getInstance().getAppListPageByAppType(A_OLD, 1, 2);
+		assertEquals(2, oldPage.length);
+		assertEquals(4, oldPage[0][0]);
+		assertEquals(6, oldPage[1][0]);
+		assertEquals(A_OLD, oldPage[1][2]);
+		assertEquals(1, AppManager.getInstance().getAppListPageByAppType(A_OLD, 4, 2).length);
+
+		// Invalid windows
+		assertThrows(IllegalArgumentException.class, () -> AppManager.getInstance().getAppListPage(-1, 2));
+		assertThrows(IllegalArgumentException.class, () -> AppManager.getInstance().getAppListPage(0, -2));
+		assertThrows(IllegalArgumentException.class,
+				() -> AppManager.getInstance().getAppListPageByAppType(null, 0, 2));
+	}
+
 	/**
 	 * Tests the getAppById method
 	 */
@@ -211,6 +305,178 @@ public class AppManagerTest {
 		assertEquals(false, app.isProcessed());
 	}
 	
+	/**
+	 * Tests that commands on different applications can run at the same time
+	 * without losing changes to the indexes or the snapshot
+	 * 
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testExecuteCommandConcurrently() throws InterruptedException {
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		for (int i = 0; i < 400; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		}
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t + 1;
+			threads[t] = new Thread(() -> {
+				for (int id = first; id <= 400; id += threads.length) {
+					manager.executeCommand(id, COMMAND);
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(400, manager.getAppCountByAppType(A_OLD));
+		assertEquals(0, manager.getAppCountByAppType(A_NEW));
+		assertEquals(400, manager.getAppsByReviewer(RID).size());
+		Object[][] rows = manager.getAppListAsArray();
+		for (int i = 0; i < rows.length; i++) {
+			assertEquals(i + 1, rows[i][0]);
+			assertEquals(INTERVIEW_NAME, rows[i][1]);
+		}
+	}
+
+	/**
+	 * Tests the executeCommands method
+	 */
+	@Test
+	public void testExecuteCommands() {
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		manager.addAppToList(OLD_APP_TYPE, SUMMARY3, NOTE3);
+		Command reopen = new Command(CommandValue.REOPEN, RID, NR, NOTE);
+		int[] ids = { 1, 2, 1, 9, 3 };
+		Command[] commands = { COMMAND, COMMAND, COMMAND, COMMAND, reopen };
+		CommandResult[] results = manager.executeCommands(ids, commands);
+		assertEquals(CommandResult.OK, results[0]);
+		assertEquals(CommandResult.OK, results[1]);
+		assertEquals(CommandResult.OK, results[2]);
+		assertEquals(CommandResult.UNKNOWN_ID, results[3]);
+		assertEquals(CommandResult.UNSUPPORTED, results[4]);
+
+		// Commands on the same application run in batch order
+		assertEquals("RefCheck", manager.getAppById(1).getStateName());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(2).getStateName());
+		assertEquals(REVIEW_NAME, manager.getAppById(3).getStateName());
+		Object[][] rows = manager.getAppListAsArray();
+		assertEquals("RefCheck", rows[0][1]);
+		assertEquals(INTERVIEW_NAME, rows[1][1]);
+		assertEquals(0, manager.getAppCountByAppType(A_NEW));
+
+		// Large batches are split across tasks
+		for (int i = 0; i < 1000; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		}
+		ids = new int[1000];
+		commands = new Command[1000];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = i + 4;
+			commands[i] = COMMAND;
+		}
+		results = manager.executeCommands(ids, commands);
+		for (CommandResult result : results) {
+			assertEquals(CommandResult.OK, result);
+		}
+		assertEquals(1002, manager.getAppsByReviewer(RID).size());
+
+		// Invalid batches
+		assertThrows(IllegalArgumentException.class, () -> manager.executeCommands(null, new Command[0]));
+		assertThrows(IllegalArgumentException.class, () -> manager.executeCommands(new int[1], new Command[0]));
+		assertThrows(IllegalArgumentException.class, () -> manager.executeCommands(new int[1], new Command[1]));
+	}
+
+	/**
+	 * Tests that applications reopened into review and waitlisted from an
+	 * interview without a reviewer are saved in states the readers load back
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	@Test
+	public void testSaveReopenedAndWaitlisted() throws IOException {
+		String fileName = Files.createTempDirectory("roundtrip").resolve("apps.txt").toString();
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		manager.executeCommand(1, new Command(CommandValue.REJECT, "bob", Resolution.REVCOMPLETED, NOTE));
+		manager.executeCommand(1, new Command(CommandValue.REOPEN, "amy", NR, NOTE));
+		manager.executeCommand(2, new Command(CommandValue.ACCEPT, "bob", NR, NOTE));
+		manager.executeCommand(2, new Command(CommandValue.STANDBY, null, Resolution.INTCOMPLETED, NOTE));
+		assertEquals(null, manager.getAppById(1).getReviewer());
+		assertEquals("bob", manager.getAppById(2).getReviewer());
+		String expected1 = manager.getAppById(1).toString();
+		String expected2 = manager.getAppById(2).toString();
+		manager.saveAppsToFile(fileName);
+
+		assertEquals(2, AppReader.readAppsFromFile(fileName).size());
+		manager.loadAppsFromFile(fileName);
+		assertEquals(REVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(expected1, manager.getAppById(1).toString());
+		assertEquals("Waitlist", manager.getAppById(2).getStateName());
+		assertEquals(expected2, manager.getAppById(2).toString());
+
+		// The waitlisted application can still be reopened into reference check
+		manager.executeCommand(2, new Command(CommandValue.REOPEN, "bob", Resolution.INTCOMPLETED, NOTE));
+		assertEquals("RefCheck", manager.getAppById(2).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests the validateCommands method
+	 */
+	@Test
+	public void testValidateCommands() {
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		manager.addAppToList(OLD_APP_TYPE, SUMMARY2, NOTE2);
+		Command standby = new Command(CommandValue.STANDBY, RID, Resolution.REVCOMPLETED, NOTE);
+		int[] ids = { 1, 2, 2, 7 };
+		Command[] commands = { standby, standby, COMMAND, COMMAND };
+		CommandResult[] results = manager.validateCommands(ids, commands);
+		assertEquals(CommandResult.OK, results[0]);
+		assertEquals(CommandResult.UNSUPPORTED, results[1]);
+		assertEquals(CommandResult.OK, results[2]);
+		assertEquals(CommandResult.UNKNOWN_ID, results[3]);
+
+		// Nothing is executed
+		assertEquals(REVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(REVIEW_NAME, manager.getAppById(2).getStateName());
+		assertThrows(IllegalArgumentException.class, () -> manager.validateCommands(ids, null));
+	}
+
+	/**
+	 * Tests the getAppsByReviewer method
+	 */
+	@Test
+	public void testGetAppsByReviewer() {
+		AppManager.getInstance().createNewAppList();
+		AppManager.getInstance().loadAppsFromFile(actualTestFile);
+		assertEquals(0, AppManager.getInstance().getAppsByReviewer(RID).size());
+		AppManager.getInstance().executeCommand(2, COMMAND);
+		assertEquals(1, AppManager.getInstance().getAppsByReviewer(RID).size());
+		assertEquals(2, AppManager.getInstance().getAppsByReviewer(RID).get(0).getAppId());
+		assertThrows(IllegalArgumentException.class, () -> AppManager.getInstance().getAppsByReviewer(null));
+
+		// The applications are immutable views that later commands do not change
+		Application view = AppManager.getInstance().getAppsByReviewer(RID).get(0);
+		assertEquals(true, view.isView());
+		assertThrows(UnsupportedOperationException.class, () -> view.update(COMMAND));
+		AppManager.getInstance().executeCommand(2, COMMAND);
+		assertEquals(INTERVIEW_NAME, view.getStateName());
+		assertEquals("RefCheck", AppManager.getInstance().getAppsByReviewer(RID).get(0).getStateName());
+		AppManager.getInstance().createNewAppList();
+	}
+
 	/**
 	 * Tests the deleteAppById method
 	 */
@@ -266,4 +532,263 @@ public class AppManagerTest {
 		assertEquals(SUMMARY3, list[2][3]);
 		
 	}
+
+	/**
+	 * Tests that changes appended to the journal are recovered on top of the last
+	 * saved snapshot
+	 * 
+	 * @throws IOException if the temporary files cannot be created
+	 */
+	@Test
+	public void testOpenJournal() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		String snapshotFile = dir.resolve("apps.txt").toString();
+		String journalFile = dir.resolve("apps.journal").toString();
+		AppManager manager = AppManager.getInstance();
+		assertThrows(IllegalArgumentException.class, () -> manager.openJournal(null, journalFile, 1));
+		assertThrows(IllegalArgumentException.class, () -> manager.openJournal(snapshotFile, journalFile, 0));
+
+		manager.openJournal(snapshotFile, journalFile, 2);
+		assertEquals(0, manager.getAppCount());
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		manager.addAppToList(OLD_APP_TYPE, SUMMARY3, NOTE3);
+		manager.executeCommand(1, COMMAND);
+		manager.executeCommand(9, COMMAND);
+		manager.deleteAppById(2);
+		manager.executeCommands(new int[] { 3, 3 }, new Command[] { COMMAND, COMMAND });
+		manager.closeJournal();
+
+		// Replays the whole journal without a snapshot
+		manager.createNewAppList();
+		manager.openJournal(snapshotFile, journalFile, 2);
+		assertEquals(2, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(null, manager.getAppById(2));
+		assertEquals("RefCheck", manager.getAppById(3).getStateName());
+
+		// Saving the snapshot truncates the journal
+		manager.saveAppsToFile(snapshotFile);
+		assertEquals(0, new File(journalFile).length());
+		manager.executeCommand(1, COMMAND);
+		manager.addAppToList(OLD_APP_TYPE, SUMMARY1, NOTE1);
+
+		// Loading a list closes the journal, so later changes are not journaled
+		manager.loadAppsFromFile(actualTestFile);
+		manager.deleteAppById(1);
+
+		manager.openJournal(snapshotFile, journalFile, 2);
+		assertEquals(3, manager.getAppCount());
+		assertEquals("RefCheck", manager.getAppById(1).getStateName());
+		assertEquals(REVIEW_NAME, manager.getAppById(4).getStateName());
+		assertEquals(A_OLD, manager.getAppById(4).getAppType());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests that records already in the snapshot are not replayed again when a
+	 * crash kept the journal from being truncated after the snapshot was saved
+	 * 
+	 * @throws IOException if the temporary files cannot be changed
+	 */
+	@Test
+	public void testOpenJournalAfterSnapshot() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		String snapshotFile = dir.resolve("apps.txt").toString();
+		Path journalFile = dir.resolve("apps.journal");
+		AppManager manager = AppManager.getInstance();
+		manager.openJournal(snapshotFile, journalFile.toString(), 1);
+		for (int i = 0; i < 10; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		}
+		manager.executeCommand(1, COMMAND);
+
+		// A full save, with the journal as it was before the truncate
+		byte[] records = Files.readAllBytes(journalFile);
+		manager.saveAppsToFile(snapshotFile);
+		manager.closeJournal();
+		Files.write(journalFile, records);
+		manager.openJournal(snapshotFile, journalFile.toString(), 1);
+		assertEquals(10, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(2, manager.getAppById(1).getNotes().size());
+
+		// A delta save, with the journal as it was before the truncate
+		manager.executeCommand(2, COMMAND);
+		manager.addAppToList(OLD_APP_TYPE, SUMMARY2, NOTE2);
+		records = Files.readAllBytes(journalFile);
+		manager.compactJournal();
+		assertEquals(true, new File(snapshotFile + ".delta").length() > 0);
+		manager.closeJournal();
+		Files.write(journalFile, records);
+		manager.openJournal(snapshotFile, journalFile.toString(), 1);
+		assertEquals(11, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(2).getStateName());
+		assertEquals(2, manager.getAppById(2).getNotes().size());
+
+		// Later records are numbered after the ones in the snapshot
+		manager.executeCommand(3, COMMAND);
+		manager.closeJournal();
+		manager.openJournal(snapshotFile, journalFile.toString(), 1);
+		assertEquals(INTERVIEW_NAME, manager.getAppById(2).getStateName());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(3).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests that a journal whose last record was cut short by a crash can be
+	 * appended to and opened again
+	 * 
+	 * @throws IOException if the temporary files cannot be changed
+	 */
+	@Test
+	public void testOpenJournalTornRecord() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		String snapshotFile = dir.resolve("apps.txt").toString();
+		String journalFile = dir.resolve("apps.journal").toString();
+		AppManager manager = AppManager.getInstance();
+		assertThrows(IllegalArgumentException.class, () -> manager.openJournal(snapshotFile, journalFile, 1, 0));
+		manager.openJournal(snapshotFile, journalFile, 1, 1000);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY2, NOTE2);
+		manager.closeJournal();
+		try (RandomAccessFile raf = new RandomAccessFile(journalFile, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+
+		manager.openJournal(snapshotFile, journalFile, 1, 1000);
+		assertEquals(1, manager.getAppCount());
+		manager.executeCommand(1, COMMAND);
+		manager.closeJournal();
+		manager.openJournal(snapshotFile, journalFile, 1, 1000);
+		assertEquals(1, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests the saveChangesToFile method
+	 * 
+	 * @throws IOException if the temporary directory cannot be created
+	 */
+	@Test
+	public void testSaveChangesToFile() throws IOException {
+		Path dir = Files.createTempDirectory("changes");
+		String fileName = dir.resolve("apps.txt").toString();
+		File delta = new File(fileName + ".delta");
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		for (int i = 0; i < 10; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY1, NOTE1);
+		}
+
+		// The list was never saved to the file, so the whole list is saved
+		manager.saveChangesToFile(fileName);
+		long length = new File(fileName).length();
+		assertEquals(false, delta.exists());
+
+		manager.executeCommand(1, COMMAND);
+		manager.deleteAppById(2);
+		manager.saveChangesToFile(fileName);
+		assertEquals(length, new File(fileName).length());
+		assertEquals(true, delta.length() > 0);
+		manager.saveChangesToFile(fileName);
+
+		manager.createNewAppList();
+		manager.loadAppsFromFile(fileName);
+		assertEquals(9, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(null, manager.getAppById(2));
+
+		// Changes saved after a load name the loaded file
+		manager.deleteAppById(10);
+		manager.saveChangesToFile(fileName);
+		assertEquals(length, new File(fileName).length());
+		manager.createNewAppList();
+		manager.loadAppsFromFile(fileName);
+		assertEquals(8, manager.getAppCount());
+		assertEquals(null, manager.getAppById(10));
+
+		// Changing most of the list saves the whole list
+		manager.executeCommands(new int[] { 3, 4, 5, 6 }, new Command[] { COMMAND, COMMAND, COMMAND, COMMAND });
+		manager.saveChangesToFile(fileName);
+		assertEquals(false, delta.exists());
+		manager.createNewAppList();
+		manager.loadAppsFromFile(fileName);
+		assertEquals(INTERVIEW_NAME, manager.getAppById(6).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests the saveAppsToBinaryFile method
+	 * 
+	 * @throws IOException if the temporary directory cannot be created
+	 */
+	@Test
+	public void testSaveAppsToBinaryFile() throws IOException {
+		String fileName = Files.createTempDirectory("binary").resolve("apps.bin").toString();
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		manager.loadAppsFromFile(actualTestFile);
+		manager.executeCommand(1, COMMAND);
+		manager.saveAppsToBinaryFile(fileName);
+		Object[][] expected = manager.getAppListAsArray();
+
+		manager.createNewAppList();
+		manager.loadAppsFromFile(fileName);
+		Object[][] actual = manager.getAppListAsArray();
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			for (int j = 0; j < expected[i].length; j++) {
+				assertEquals(expected[i][j], actual[i][j]);
+			}
+		}
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests loading a list with lazy notes and saving it over the file it was
+	 * loaded from
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	@Test
+	public void testLoadAppsFromFileWithLazyNotes() throws IOException {
+		Path file = Files.createTempDirectory("lazy").resolve("apps.txt");
+		Files.copy(new File(actualTestFile).toPath(), file);
+		String fileName = file.toString();
+		AppManager manager = AppManager.getInstance();
+		manager.loadAppsFromFile(actualTestFile);
+		Object[][] expected = manager.getAppListAsArray();
+		String notes = manager.getAppById(1).getNotesString();
+
+		manager.loadAppsFromFile(fileName, true);
+		assertEquals(expected.length, manager.getAppListAsArray().length);
+		manager.executeCommand(1, COMMAND);
+		manager.saveAppsToFile(fileName);
+		manager.createNewAppList();
+		manager.loadAppsFromFile(fileName, true);
+		Object[][] actual = manager.getAppListAsArray();
+		assertEquals(expected.length, actual.length);
+		for (int i = 1; i < expected.length; i++) {
+			for (int j = 0; j < expected[i].length; j++) {
+				assertEquals(expected[i][j], actual[i][j]);
+			}
+		}
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(notes + "-[Interview] " + NOTE + "\n", manager.getAppById(1).getNotesString());
+
+		// Replacing a list whose notes are not all loaded closes its file
+		manager.loadAppsFromFile(fileName, true);
+		Application unloaded = manager.getAppById(1);
+		manager.createNewAppList();
+		assertThrows(IllegalArgumentException.class, () -> unloaded.getNotes());
+		manager.loadAppsFromFile(fileName, true);
+		Application replaced = manager.getAppById(1);
+		manager.loadAppsFromFile(fileName, true);
+		assertThrows(IllegalArgumentException.class, () -> replaced.getNotes());
+		manager.createNewAppList();
+	}
 }
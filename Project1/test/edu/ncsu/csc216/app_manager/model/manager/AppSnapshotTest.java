@@ -0,0 +1,206 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application;
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+
+/**
+ * Tests the AppSnapshot class
+ *
+ * @author Gabe Frain
+ */
+public class AppSnapshotTest {
+
+	/** New Application Type */
+	private static final AppType NEW_APP_TYPE = AppType.NEW;
+	/** Old Application Type */
+	private static final AppType OLD_APP_TYPE = AppType.OLD;
+	/** New Application Type String */
+	public static final String A_NEW = "New";
+	/** Old Application Type String */
+	public static final String A_OLD = "Old";
+	/** Review State String */
+	public static final String REVIEW_NAME = "Review";
+	/** Interview State String */
+	public static final String INTERVIEW_NAME = "Interview";
+	/** Summary String */
+	private static final String SUMMARY = "Great work";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+	/** Accept Command */
+	private static final Command ACCEPT = new Command(CommandValue.ACCEPT, "ghfrain", null, NOTE);
+
+	/**
+	 * Builds a list of three new applications and one old application
+	 *
+	 * @return application list
+	 */
+	private AppList buildList() {
+		AppList list = new AppList();
+		list.addApp(NEW_APP_TYPE, SUMMARY, NOTE);
+		list.addApp(NEW_APP_TYPE, SUMMARY, NOTE);
+		list.addApp(OLD_APP_TYPE, SUMMARY, NOTE);
+		list.addApp(NEW_APP_TYPE, SUMMARY, NOTE);
+		return list;
+	}
+
+	/**
+	 * Tests both AppSnapshot Constructors
+	 */
+	@Test
+	public void testAppSnapshot() {
+		AppSnapshot empty = new AppSnapshot();
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getRows().length);
+		assertEquals(0, empty.countByAppType(A_NEW));
+
+		AppList list = buildList();
+		AppSnapshot snapshot = new AppSnapshot(list);
+		assertEquals(4, snapshot.size());
+		assertNotSame(list.getAppById(3), snapshot.getAppById(3));
+		assertTrue(snapshot.getAppById(3).isView());
+		assertEquals(list.getAppById(3).toString(), snapshot.getAppById(3).toString());
+		assertNull(snapshot.getAppById(5));
+		assertEquals(3, snapshot.countByAppType(A_NEW));
+		assertEquals(1, snapshot.countByAppType(A_OLD));
+		assertEquals(0, snapshot.countByAppType("Unknown"));
+		assertEquals(4, snapshot.getRowsByAppType(A_NEW)[2][0]);
+	}
+
+	/**
+	 * Tests the getPage and getPageByAppType methods
+	 */
+	@Test
+	public void testGetPage() {
+		AppSnapshot snapshot = new AppSnapshot(buildList());
+		Object[][] page = snapshot.getPage(1, 2);
+		assertEquals(2, page.length);
+		assertEquals(2, page[0][0]);
+		assertEquals(3, page[1][0]);
+		assertEquals(0, snapshot.getPage(10, 2).length);
+		page = snapshot.getPageByAppType(A_NEW, 1, 5);
+		assertEquals(2, page.length);
+		assertEquals(4, page[1][0]);
+	}
+
+	/**
+	 * Tests the withUpdated method
+	 */
+	@Test
+	public void testWithUpdated() {
+		AppList list = buildList();
+		AppSnapshot before = new AppSnapshot(list);
+		list.executeCommand(2, ACCEPT);
+		AppSnapshot after = before.withUpdated(list.getAppById(2).getView());
+
+		// The old snapshot and its views are unchanged
+		assertEquals(REVIEW_NAME, before.getRows()[1][1]);
+		assertEquals(3, before.countByAppType(A_NEW));
+		Application view = before.getAppById(2);
+		assertEquals(REVIEW_NAME, view.getStateName());
+		assertEquals(1, view.getNotes().size());
+		assertThrows(UnsupportedOperationException.class, () -> view.update(ACCEPT));
+		assertEquals(INTERVIEW_NAME, after.getAppById(2).getStateName());
+		assertEquals(2, after.getAppById(2).getNotes().size());
+
+		// The new snapshot has the new row and shares the others
+		assertEquals(INTERVIEW_NAME, after.getRows()[1][1]);
+		assertEquals(A_OLD, after.getRows()[1][2]);
+		assertSame(before.getRows()[0], after.getRows()[0]);
+		assertEquals(2, after.countByAppType(A_NEW));
+		assertEquals(2, after.getRowsByAppType(A_OLD)[0][0]);
+		assertEquals(3, after.getRowsByAppType(A_OLD)[1][0]);
+
+		// Unknown ids leave the snapshot as it is
+		assertSame(after, after.withUpdated(new Application(9, NEW_APP_TYPE, SUMMARY, NOTE).getView(), null));
+	}
+
+	/**
+	 * Tests the withAdded and withRemoved methods
+	 */
+	@Test
+	public void testWithAddedAndRemoved() {
+		AppList list = buildList();
+		AppSnapshot before = new AppSnapshot(list);
+		int id = list.addApp(OLD_APP_TYPE, SUMMARY, NOTE);
+		AppSnapshot added = before.withAdded(list.getAppById(id).getView());
+		assertEquals(4, before.size());
+		assertEquals(5, added.size());
+		assertEquals(list.getAppById(5).toString(), added.getAppById(5).toString());
+		assertEquals(2, added.countByAppType(A_OLD));
+		assertSame(added, added.withAdded(list.getAppById(id).getView()));
+
+		list.deleteAppById(1);
+		AppSnapshot removed = added.withRemoved(1);
+		assertEquals(4, removed.size());
+		assertNull(removed.getAppById(1));
+		assertEquals(2, removed.getRows()[0][0]);
+		assertEquals(2, removed.countByAppType(A_NEW));
+		assertEquals(5, added.size());
+		assertSame(removed, removed.withRemoved(1));
+	}
+
+	/**
+	 * Tests that a snapshot derived through many chunks of changes matches a
+	 * snapshot built from the list, and that an update shares every chunk it does
+	 * not change
+	 */
+	@Test
+	public void testChunks() {
+		AppList list = new AppList();
+		for (int i = 0; i < 1000; i++) {
+			list.addApp(i % 4 == 0 ? OLD_APP_TYPE : NEW_APP_TYPE, SUMMARY, NOTE);
+		}
+		AppSnapshot snapshot = new AppSnapshot(list);
+		AppSnapshot first = snapshot;
+		for (int id = 3; id <= 1000; id += 3) {
+			list.executeCommand(id, ACCEPT);
+			snapshot = snapshot.withUpdated(list.getAppById(id).getView());
+		}
+		for (int id = 7; id <= 1000; id += 7) {
+			list.deleteAppById(id);
+			snapshot = snapshot.withRemoved(id);
+		}
+		for (int i = 0; i < 300; i++) {
+			int id = list.addApp(i % 2 == 0 ? OLD_APP_TYPE : NEW_APP_TYPE, SUMMARY, NOTE);
+			snapshot = snapshot.withAdded(list.getAppById(id).getView());
+		}
+		AppSnapshot built = new AppSnapshot(list);
+		assertEquals(built.size(), snapshot.size());
+		assertArrayEquals(built.getRows(), snapshot.getRows());
+		for (String type : new String[] { A_NEW, A_OLD }) {
+			assertEquals(built.countByAppType(type), snapshot.countByAppType(type));
+			assertArrayEquals(built.getRowsByAppType(type), snapshot.getRowsByAppType(type));
+			for (int offset = 0; offset < built.countByAppType(type); offset += 61) {
+				assertArrayEquals(built.getPageByAppType(type, offset, 70),
+						snapshot.getPageByAppType(type, offset, 70));
+			}
+		}
+		for (int offset = 0; offset < built.size(); offset += 59) {
+			assertArrayEquals(built.getPage(offset, 130), snapshot.getPage(offset, 130));
+		}
+		for (int id = 1; id <= 1300; id++) {
+			Application app = list.getAppById(id);
+			assertEquals(app == null ? null : app.toString(),
+					snapshot.getAppById(id) == null ? null : snapshot.getAppById(id).toString());
+		}
+
+		// An update copies the row it changes and shares the rest
+		list.executeCommand(1000, ACCEPT);
+		AppSnapshot updated = first.withUpdated(list.getAppById(1000).getView());
+		assertSame(first.getRows()[0], updated.getRows()[0]);
+		assertSame(first.getRows()[998], updated.getRows()[998]);
+		assertNotSame(first.getRows()[999], updated.getRows()[999]);
+	}
+}
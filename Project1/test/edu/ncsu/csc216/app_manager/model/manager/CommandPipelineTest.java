@@ -0,0 +1,126 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+import edu.ncsu.csc216.app_manager.model.manager.CommandPipeline.WaitStrategy;
+
+/**
+ * Tests the CommandPipeline class
+ *
+ * @author Gabe Frain
+ */
+public class CommandPipelineTest {
+
+	/** New Application Type */
+	private static final AppType NEW_APP_TYPE = AppType.NEW;
+	/** Old Application Type String */
+	public static final String A_OLD = "Old";
+	/** Interview State String */
+	public static final String INTERVIEW_NAME = "Interview";
+	/** Reference Check State String */
+	public static final String REFCHK_NAME = "RefCheck";
+	/** Offer State String */
+	public static final String OFFER_NAME = "Offer";
+	/** Summary String */
+	private static final String SUMMARY = "Great work";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+	/** Reviewer Id */
+	private static final String RID = "ghfrain";
+	/** Accept Command */
+	private static final Command ACCEPT = new Command(CommandValue.ACCEPT, RID, null, NOTE);
+
+	/**
+	 * Tests the CommandPipeline Constructor
+	 */
+	@Test
+	public void testCommandPipeline() {
+		AppManager manager = AppManager.getInstance();
+		assertEquals(16, new CommandPipeline(manager, 16, WaitStrategy.PARK).getCapacity());
+		assertEquals(16, new CommandPipeline(manager, 9, WaitStrategy.PARK).getCapacity());
+		assertEquals(1, new CommandPipeline(manager, 1, WaitStrategy.PARK).getCapacity());
+		assertThrows(IllegalArgumentException.class, () -> new CommandPipeline(null, 16, WaitStrategy.PARK));
+		assertThrows(IllegalArgumentException.class, () -> new CommandPipeline(manager, 16, null));
+		assertThrows(IllegalArgumentException.class, () -> new CommandPipeline(manager, 0, WaitStrategy.PARK));
+	}
+
+	/**
+	 * Tests that published commands are executed in publish order
+	 */
+	@Test
+	public void testPublish() {
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		CommandPipeline pipeline = new CommandPipeline(manager, 4, WaitStrategy.YIELD);
+		assertThrows(IllegalStateException.class, () -> pipeline.publish(1, ACCEPT));
+		pipeline.start();
+		assertThrows(IllegalStateException.class, () -> pipeline.start());
+		assertThrows(IllegalArgumentException.class, () -> pipeline.publish(1, null));
+		pipeline.publish(1, ACCEPT);
+		pipeline.publish(1, ACCEPT);
+		pipeline.publish(2, ACCEPT);
+		pipeline.publish(9, ACCEPT);
+		pipeline.awaitDrained();
+		assertEquals(0, pipeline.getQueueDepth());
+		assertEquals(4, pipeline.getDrainedCount());
+		assertEquals(1, pipeline.getFailedCount());
+		assertTrue(pipeline.getBatchCount() >= 1);
+		assertTrue(pipeline.getAverageDrainLatencyNanos() > 0);
+		assertTrue(pipeline.getLastDrainLatencyNanos() > 0);
+		assertEquals(REFCHK_NAME, manager.getAppById(1).getStateName());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(2).getStateName());
+		pipeline.close();
+		assertThrows(IllegalStateException.class, () -> pipeline.publish(1, ACCEPT));
+	}
+
+	/**
+	 * Tests that commands from many producers all reach the applications when the
+	 * ring is much smaller than the number of commands
+	 *
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testPublishConcurrently() throws InterruptedException {
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		for (int i = 0; i < 2000; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		}
+		for (WaitStrategy strategy : WaitStrategy.values()) {
+			CommandPipeline pipeline = new CommandPipeline(manager, 64, strategy);
+			pipeline.start();
+			Thread[] producers = new Thread[4];
+			for (int t = 0; t < producers.length; t++) {
+				final int first = t + 1;
+				producers[t] = new Thread(() -> {
+					for (int id = first; id <= 2000; id += producers.length) {
+						pipeline.publish(id, ACCEPT);
+					}
+				});
+				producers[t].start();
+			}
+			for (Thread producer : producers) {
+				producer.join();
+			}
+			pipeline.close();
+			assertEquals(0, pipeline.getQueueDepth());
+			assertEquals(2000, pipeline.getDrainedCount());
+		}
+		// Each wait strategy accepts every application once, which moves them
+		// from Review through Interview and RefCheck to Offer
+		assertEquals(2000, manager.getAppCountByAppType(A_OLD));
+		assertEquals(2000, manager.getAppsByReviewer(RID).size());
+		for (Object[] row : manager.getAppListAsArray()) {
+			assertEquals(OFFER_NAME, row[1]);
+		}
+	}
+}
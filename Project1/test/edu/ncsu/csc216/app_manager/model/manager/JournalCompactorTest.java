@@ -0,0 +1,163 @@
+package edu.ncsu.csc216.app_manager.model.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.app_manager.model.application.Application.AppType;
+import edu.ncsu.csc216.app_manager.model.command.Command;
+import edu.ncsu.csc216.app_manager.model.command.Command.CommandValue;
+
+/**
+ * Tests the JournalCompactor class
+ *
+ * @author Gabe Frain
+ */
+public class JournalCompactorTest {
+
+	/** New Application Type */
+	private static final AppType NEW_APP_TYPE = AppType.NEW;
+	/** Interview State String */
+	public static final String INTERVIEW_NAME = "Interview";
+	/** Summary String */
+	private static final String SUMMARY = "Great work";
+	/** Note String */
+	private static final String NOTE = "Odd employ";
+	/** Accept Command */
+	private static final Command ACCEPT = new Command(CommandValue.ACCEPT, "ghfrain", null, NOTE);
+
+	/**
+	 * Tests the JournalCompactor Constructor
+	 */
+	@Test
+	public void testJournalCompactor() {
+		AppManager manager = AppManager.getInstance();
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(null, 1, 1, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, -1, 1, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, 1, -1, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, 1, 1, -1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, 0, 0, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, 1, 1, 1, 0));
+	}
+
+	/**
+	 * Tests the size, count and time triggers of the check method
+	 *
+	 * @throws IOException if the temporary files cannot be created
+	 * @throws InterruptedException if the test is interrupted while sleeping
+	 */
+	@Test
+	public void testCheck() throws IOException, InterruptedException {
+		Path dir = Files.createTempDirectory("compactor");
+		String snapshotFile = dir.resolve("apps.txt").toString();
+		String journalFile = dir.resolve("apps.journal").toString();
+		AppManager manager = AppManager.getInstance();
+		manager.createNewAppList();
+		assertFalse(new JournalCompactor(manager, 1, 0, 0, 1000).check());
+
+		manager.openJournal(snapshotFile, journalFile, 1);
+		JournalCompactor byCount = new JournalCompactor(manager, 0, 3, 0, 1000);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		assertFalse(byCount.check());
+		manager.executeCommand(1, ACCEPT);
+		assertTrue(byCount.check());
+		assertEquals(1, byCount.getCompactionCount());
+		assertTrue(byCount.getLastCompactionNanos() > 0);
+		assertEquals(0, manager.getJournalRecordCount());
+		assertEquals(0, new File(journalFile).length());
+		assertTrue(new File(snapshotFile).length() > 0);
+
+		JournalCompactor bySize = new JournalCompactor(manager, 100, 0, 0, 1000);
+		manager.executeCommand(2, ACCEPT);
+		assertFalse(bySize.check());
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		assertTrue(bySize.check());
+		assertEquals(0, manager.getJournalSize());
+
+		JournalCompactor byTime = new JournalCompactor(manager, 0, 0, 1, 1000);
+		Thread.sleep(5);
+		assertFalse(byTime.check());
+		manager.deleteAppById(4);
+		assertTrue(byTime.check());
+
+		// The compacted snapshot and an empty journal recover the whole list
+		manager.createNewAppList();
+		manager.openJournal(snapshotFile, journalFile, 1);
+		assertEquals(3, manager.getAppCount());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(1).getStateName());
+		assertEquals(INTERVIEW_NAME, manager.getAppById(2).getStateName());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests that a started compactor compacts the journal in the background
+	 *
+	 * @throws IOException if the temporary files cannot be created
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testStart() throws IOException, InterruptedException {
+		Path dir = Files.createTempDirectory("compactor");
+		AppManager manager = AppManager.getInstance();
+		manager.openJournal(dir.resolve("apps.txt").toString(), dir.resolve("apps.journal").toString(), 8);
+		JournalCompactor compactor = new JournalCompactor(manager, 0, 10, 0, 1);
+		compactor.start();
+		assertThrows(IllegalStateException.class, () -> compactor.start());
+		for (int i = 0; i < 10; i++) {
+			manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		}
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (compactor.getCompactionCount() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		compactor.close();
+		assertEquals(1, compactor.getCompactionCount());
+		assertEquals(0, compactor.getFailedCount());
+		assertEquals(0, manager.getJournalRecordCount());
+		manager.createNewAppList();
+	}
+
+	/**
+	 * Tests that a compaction failing with an exception other than
+	 * IllegalArgumentException is counted and the next scheduled check still runs
+	 *
+	 * @throws IOException if the temporary files cannot be created
+	 * @throws InterruptedException if the test is interrupted while waiting
+	 */
+	@Test
+	public void testStartAfterFailure() throws IOException, InterruptedException {
+		Path dir = Files.createTempDirectory("compactor");
+		AppManager manager = AppManager.getInstance();
+		manager.openJournal(dir.resolve("apps.txt").toString(), dir.resolve("apps.journal").toString(), 8);
+		AtomicInteger calls = new AtomicInteger();
+		JournalCompactor compactor = new JournalCompactor(manager, () -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalStateException();
+			}
+			return manager.compactJournal();
+		}, 0, 1, 0, 1);
+		assertThrows(IllegalArgumentException.class, () -> new JournalCompactor(manager, null, 0, 1, 0, 1));
+		manager.addAppToList(NEW_APP_TYPE, SUMMARY, NOTE);
+		compactor.start();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (compactor.getCompactionCount() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		compactor.close();
+		assertEquals(1, compactor.getFailedCount());
+		assertEquals(1, compactor.getCompactionCount());
+		assertEquals(0, manager.getJournalRecordCount());
+		manager.createNewAppList();
+	}
+}